@@ -1,16 +1,14 @@
 package com.example.cecv_e_commerce.config;
 
-import org.modelmapper.ModelMapper;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 
+/**
+ * {@code @Async} methods run on Spring Boot's {@code applicationTaskExecutor}, which switches to
+ * virtual threads together with request handling and {@code @Scheduled} tasks when
+ * {@code spring.threads.virtual.enabled} is set.
+ */
 @Configuration
 @EnableAsync
 public class AppConfig {
-
-    @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
-    }
 }
@@ -0,0 +1,174 @@
+package com.example.cecv_e_commerce.config;
+
+import com.example.cecv_e_commerce.domain.dto.stats.BestSellingProductDTO;
+import com.example.cecv_e_commerce.domain.enums.OrderStatusEnum;
+import com.example.cecv_e_commerce.domain.model.Order;
+import com.example.cecv_e_commerce.service.impl.BestSellerLeaderboard;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Feeds the {@link BestSellerLeaderboard} from order changes.
+ * <p>
+ * When an order enters or leaves a counted status (or its creation day changes), its items are
+ * read on the same connection just before commit and applied to the leaderboard once the
+ * transaction has committed. Deleting a counted order marks the leaderboard stale instead, since
+ * its items are gone by the time the transaction completes.
+ */
+@Component
+public class BestSellerLeaderboardListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Set<OrderStatusEnum> COUNTED_STATUSES = Set.of(
+            OrderStatusEnum.CONFIRMED,
+            OrderStatusEnum.SHIPPED,
+            OrderStatusEnum.DELIVERED
+    );
+
+    private static final String ORDER_ITEMS_SQL = """
+            SELECT p.id, p.name, p.image_url, SUM(oi.quantity)
+            FROM order_items oi JOIN products p ON p.id = oi.product_id
+            WHERE oi.order_id = ?
+            GROUP BY p.id, p.name, p.image_url
+            """;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BestSellerLeaderboard bestSellerLeaderboard;
+
+    @Value("${app.stats.leaderboard.enabled:true}")
+    private boolean enabled;
+
+    @PostConstruct
+    public void register() {
+        if (!enabled) {
+            return;
+        }
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Order) {
+            LocalDate day = countedDay(event.getPersister(), event.getState());
+            if (day != null) {
+                applyAfterCommit(event.getSession(), event.getId(), day, 1);
+            }
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Order)) {
+            return;
+        }
+        if (event.getOldState() == null) {
+            markStaleAfterCommit(event.getSession());
+            return;
+        }
+        LocalDate before = countedDay(event.getPersister(), event.getOldState());
+        LocalDate after = countedDay(event.getPersister(), event.getState());
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            applyAfterCommit(event.getSession(), event.getId(), before, -1);
+        }
+        if (after != null) {
+            applyAfterCommit(event.getSession(), event.getId(), after, 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Order
+                && countedDay(event.getPersister(), event.getDeletedState()) != null) {
+            markStaleAfterCommit(event.getSession());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void applyAfterCommit(EventSource session, Object orderId, LocalDate day, int sign) {
+        List<BestSellingProductDTO> items = new ArrayList<>();
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completingSession ->
+                completingSession.doWork(connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(ORDER_ITEMS_SQL)) {
+                        statement.setObject(1, orderId);
+                        try (ResultSet rs = statement.executeQuery()) {
+                            while (rs.next()) {
+                                items.add(new BestSellingProductDTO(rs.getInt(1), rs.getString(2),
+                                        rs.getString(3), rs.getLong(4)));
+                            }
+                        }
+                    }
+                }));
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completedSession) -> {
+            if (success) {
+                bestSellerLeaderboard.apply(day, items, sign);
+            }
+        });
+    }
+
+    private void markStaleAfterCommit(EventSource session) {
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completedSession) -> {
+            if (success) {
+                bestSellerLeaderboard.markStale();
+            }
+        });
+    }
+
+    private LocalDate countedDay(EntityPersister persister, Object[] state) {
+        String[] names = persister.getPropertyNames();
+        Object status = state[indexOf(names, "status")];
+        LocalDateTime createdAt = (LocalDateTime) state[indexOf(names, "createdAt")];
+        if (status == null || !COUNTED_STATUSES.contains(status) || createdAt == null) {
+            return null;
+        }
+        return createdAt.toLocalDate();
+    }
+
+    private static int indexOf(String[] names, String property) {
+        int index = Arrays.asList(names).indexOf(property);
+        if (index < 0) {
+            throw new IllegalStateException("Order has no mapped property " + property);
+        }
+        return index;
+    }
+}
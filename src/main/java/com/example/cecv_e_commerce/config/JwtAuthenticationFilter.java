@@ -1,5 +1,7 @@
 package com.example.cecv_e_commerce.config;
 
+import com.example.cecv_e_commerce.domain.model.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,7 +9,9 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -17,18 +21,29 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    /** Request attribute holding the verified {@link Claims} of the bearer token. */
+    public static final String JWT_CLAIMS_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".CLAIMS";
+
     @Autowired
     private JwtTokenProvider tokenProvider;
 
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserStatusRegistry userStatusRegistry;
+
+    // When enabled the principal is rebuilt from the token claims instead of loading the user row.
+    @Value("${app.security.stateless-principal.enabled:false}")
+    private boolean statelessPrincipal;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -36,14 +51,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromJWT(jwt); // Get username (email)
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            Optional<Claims> claims = StringUtils.hasText(jwt) ? tokenProvider.parseVerifiedClaims(jwt) : Optional.empty();
+            if (claims.isPresent()) {
+                request.setAttribute(JWT_CLAIMS_ATTRIBUTE, claims.get());
+                UserDetails userDetails = resolveUserDetails(claims.get());
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
+        } catch (AuthenticationException ex) {
+            // A signed token with unusable claims is rejected outright rather than treated as anonymous.
+            logger.warn("Rejected JWT: {}", ex.getMessage());
+            SecurityContextHolder.clearContext();
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid token");
+            return;
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
         }
@@ -51,6 +75,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolveUserDetails(Claims claims) {
+        if (statelessPrincipal) {
+            Optional<User> principal = tokenProvider.getPrincipalFromClaims(claims);
+            if (principal.isPresent()) {
+                if (!userStatusRegistry.isActive(principal.get().getId())) {
+                    logger.warn("Rejected token of inactive user ID: {}", principal.get().getId());
+                    return null;
+                }
+                return principal.get();
+            }
+        }
+        String username = claims.getSubject(); // Get username (email)
+        return userDetailsService.loadUserByUsername(username);
+    }
+
     // Helper method to get JWT from Request Header "Authorization"
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
@@ -1,18 +1,22 @@
 package com.example.cecv_e_commerce.config;
 
+import com.example.cecv_e_commerce.domain.enums.Role;
 import com.example.cecv_e_commerce.domain.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Component
@@ -29,9 +33,18 @@ public class JwtTokenProvider {
     @Value("${app.jwt.issuer}")
     private String jwtIssuer;
 
-    private SecretKey getSigningKey() {
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
         byte[] keyBytes = Decoders.BASE64.decode(this.jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        // JwtParser is immutable and thread-safe, so one instance serves every request.
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -62,34 +75,17 @@ public class JwtTokenProvider {
                 .setIssuer(jwtIssuer)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
-    }
-
-    public Integer getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.get("userId", Integer.class);
-    }
-
-    public boolean validateToken(String authToken) {
+    /**
+     * Verifies the signature and expiry of the token once and returns its claims.
+     * Returns empty for any invalid token, logging the reason.
+     */
+    public Optional<Claims> parseVerifiedClaims(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
-            return true;
+            return Optional.of(jwtParser.parseClaimsJws(authToken).getBody());
         } catch (SignatureException ex) {
             logger.error("Invalid JWT signature: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
@@ -101,6 +97,49 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty: {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
+    }
+
+    /**
+     * Builds a detached {@link User} carrying only the id, email and role found in the claims.
+     * Returns empty when the token was not issued for a {@link User} principal.
+     *
+     * @throws BadCredentialsException when the roles claim is empty or names no known {@link Role}
+     */
+    public Optional<User> getPrincipalFromClaims(Claims claims) {
+        Integer userId = claims.get("userId", Integer.class);
+        String roles = claims.get("roles", String.class);
+        if (userId == null || roles == null) {
+            return Optional.empty();
+        }
+
+        User user = new User();
+        user.setId(userId);
+        user.setEmail(claims.getSubject());
+        user.setRole(parseRole(roles));
+        user.setActive(true);
+        return Optional.of(user);
+    }
+
+    private Role parseRole(String roles) {
+        String role = roles.split(",")[0].trim().replaceFirst("^ROLE_", "");
+        for (Role candidate : Role.values()) {
+            if (candidate.name().equals(role)) {
+                return candidate;
+            }
+        }
+        throw new BadCredentialsException("Invalid JWT roles claim: '" + roles + "'");
+    }
+
+    public String getUsernameFromJWT(String token) {
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    public Integer getUserIdFromJWT(String token) {
+        return jwtParser.parseClaimsJws(token).getBody().get("userId", Integer.class);
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseVerifiedClaims(authToken).isPresent();
     }
 }
@@ -0,0 +1,115 @@
+package com.example.cecv_e_commerce.config;
+
+import com.example.cecv_e_commerce.domain.model.Product;
+import com.example.cecv_e_commerce.service.impl.ProductSearchIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pushes product writes made through JPA into the {@link ProductSearchIndex} once their transaction
+ * has committed. Updates that only touch stock or other unindexed columns are ignored, so checkout
+ * does not re-index products. Bulk JPQL/native updates and writes from outside the application do
+ * not raise entity events; ProductSearchIndexTask reconciles those on its refresh interval.
+ */
+@Component
+public class ProductSearchIndexListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Set<String> INDEXED_PROPERTIES = Set.of("name", "description", "category", "price",
+            "createdAt");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Value("${app.search.index.enabled:true}")
+    private boolean enabled;
+
+    @PostConstruct
+    public void register() {
+        if (!enabled) {
+            return;
+        }
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Product product) {
+            indexAfterCommit(event.getSession(), product);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Product product && touchesIndexedProperty(event)) {
+            indexAfterCommit(event.getSession(), product);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Product) {
+            Integer productId = (Integer) event.getId();
+            event.getSession().getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, completedSession) -> {
+                        if (success) {
+                            productSearchIndex.remove(productId);
+                        }
+                    });
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void indexAfterCommit(EventSource session, Product product) {
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completedSession) -> {
+            if (success) {
+                productSearchIndex.index(List.of(product));
+            }
+        });
+    }
+
+    private static boolean touchesIndexedProperty(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            // Dirty state unknown (e.g. merged detached entity): re-index to be safe.
+            return true;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        for (int index : dirty) {
+            if (INDEXED_PROPERTIES.contains(names[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
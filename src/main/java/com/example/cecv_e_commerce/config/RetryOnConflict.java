@@ -0,0 +1,22 @@
+package com.example.cecv_e_commerce.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a transactional method when it fails with an
+ * {@link org.springframework.dao.OptimisticLockingFailureException}.
+ * <p>
+ * The method is retried up to {@code app.stock.retry.max-attempts} times in total, sleeping a
+ * random time between zero and {@code app.stock.retry.backoff-ms} (doubled after every attempt)
+ * before each retry so competing requests spread out. Retries only happen when the call starts
+ * its own transaction; inside an outer transaction the failure is passed on unchanged.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+}
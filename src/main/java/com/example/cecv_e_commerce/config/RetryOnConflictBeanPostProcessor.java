@@ -0,0 +1,92 @@
+package com.example.cecv_e_commerce.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps beans with {@link RetryOnConflict} methods in a proxy that retries them on optimistic
+ * locking failures. The transaction proxy is created by the auto-proxy creator, which runs before
+ * this post-processor, so every retry gets a new transaction and reads fresh rows.
+ */
+@Component
+public class RetryOnConflictBeanPostProcessor implements BeanPostProcessor, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryOnConflictBeanPostProcessor.class);
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public RetryOnConflictBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistryProvider, Environment environment) {
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.maxAttempts = Math.max(1, environment.getProperty("app.stock.retry.max-attempts", Integer.class, 3));
+        this.backoffMs = Math.max(0, environment.getProperty("app.stock.retry.backoff-ms", Long.class, 20L));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        AtomicBoolean retried = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(targetClass,
+                method -> retried.set(true),
+                method -> AnnotatedElementUtils.hasAnnotation(method, RetryOnConflict.class));
+        if (!retried.get()) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(retryingInterceptor(targetClass));
+        return proxyFactory.getProxy(targetClass.getClassLoader());
+    }
+
+    private MethodInterceptor retryingInterceptor(Class<?> targetClass) {
+        return invocation -> {
+            Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+            if (!AnnotatedElementUtils.hasAnnotation(method, RetryOnConflict.class)
+                    || TransactionSynchronizationManager.isActualTransactionActive()) {
+                return invocation.proceed();
+            }
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    // A clone, because a method invocation can only be proceeded once.
+                    return ((ProxyMethodInvocation) invocation).invocableClone().proceed();
+                } catch (OptimisticLockingFailureException e) {
+                    if (attempt >= maxAttempts) {
+                        logger.warn("{} still conflicted after {} attempts: {}", method.getName(), attempt, e.getMessage());
+                        throw e;
+                    }
+                    MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+                    if (meterRegistry != null) {
+                        meterRegistry.counter("conflict.retries", "method", method.getName()).increment();
+                    }
+                    long delay = backoffMs == 0 ? 0 : ThreadLocalRandom.current().nextLong(backoffMs << Math.min(attempt - 1, 10));
+                    logger.debug("{} conflicted on attempt {}; retrying in {} ms.", method.getName(), attempt, delay);
+                    Thread.sleep(delay);
+                }
+            }
+        };
+    }
+}
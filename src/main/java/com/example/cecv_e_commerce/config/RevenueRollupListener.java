@@ -0,0 +1,157 @@
+package com.example.cecv_e_commerce.config;
+
+import com.example.cecv_e_commerce.domain.enums.OrderStatusEnum;
+import com.example.cecv_e_commerce.domain.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Keeps {@code daily_revenue_rollups} in step with the {@code orders} table.
+ * <p>
+ * Every insert, update or delete of an {@link Order} in a revenue-counted status (confirmed,
+ * shipped, delivered) is turned into a signed delta per {@code (status, day)}. Pending and
+ * cancelled orders are not rolled up, so placing an order never locks a rollup row; the row
+ * is only touched when the order is confirmed. The deltas are written on the same connection just before the
+ * transaction commits, so the rollup commits or rolls back with the order, and the rollup row
+ * lock is held only for the commit itself.
+ * <p>
+ * Only entity writes raise these events: bulk JPQL/native updates of {@code orders} and writes from
+ * outside the application bypass the listener. RevenueRollupReconcileTask compares the most recent
+ * days with {@code orders} and adds the missing deltas.
+ */
+@Component
+public class RevenueRollupListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueRollupListener.class);
+
+    /**
+     * Adds a signed delta to one {@code (revenue_date, status)} row; also used by
+     * RevenueRollupReconcileTask to apply its corrections.
+     */
+    public static final String UPSERT_SQL = """
+            INSERT INTO daily_revenue_rollups (revenue_date, status, order_count, total_revenue)
+            VALUES (?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count),
+                                    total_revenue = total_revenue + VALUES(total_revenue)
+            """;
+
+    /**
+     * The statuses AdminStatsServiceImpl sums revenue over; only these are rolled up.
+     */
+    public static final Set<OrderStatusEnum> COUNTED_STATUSES = Set.of(
+            OrderStatusEnum.CONFIRMED,
+            OrderStatusEnum.SHIPPED,
+            OrderStatusEnum.DELIVERED
+    );
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Order) {
+            apply(event.getSession(), snapshot(event.getPersister(), event.getState()), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Order)) {
+            return;
+        }
+        if (event.getOldState() == null) {
+            logger.warn("No previous state for order {}; revenue rollup not adjusted.", event.getId());
+            return;
+        }
+        Snapshot before = snapshot(event.getPersister(), event.getOldState());
+        Snapshot after = snapshot(event.getPersister(), event.getState());
+        if (!before.equals(after)) {
+            apply(event.getSession(), before, -1);
+            apply(event.getSession(), after, 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Order) {
+            apply(event.getSession(), snapshot(event.getPersister(), event.getDeletedState()), -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void apply(EventSource session, Snapshot snapshot, int sign) {
+        if (snapshot.status() == null || !COUNTED_STATUSES.contains(snapshot.status())
+                || snapshot.createdAt() == null) {
+            return;
+        }
+        BigDecimal revenue = snapshot.total() == null ? BigDecimal.ZERO : BigDecimal.valueOf(snapshot.total());
+        Date revenueDate = Date.valueOf(snapshot.createdAt().toLocalDate());
+        BigDecimal signedRevenue = sign < 0 ? revenue.negate() : revenue;
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completingSession ->
+                completingSession.doWork(connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+                        statement.setDate(1, revenueDate);
+                        statement.setString(2, snapshot.status().name());
+                        statement.setInt(3, sign);
+                        statement.setBigDecimal(4, signedRevenue);
+                        statement.executeUpdate();
+                    }
+                }));
+    }
+
+    private Snapshot snapshot(EntityPersister persister, Object[] state) {
+        String[] names = persister.getPropertyNames();
+        return new Snapshot((OrderStatusEnum) state[indexOf(names, "status")],
+                (Double) state[indexOf(names, "total")],
+                (LocalDateTime) state[indexOf(names, "createdAt")]);
+    }
+
+    private static int indexOf(String[] names, String property) {
+        int index = Arrays.asList(names).indexOf(property);
+        if (index < 0) {
+            throw new IllegalStateException("Order has no mapped property " + property);
+        }
+        return index;
+    }
+
+    private record Snapshot(OrderStatusEnum status, Double total, LocalDateTime createdAt) {
+    }
+}
@@ -1,21 +1,42 @@
 package com.example.cecv_e_commerce.config;
 
+import com.example.cecv_e_commerce.domain.model.User;
 import com.example.cecv_e_commerce.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    UserPrincipalCache userPrincipalCache;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findByEmail(email)
+        return userPrincipalCache.getByEmail(email, userRepository::findByEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + email));
     }
+
+    public User loadUserById(Integer userId) throws UsernameNotFoundException {
+        return userPrincipalCache.getById(userId, userRepository::findById)
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with id: " + userId));
+    }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = (User) userDetails;
+        userRepository.updatePassword(user.getId(), newPassword);
+        userPrincipalCache.invalidate(user.getId(), user.getEmail());
+        user.setPassword(newPassword);
+        return user;
+    }
 }
@@ -0,0 +1,90 @@
+package com.example.cecv_e_commerce.config;
+
+import com.example.cecv_e_commerce.domain.model.User;
+import com.example.cecv_e_commerce.util.BoundedTtlCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of authenticated principals, indexed by email and by user id, so the JWT
+ * filter does not query the users table on every request.
+ * <p>
+ * Any change to a user's credentials or status must call {@link #invalidate(Integer, String)}.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPrincipalCache.class);
+
+    private final BoundedTtlCache<String, User> byEmail;
+    private final BoundedTtlCache<Integer, User> byId;
+
+    public UserPrincipalCache(@Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+                              @Value("${app.security.principal-cache.ttl-ms:60000}") long ttlMs,
+                              MeterRegistry meterRegistry) {
+        this.byEmail = new BoundedTtlCache<String, User>("user_principal_by_email", maxSize, ttlMs)
+                .bindTo(meterRegistry);
+        this.byId = new BoundedTtlCache<Integer, User>("user_principal_by_id", maxSize, ttlMs)
+                .bindTo(meterRegistry);
+    }
+
+    public Optional<User> getByEmail(String email, Function<String, Optional<User>> loader) {
+        long idGeneration = byId.generation();
+        return Optional.ofNullable(byEmail.getOrLoad(email, key -> loader.apply(key)
+                .map(user -> {
+                    if (user.getId() != null) {
+                        byId.putIfGeneration(user.getId(), user, idGeneration);
+                    }
+                    return user;
+                })
+                .orElse(null)));
+    }
+
+    public Optional<User> getById(Integer userId, Function<Integer, Optional<User>> loader) {
+        long emailGeneration = byEmail.generation();
+        return Optional.ofNullable(byId.getOrLoad(userId, key -> loader.apply(key)
+                .map(user -> {
+                    byEmail.putIfGeneration(user.getEmail(), user, emailGeneration);
+                    return user;
+                })
+                .orElse(null)));
+    }
+
+    /**
+     * Drops the user from both indexes now and, when called inside a transaction, once more
+     * after commit. Both indexes are filled only if no invalidation happened since the load
+     * started, so a request that read the row before commit cannot re-cache it afterwards.
+     */
+    public void invalidate(Integer userId, String email) {
+        evict(userId, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId, email);
+                }
+            });
+        }
+    }
+
+    private void evict(Integer userId, String email) {
+        logger.debug("Evicting cached principal for user ID: {}", userId);
+        if (email != null) {
+            byEmail.invalidate(email);
+        }
+        if (userId != null) {
+            byId.invalidate(userId);
+            // The email may have been unknown to the caller; drop any entry still pointing at the id.
+            byEmail.invalidateIf(user -> Objects.equals(user.getId(), userId));
+        }
+    }
+}
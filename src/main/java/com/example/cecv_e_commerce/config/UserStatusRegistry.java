@@ -0,0 +1,70 @@
+package com.example.cecv_e_commerce.config;
+
+import com.example.cecv_e_commerce.repository.UserRepository;
+import com.example.cecv_e_commerce.util.BoundedTtlCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Short-lived view of the users' active flag, used when the authentication filter builds
+ * principals straight from JWT claims. Changes made on this node apply once their transaction
+ * commits; changes made by other nodes are picked up once the cached entry is older than the TTL.
+ */
+@Component
+public class UserStatusRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatusRegistry.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.user-status.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${app.security.user-status.max-entries:10000}")
+    private int maxEntries;
+
+    private BoundedTtlCache<Integer, Boolean> statuses;
+
+    @PostConstruct
+    public void init() {
+        statuses = new BoundedTtlCache<Integer, Boolean>("user_status", maxEntries, ttlMs).bindTo(meterRegistry);
+    }
+
+    public boolean isActive(Integer userId) {
+        // Loads outside any lock; a load overlapping an invalidation is not cached.
+        return statuses.getOrLoad(userId, id -> userRepository.findActiveFlagById(id).orElse(false));
+    }
+
+    /**
+     * Drops the user's flag now and, when called inside a transaction, once more after commit,
+     * so the next check reads the committed row and a load racing the commit cannot keep the
+     * old value. Nothing is written before commit, so a rollback leaves the registry correct.
+     */
+    public void invalidate(Integer userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    private void evict(Integer userId) {
+        logger.debug("Evicting active flag for user ID: {}", userId);
+        statuses.invalidate(userId);
+    }
+}
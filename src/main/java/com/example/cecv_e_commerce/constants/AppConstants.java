@@ -7,6 +7,7 @@ public final class AppConstants {
     // Pagination Defaults
     public static final int DEFAULT_PAGE_NUMBER = 0;
     public static final int DEFAULT_PAGE_SIZE = 6;
+    public static final int MAX_CURSOR_PAGE_SIZE = 100;
 
     // Search Defaults
     public static final int DEFAULT_SEARCH_PAGE_SIZE = 12;
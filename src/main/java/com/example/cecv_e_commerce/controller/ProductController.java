@@ -1,6 +1,7 @@
 package com.example.cecv_e_commerce.controller;
 
 import com.example.cecv_e_commerce.domain.dto.ApiResponse;
+import com.example.cecv_e_commerce.domain.dto.CursorPageDTO;
 import com.example.cecv_e_commerce.domain.dto.comment.CommentDTO;
 import com.example.cecv_e_commerce.domain.dto.product.ProductBriefDTO;
 import com.example.cecv_e_commerce.domain.dto.product.ProductDetailDTO;
@@ -45,6 +46,15 @@ public class ProductController {
         return ResponseEntity.ok(ApiResponse.success(AppConstants.MSG_FEATURED_PRODUCTS_SUCCESS, featuredProducts));
     }
 
+    @GetMapping("/featured/scroll")
+    public ResponseEntity<ApiResponse> scrollFeaturedProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDTO<ProductBriefDTO> featuredProducts = productService.getFeaturedProducts(cursor,
+                resolveCursorPageSize(size, AppConstants.DEFAULT_PAGE_SIZE));
+        return ResponseEntity.ok(ApiResponse.success(AppConstants.MSG_FEATURED_PRODUCTS_SUCCESS, featuredProducts));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse> getProductDetails(@PathVariable Integer id) {
         ProductDetailDTO productDetails = productService.getProductDetails(id);
@@ -63,6 +73,16 @@ public class ProductController {
         return ResponseEntity.ok(ApiResponse.success(AppConstants.MSG_PRODUCTS_SEARCH_SUCCESS, productPage));
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<ApiResponse> scrollProducts(
+            SearchProductRequestDTO criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDTO<ProductBriefDTO> productPage = productService.searchProducts(criteria, cursor,
+                resolveCursorPageSize(size, AppConstants.DEFAULT_SEARCH_PAGE_SIZE));
+        return ResponseEntity.ok(ApiResponse.success(AppConstants.MSG_PRODUCTS_SEARCH_SUCCESS, productPage));
+    }
+
     @PostMapping("/{productId}/reviews")
     public ResponseEntity<ApiResponse> addReview(
             @PathVariable Integer productId,
@@ -83,4 +103,14 @@ public class ProductController {
 
         return ResponseEntity.ok(ApiResponse.success(AppConstants.MSG_REVIEWS_FETCHED_SUCCESS, commentPage));
     }
+
+    private int resolveCursorPageSize(Integer size, int defaultSize) {
+        if (size == null) {
+            return defaultSize;
+        }
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1.");
+        }
+        return Math.min(size, AppConstants.MAX_CURSOR_PAGE_SIZE);
+    }
  }
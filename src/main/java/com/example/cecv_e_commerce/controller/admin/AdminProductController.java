@@ -0,0 +1,33 @@
+package com.example.cecv_e_commerce.controller.admin;
+
+import com.example.cecv_e_commerce.domain.dto.ApiResponse;
+import com.example.cecv_e_commerce.domain.dto.product.ProductDetailDTO;
+import com.example.cecv_e_commerce.domain.dto.product.StockShardUpdateDTO;
+import com.example.cecv_e_commerce.service.ProductService;
+import com.example.cecv_e_commerce.service.StockShardService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin/products")
+@RequiredArgsConstructor
+public class AdminProductController extends AdminController {
+
+    private final StockShardService stockShardService;
+    private final ProductService productService;
+
+    /**
+     * Splits a product's stock across {@code shards} rows for flash sales, or merges it back
+     * into a single row with {@code shards = 0}.
+     */
+    @PutMapping("/{productId}/stock-shards")
+    public ResponseEntity<ApiResponse> updateStockShards(
+            @PathVariable Integer productId,
+            @Valid @RequestBody StockShardUpdateDTO stockShardUpdateDTO) {
+        stockShardService.reshard(productId, stockShardUpdateDTO.getShards());
+        ProductDetailDTO product = productService.getProductDetails(productId);
+        return ResponseEntity.ok(ApiResponse.success("Product stock shards updated successfully", product));
+    }
+}
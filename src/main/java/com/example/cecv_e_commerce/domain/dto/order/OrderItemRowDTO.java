@@ -0,0 +1,19 @@
+package com.example.cecv_e_commerce.domain.dto.order;
+
+import com.example.cecv_e_commerce.domain.dto.product.ProductDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of an order item joined with its product.
+ */
+public record OrderItemRowDTO(Integer id, Integer orderId, Integer productId, String productName,
+        String productDescription, BigDecimal productPrice, Integer productQuantity, Double price,
+        Integer quantity) {
+
+    public OrderItemDTO toOrderItemDTO() {
+        return new OrderItemDTO(id, orderId,
+                new ProductDTO(productId, productName, productDescription, productPrice, productQuantity),
+                price, quantity);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.cecv_e_commerce.domain.dto.order;
+
+import com.example.cecv_e_commerce.domain.enums.OrderStatusEnum;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of an order with its shipping and payment, loaded in one statement.
+ */
+public record OrderSummaryRowDTO(Integer orderId, Integer userId, OrderStatusEnum status,
+        Integer shippingId, String recipientName, String recipientPhone, String addressLine1,
+        String addressLine2, String city, String postalCode, String country, String shippingMethod,
+        Double shippingFee, Integer paymentId, String paymentMethod, String paymentStatus,
+        Double paymentAmount, String transactionId, LocalDateTime paidAt) {
+
+    public OrderShippingDTO toOrderShippingDTO() {
+        if (shippingId == null) {
+            return null;
+        }
+        return new OrderShippingDTO(shippingId, recipientName, recipientPhone, addressLine1,
+                addressLine2, city, postalCode, country, shippingMethod, shippingFee);
+    }
+
+    public OrderPaymentDTO toOrderPaymentDTO() {
+        if (paymentId == null) {
+            return null;
+        }
+        return new OrderPaymentDTO(paymentId, orderId, paymentMethod, paymentStatus, paymentAmount,
+                transactionId, paidAt);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.cecv_e_commerce.domain.dto.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailEventPayloadDTO {
+    private Integer userId;
+    private String to;
+    private String name;
+    private String link;
+}
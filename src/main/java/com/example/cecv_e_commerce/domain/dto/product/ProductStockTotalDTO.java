@@ -0,0 +1,4 @@
+package com.example.cecv_e_commerce.domain.dto.product;
+
+public record ProductStockTotalDTO(Integer productId, Long quantity) {
+}
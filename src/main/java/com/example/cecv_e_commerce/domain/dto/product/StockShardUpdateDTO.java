@@ -0,0 +1,17 @@
+package com.example.cecv_e_commerce.domain.dto.product;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class StockShardUpdateDTO {
+
+    @NotNull(message = "Shard count is required")
+    @Min(value = 0, message = "Shard count must be at least 0")
+    @Max(value = 256, message = "Shard count must be at most 256")
+    private Integer shards;
+}
@@ -0,0 +1,27 @@
+package com.example.cecv_e_commerce.domain.dto.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyProductSalesDTO {
+    private LocalDate day;
+    private Integer productId;
+    private String productName;
+    private String imageUrl;
+    private Long quantitySold;
+
+    public DailyProductSalesDTO(Integer year, Integer month, Integer dayOfMonth, Integer productId,
+                                String productName, String imageUrl, Number quantitySold) {
+        this.day = LocalDate.of(year, month, dayOfMonth);
+        this.productId = productId;
+        this.productName = productName;
+        this.imageUrl = imageUrl;
+        this.quantitySold = (quantitySold != null) ? quantitySold.longValue() : 0L;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.cecv_e_commerce.domain.enums;
+
+public enum OutboxEventType {
+    ACTIVATION_EMAIL,
+    PASSWORD_RESET_EMAIL,
+}
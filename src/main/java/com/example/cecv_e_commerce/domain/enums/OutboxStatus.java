@@ -0,0 +1,9 @@
+package com.example.cecv_e_commerce.domain.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    /** Claimed by a dispatcher that is sending it; {@code available_at} is when the claim lapses. */
+    IN_FLIGHT,
+    PROCESSED,
+    FAILED,
+}
@@ -36,6 +36,17 @@ public class Product {
     @Column(nullable = false)
     private Integer quantity;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Number of {@link ProductStockShard} rows holding this product's stock; 0 when the stock is
+     * kept in {@link #quantity}.
+     */
+    @Column(name = "stock_shards", nullable = false)
+    private int stockShards;
+
     @Column(nullable = false, columnDefinition = "BOOLEAN DEFAULT FALSE")
     private boolean featured = false;
 
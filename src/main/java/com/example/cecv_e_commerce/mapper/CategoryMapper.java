@@ -0,0 +1,29 @@
+package com.example.cecv_e_commerce.mapper;
+
+import com.example.cecv_e_commerce.domain.dto.category.CategoryDTO;
+import com.example.cecv_e_commerce.domain.model.Category;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CategoryMapper {
+
+    public CategoryDTO toDTO(Category category) {
+        if (category == null) return null;
+        CategoryDTO dto = new CategoryDTO();
+        dto.setId(category.getId());
+        dto.setName(category.getName());
+        dto.setDescription(category.getDescription());
+        dto.setCreatedAt(category.getCreatedAt());
+        return dto;
+    }
+
+    public CategoryDTO copyOf(CategoryDTO source) {
+        if (source == null) return null;
+        CategoryDTO dto = new CategoryDTO();
+        dto.setId(source.getId());
+        dto.setName(source.getName());
+        dto.setDescription(source.getDescription());
+        dto.setCreatedAt(source.getCreatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.cecv_e_commerce.mapper;
+
+import com.example.cecv_e_commerce.domain.dto.comment.CommentDTO;
+import com.example.cecv_e_commerce.domain.model.Comment;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CommentMapper {
+
+    public CommentDTO toDTO(Comment comment) {
+        if (comment == null) return null;
+        CommentDTO dto = new CommentDTO();
+        dto.setId(comment.getId());
+        dto.setContent(comment.getContent());
+        dto.setCreatedAt(comment.getCreatedAt());
+        if (comment.getProduct() != null) dto.setProductId(comment.getProduct().getId());
+        if (comment.getUser() != null) {
+            dto.setUserId(comment.getUser().getId());
+            dto.setUsername(comment.getUser().getName());
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.cecv_e_commerce.mapper;
+
+import com.example.cecv_e_commerce.domain.dto.product.ProductBriefDTO;
+import com.example.cecv_e_commerce.domain.dto.product.ProductDetailDTO;
+import com.example.cecv_e_commerce.domain.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ProductMapper {
+
+    private final CategoryMapper categoryMapper;
+
+    public ProductBriefDTO toBriefDTO(Product product) {
+        if (product == null) return null;
+        ProductBriefDTO dto = new ProductBriefDTO();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setPrice(product.getPrice());
+        dto.setImageUrl(product.getImageUrl());
+        dto.setCategory(categoryMapper.toDTO(product.getCategory()));
+        return dto;
+    }
+
+    public ProductDetailDTO toDetailDTO(Product product) {
+        if (product == null) return null;
+        ProductDetailDTO dto = new ProductDetailDTO();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setImageUrl(product.getImageUrl());
+        dto.setPrice(product.getPrice());
+        dto.setCategory(categoryMapper.toDTO(product.getCategory()));
+        dto.setQuantity(product.getQuantity());
+        dto.setFeatured(product.isFeatured());
+        dto.setCreatedAt(product.getCreatedAt());
+        dto.setUpdatedAt(product.getUpdatedAt());
+        return dto;
+    }
+
+    public ProductBriefDTO copyOf(ProductBriefDTO source) {
+        if (source == null) return null;
+        ProductBriefDTO dto = new ProductBriefDTO();
+        dto.setId(source.getId());
+        dto.setName(source.getName());
+        dto.setPrice(source.getPrice());
+        dto.setImageUrl(source.getImageUrl());
+        dto.setCategory(categoryMapper.copyOf(source.getCategory()));
+        return dto;
+    }
+
+    public ProductDetailDTO copyOf(ProductDetailDTO source) {
+        if (source == null) return null;
+        ProductDetailDTO dto = new ProductDetailDTO();
+        dto.setId(source.getId());
+        dto.setName(source.getName());
+        dto.setDescription(source.getDescription());
+        dto.setImageUrl(source.getImageUrl());
+        dto.setPrice(source.getPrice());
+        dto.setCategory(categoryMapper.copyOf(source.getCategory()));
+        dto.setQuantity(source.getQuantity());
+        dto.setFeatured(source.isFeatured());
+        dto.setCreatedAt(source.getCreatedAt());
+        dto.setUpdatedAt(source.getUpdatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.cecv_e_commerce.mapper;
+
+import com.example.cecv_e_commerce.domain.dto.rating.RatingDTO;
+import com.example.cecv_e_commerce.domain.model.Rating;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RatingMapper {
+
+    public RatingDTO toDTO(Rating rating) {
+        if (rating == null) return null;
+        RatingDTO dto = new RatingDTO();
+        dto.setId(rating.getId());
+        dto.setRating(rating.getRating());
+        dto.setCreatedAt(rating.getCreatedAt());
+        if (rating.getProduct() != null) dto.setProductId(rating.getProduct().getId());
+        if (rating.getUser() != null) {
+            dto.setUserId(rating.getUser().getId());
+            dto.setUsername(rating.getUser().getName());
+        }
+        return dto;
+    }
+}
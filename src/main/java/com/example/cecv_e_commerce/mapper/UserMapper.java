@@ -0,0 +1,23 @@
+package com.example.cecv_e_commerce.mapper;
+
+import com.example.cecv_e_commerce.domain.dto.user.UserDTO;
+import com.example.cecv_e_commerce.domain.model.User;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserMapper {
+
+    public UserDTO toDTO(User user) {
+        if (user == null) return null;
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setName(user.getName());
+        dto.setEmail(user.getEmail());
+        dto.setRole(user.getRole());
+        dto.setActive(user.isActive());
+        dto.setCreatedAt(user.getCreatedAt());
+        dto.setUpdatedAt(user.getUpdatedAt());
+        dto.setActivatedAt(user.getActivatedAt());
+        return dto;
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.cecv_e_commerce.repository;
 
 import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.example.cecv_e_commerce.domain.model.Cart;
 
 public interface CartRepository extends JpaRepository<Cart, Integer> {
-    Optional<Cart> findByUserId(Integer userId);
+    // Cart, items and their products in one statement, however many lines the cart holds.
+    @EntityGraph(attributePaths = {"items", "items.product"})
+    Optional<Cart> findWithItemsByUserId(Integer userId);
+
+    @EntityGraph(attributePaths = {"items", "items.product"})
+    Optional<Cart> findWithItemsById(Integer id);
 }
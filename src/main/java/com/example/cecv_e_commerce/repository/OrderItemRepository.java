@@ -3,7 +3,9 @@ package com.example.cecv_e_commerce.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.example.cecv_e_commerce.domain.model.OrderItem;
 import com.example.cecv_e_commerce.domain.enums.OrderStatusEnum;
+import com.example.cecv_e_commerce.domain.dto.order.OrderItemRowDTO;
 import com.example.cecv_e_commerce.domain.dto.stats.BestSellingProductDTO;
+import com.example.cecv_e_commerce.domain.dto.stats.DailyProductSalesDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
@@ -42,4 +44,37 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Integer> {
     Page<BestSellingProductDTO> findAllTimeBestSellingProducts(
             @Param("statuses") List<OrderStatusEnum> statuses,
             Pageable pageable);
+
+    @Query("""
+           SELECT new com.example.cecv_e_commerce.domain.dto.stats.BestSellingProductDTO(
+               p.id, p.name, p.imageUrl, SUM(oi.quantity)
+           )
+           FROM OrderItem oi JOIN oi.order o JOIN oi.product p
+           WHERE o.status IN :statuses
+           GROUP BY p.id, p.name, p.imageUrl
+           """)
+    List<BestSellingProductDTO> findAllTimeProductSales(@Param("statuses") List<OrderStatusEnum> statuses);
+
+    @Query("""
+           SELECT new com.example.cecv_e_commerce.domain.dto.stats.DailyProductSalesDTO(
+               year(o.createdAt), month(o.createdAt), day(o.createdAt),
+               p.id, p.name, p.imageUrl, SUM(oi.quantity)
+           )
+           FROM OrderItem oi JOIN oi.order o JOIN oi.product p
+           WHERE o.status IN :statuses AND o.createdAt >= :since
+           GROUP BY year(o.createdAt), month(o.createdAt), day(o.createdAt), p.id, p.name, p.imageUrl
+           """)
+    List<DailyProductSalesDTO> findDailyProductSalesSince(
+            @Param("statuses") List<OrderStatusEnum> statuses,
+            @Param("since") LocalDateTime since);
+
+    @Query("""
+           SELECT new com.example.cecv_e_commerce.domain.dto.order.OrderItemRowDTO(
+               oi.id, oi.order.id, p.id, p.name, p.description, p.price, p.quantity, oi.price, oi.quantity
+           )
+           FROM OrderItem oi JOIN oi.product p
+           WHERE oi.order.id = :orderId
+           ORDER BY oi.id
+           """)
+    List<OrderItemRowDTO> findRowsByOrderId(@Param("orderId") Integer orderId);
 }
@@ -1,19 +1,47 @@
 package com.example.cecv_e_commerce.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import com.example.cecv_e_commerce.domain.dto.order.OrderSummaryRowDTO;
 import com.example.cecv_e_commerce.domain.model.Order;
 import com.example.cecv_e_commerce.domain.enums.OrderStatusEnum;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Integer> {
+    // The whole order aggregate in one statement, for paths that modify it.
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product", "orderShipping", "orderPayment"})
+    Optional<Order> findWithDetailsById(Integer id);
+
+    @Query("""
+           SELECT new com.example.cecv_e_commerce.domain.dto.order.OrderSummaryRowDTO(
+               o.id, o.user.id, o.status,
+               s.id, s.recipientName, s.recipientPhone, s.addressLine1, s.addressLine2, s.city,
+               s.postalCode, s.country, s.shippingMethod, s.shippingFee,
+               p.id, p.paymentMethod, p.paymentStatus, p.paymentAmount, p.transactionId, p.paidAt
+           )
+           FROM Order o LEFT JOIN o.orderShipping s LEFT JOIN o.orderPayment p
+           WHERE o.id = :orderId
+           """)
+    Optional<OrderSummaryRowDTO> findSummaryById(@Param("orderId") Integer orderId);
+
     @Query("SELECT SUM(o.total) FROM Order o WHERE o.status IN :statuses AND o.createdAt >= :startDate AND o.createdAt < :endDate")
     Double findTotalRevenueByStatusInAndCreatedAtBetween(@Param("statuses") List<OrderStatusEnum> statuses,
                                                           @Param("startDate") LocalDateTime startDate,
                                                           @Param("endDate") LocalDateTime endDate);
+
+    @Query(value = "SELECT SUM(r.total_revenue) FROM daily_revenue_rollups r " +
+            "WHERE r.status IN (:statuses) AND r.revenue_date >= :startDate AND r.revenue_date < :endDate",
+            nativeQuery = true)
+    BigDecimal sumRolledUpRevenue(@Param("statuses") List<String> statuses,
+                                  @Param("startDate") LocalDate startDate,
+                                  @Param("endDate") LocalDate endDate);
 }
@@ -0,0 +1,55 @@
+package com.example.cecv_e_commerce.repository;
+
+import com.example.cecv_e_commerce.domain.enums.OutboxStatus;
+import com.example.cecv_e_commerce.domain.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    boolean existsByDedupKey(String dedupKey);
+
+    /**
+     * Locks due events for the claiming transaction: pending events and claimed ones whose lease
+     * ran out. Rows locked by another dispatcher are skipped, so several instances can drain the
+     * outbox concurrently without handing out the same event.
+     */
+    @Query(value = """
+            SELECT * FROM outbox_events
+            WHERE status IN ('PENDING', 'IN_FLIGHT') AND available_at <= :now
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> lockDueEvents(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Records the outcome of a claim. Matches nothing if the lease ran out and the event was
+     * claimed again since, which is visible as a higher attempt count.
+     */
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent e
+            SET e.status = :status, e.availableAt = :availableAt, e.processedAt = :processedAt, e.lastError = :lastError
+            WHERE e.id = :id AND e.attempts = :attempts
+              AND e.status = com.example.cecv_e_commerce.domain.enums.OutboxStatus.IN_FLIGHT
+            """)
+    int completeClaim(@Param("id") Long id,
+                      @Param("attempts") int attempts,
+                      @Param("status") OutboxStatus status,
+                      @Param("availableAt") LocalDateTime availableAt,
+                      @Param("processedAt") LocalDateTime processedAt,
+                      @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = :status AND e.processedAt < :before")
+    int deleteByStatusAndProcessedAtBefore(@Param("status") OutboxStatus status,
+                                           @Param("before") LocalDateTime before);
+}
@@ -3,20 +3,43 @@ package com.example.cecv_e_commerce.repository;
 import com.example.cecv_e_commerce.domain.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository
-        extends JpaRepository<Product, Integer>, JpaSpecificationExecutor<Product> {
+        extends JpaRepository<Product, Integer>, JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
     Page<Product> findByFeaturedTrue(Pageable pageable);
 
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByIdIn(Collection<Integer> ids);
+
+    List<Product> findByUpdatedAtGreaterThanEqual(LocalDateTime updatedAt);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT p FROM Product p WHERE p.id = :id")
     Optional<Product> findByIdWithLock(@Param("id") Integer id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id ASC")
+    List<Product> findAllByIdInWithLockOrderById(@Param("ids") Collection<Integer> ids);
+
+    List<Product> findAllByIdInOrderByIdAsc(Collection<Integer> ids);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids AND p.stockShards > 0")
+    List<Integer> findShardedIds(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = :quantity WHERE p.id = :id AND p.stockShards > 0 AND p.quantity <> :quantity")
+    int syncShardedQuantity(@Param("id") Integer id, @Param("quantity") int quantity);
 }
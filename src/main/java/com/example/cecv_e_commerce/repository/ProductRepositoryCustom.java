@@ -0,0 +1,17 @@
+package com.example.cecv_e_commerce.repository;
+
+import com.example.cecv_e_commerce.domain.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Keyset page ordered by {@code (createdAt, id)} descending, without a count query.
+     * Passing a null {@code createdAt} starts from the newest row.
+     */
+    List<Product> findNextByCreatedAtDesc(Specification<Product> spec, LocalDateTime createdAt,
+                                          Integer id, int limit);
+}
@@ -0,0 +1,52 @@
+package com.example.cecv_e_commerce.repository;
+
+import com.example.cecv_e_commerce.domain.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Product> findNextByCreatedAtDesc(Specification<Product> spec, LocalDateTime createdAt,
+                                                 Integer id, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = criteriaBuilder.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        Path<LocalDateTime> createdAtPath = root.get("createdAt");
+        Path<Integer> idPath = root.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate specPredicate = spec.toPredicate(root, query, criteriaBuilder);
+            if (specPredicate != null) {
+                predicates.add(specPredicate);
+            }
+        }
+        if (createdAt != null && id != null) {
+            predicates.add(criteriaBuilder.or(
+                    criteriaBuilder.lessThan(createdAtPath, createdAt),
+                    criteriaBuilder.and(criteriaBuilder.equal(createdAtPath, createdAt),
+                            criteriaBuilder.lessThan(idPath, id))));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(criteriaBuilder.desc(createdAtPath), criteriaBuilder.desc(idPath));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
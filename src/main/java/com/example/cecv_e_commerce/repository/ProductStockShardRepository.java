@@ -0,0 +1,43 @@
+package com.example.cecv_e_commerce.repository;
+
+import com.example.cecv_e_commerce.domain.dto.product.ProductStockTotalDTO;
+import com.example.cecv_e_commerce.domain.model.ProductStockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, Integer> {
+
+    @Query("SELECT s.shardNo FROM ProductStockShard s WHERE s.productId = :productId AND s.quantity >= :quantity")
+    List<Integer> findShardNosWithAtLeast(@Param("productId") Integer productId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.quantity = s.quantity - :quantity "
+            + "WHERE s.productId = :productId AND s.shardNo = :shardNo AND s.quantity >= :quantity")
+    int takeFromShard(@Param("productId") Integer productId, @Param("shardNo") Integer shardNo,
+                      @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.quantity = s.quantity + :quantity "
+            + "WHERE s.productId = :productId AND s.shardNo = :shardNo")
+    int addToShard(@Param("productId") Integer productId, @Param("shardNo") Integer shardNo,
+                   @Param("quantity") int quantity);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductStockShard s WHERE s.productId = :productId ORDER BY s.shardNo ASC")
+    List<ProductStockShard> findByProductIdWithLock(@Param("productId") Integer productId);
+
+    @Query("SELECT new com.example.cecv_e_commerce.domain.dto.product.ProductStockTotalDTO(s.productId, SUM(s.quantity)) "
+            + "FROM ProductStockShard s WHERE s.productId IN :productIds GROUP BY s.productId")
+    List<ProductStockTotalDTO> sumQuantities(@Param("productIds") Collection<Integer> productIds);
+
+    @Query("SELECT new com.example.cecv_e_commerce.domain.dto.product.ProductStockTotalDTO(s.productId, SUM(s.quantity)) "
+            + "FROM ProductStockShard s GROUP BY s.productId")
+    List<ProductStockTotalDTO> sumAllQuantities();
+}
@@ -0,0 +1,54 @@
+package com.example.cecv_e_commerce.repository;
+
+import com.example.cecv_e_commerce.domain.model.StockHold;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockHoldRepository extends JpaRepository<StockHold, Integer> {
+
+    @Modifying
+    @Query(value = "INSERT INTO stock_holds (user_id, product_id, quantity, expires_at) "
+            + "VALUES (:userId, :productId, :quantity, :expiresAt) "
+            + "ON DUPLICATE KEY UPDATE quantity = quantity + :quantity, expires_at = :expiresAt", nativeQuery = true)
+    int addQuantity(@Param("userId") Integer userId, @Param("productId") Integer productId,
+                    @Param("quantity") int quantity, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.userId = :userId AND h.productId = :productId")
+    Optional<StockHold> findByUserIdAndProductIdWithLock(@Param("userId") Integer userId,
+                                                         @Param("productId") Integer productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.userId = :userId AND h.productId IN :productIds ORDER BY h.productId")
+    List<StockHold> findByUserIdAndProductIdInWithLock(@Param("userId") Integer userId,
+                                                       @Param("productIds") Collection<Integer> productIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.userId = :userId ORDER BY h.productId")
+    List<StockHold> findByUserIdWithLock(@Param("userId") Integer userId);
+
+    @Query("SELECT h FROM StockHold h WHERE h.expiresAt < :now ORDER BY h.id")
+    List<StockHold> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * The given holds that are still expired and not locked by another transaction (lock timeout
+     * -2 is Hibernate's SKIP LOCKED), so sweepers on several nodes and checkouts in progress never
+     * wait on each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT h FROM StockHold h WHERE h.id IN :ids AND h.expiresAt < :now ORDER BY h.id")
+    List<StockHold> findExpiredByIdInWithLock(@Param("ids") Collection<Integer> ids, @Param("now") LocalDateTime now);
+}
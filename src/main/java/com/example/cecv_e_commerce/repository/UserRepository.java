@@ -4,6 +4,9 @@ import com.example.cecv_e_commerce.domain.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -23,5 +26,21 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
     Page<User> findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(String nameSearch, String emailSearch, Pageable pageable);
 
-    List<User> findByIsActiveFalseAndActivationDeadlineBefore(LocalDateTime now);
+    @Query("SELECT u.id FROM User u WHERE u.isActive = false AND u.activationDeadline < :cutoff AND u.id > :afterId ORDER BY u.id")
+    List<Integer> findExpiredInactiveUserIds(@Param("cutoff") LocalDateTime cutoff,
+                                             @Param("afterId") Integer afterId,
+                                             Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.isActive = false AND u.activationDeadline < :cutoff AND u.id BETWEEN :fromId AND :toId")
+    int deleteExpiredInactiveUsersInRange(@Param("cutoff") LocalDateTime cutoff,
+                                          @Param("fromId") Integer fromId,
+                                          @Param("toId") Integer toId);
+
+    @Query("SELECT u.isActive FROM User u WHERE u.id = :id")
+    Optional<Boolean> findActiveFlagById(@Param("id") Integer id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Integer id, @Param("password") String password);
 }
@@ -1,17 +1,32 @@
 package com.example.cecv_e_commerce.scheduled;
 
-import com.example.cecv_e_commerce.domain.model.User;
 import com.example.cecv_e_commerce.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Deletes inactive accounts whose activation deadline has passed.
+ * <p>
+ * Expired accounts are removed in chunks of {@code app.scheduling.account-cleanup.batch-size}:
+ * each chunk is one short transaction issuing a single DELETE over an id range, so the users
+ * table is never locked for longer than one chunk. A {@link ClusterLock} keeps the job to one node
+ * at a time.
+ */
 @Component
 public class AccountCleanupTask {
 
@@ -20,26 +35,76 @@ public class AccountCleanupTask {
     @Autowired
     private UserRepository userRepository;
 
-    @Scheduled(cron = "${app.scheduling.account-cleanup.cron:0 0 2 * * ?}")
-    @Transactional
-    public void cleanupInactiveAccounts() {
-        LocalDateTime now = LocalDateTime.now();
-        logger.info("Running inactive account cleanup task at {}", now);
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-        List<User> inactiveUsers = userRepository.findByIsActiveFalseAndActivationDeadlineBefore(now);
+    @Autowired
+    private MeterRegistry meterRegistry;
 
-        if (inactiveUsers.isEmpty()) {
-            logger.info("No inactive accounts found with expired activation tokens.");
-            return;
-        }
+    @Value("${app.scheduling.account-cleanup.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.scheduling.account-cleanup.pause-ms:100}")
+    private long pauseMs;
+
+    private TransactionTemplate transactionTemplate;
+    private final AtomicLong deletedInCurrentRun = new AtomicLong();
+    private Counter deletedCounter;
 
-        logger.info("Found {} inactive accounts with expired activation tokens to cleanup.", inactiveUsers.size());
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        deletedCounter = Counter.builder("account.cleanup.deleted")
+                .description("Expired inactive accounts deleted")
+                .register(meterRegistry);
+        Gauge.builder("account.cleanup.progress", deletedInCurrentRun, AtomicLong::get)
+                .description("Accounts deleted so far by the current or last cleanup run")
+                .register(meterRegistry);
+    }
 
+    @Scheduled(cron = "${app.scheduling.account-cleanup.cron:0 0 2 * * ?}")
+    @ClusterLock(name = "account-cleanup", leaseMs = 300000)
+    public void cleanupInactiveAccounts() {
+        LocalDateTime now = LocalDateTime.now();
+        logger.info("Running inactive account cleanup task at {}", now);
         try {
-            userRepository.deleteAll(inactiveUsers);
-            logger.info("Successfully cleaned up {} inactive accounts.", inactiveUsers.size());
+            int deleted = purgeExpiredAccounts(now);
+            logger.info("Successfully cleaned up {} inactive accounts.", deleted);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Inactive account cleanup interrupted.");
         } catch (Exception e) {
             logger.error("Error during inactive account cleanup: {}", e.getMessage(), e);
         }
     }
+
+    int purgeExpiredAccounts(LocalDateTime cutoff) throws InterruptedException {
+        deletedInCurrentRun.set(0);
+        int total = 0;
+        int afterId = 0;
+        while (true) {
+            List<Integer> ids = userRepository.findExpiredInactiveUserIds(cutoff, afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            int fromId = ids.get(0);
+            int toId = ids.get(ids.size() - 1);
+            Integer deleted = transactionTemplate.execute(
+                    status -> userRepository.deleteExpiredInactiveUsersInRange(cutoff, fromId, toId));
+            int count = deleted == null ? 0 : deleted;
+            total += count;
+            deletedInCurrentRun.addAndGet(count);
+            deletedCounter.increment(count);
+            logger.debug("Deleted {} inactive accounts with ids {}..{}", count, fromId, toId);
+
+            if (ids.size() < batchSize) {
+                break;
+            }
+            afterId = toId;
+            if (pauseMs > 0) {
+                Thread.sleep(pauseMs);
+            }
+        }
+        return total;
+    }
 }
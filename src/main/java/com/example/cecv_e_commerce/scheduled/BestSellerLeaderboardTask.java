@@ -0,0 +1,87 @@
+package com.example.cecv_e_commerce.scheduled;
+
+import com.example.cecv_e_commerce.domain.dto.stats.BestSellingProductDTO;
+import com.example.cecv_e_commerce.domain.dto.stats.DailyProductSalesDTO;
+import com.example.cecv_e_commerce.domain.enums.OrderStatusEnum;
+import com.example.cecv_e_commerce.repository.OrderItemRepository;
+import com.example.cecv_e_commerce.service.impl.BestSellerLeaderboard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Component
+public class BestSellerLeaderboardTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(BestSellerLeaderboardTask.class);
+
+    private static final List<OrderStatusEnum> COUNTED_STATUSES = List.of(
+            OrderStatusEnum.CONFIRMED,
+            OrderStatusEnum.SHIPPED,
+            OrderStatusEnum.DELIVERED
+    );
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private BestSellerLeaderboard bestSellerLeaderboard;
+
+    @Value("${app.stats.leaderboard.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.stats.leaderboard.reconcile-interval-ms:3600000}")
+    private long reconcileIntervalMs;
+
+    private volatile long lastRebuildAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildLeaderboard() {
+        if (!enabled) {
+            logger.info("Best seller leaderboard disabled; stats use database queries.");
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the leaderboard when it was marked stale, and periodically to pick up order changes
+     * made outside the application and to drop daily totals that no period can reach anymore.
+     */
+    @Scheduled(fixedDelayString = "${app.stats.leaderboard.check-interval-ms:60000}",
+            initialDelayString = "${app.stats.leaderboard.check-interval-ms:60000}")
+    public void refreshLeaderboard() {
+        if (!enabled) {
+            return;
+        }
+        boolean due = System.currentTimeMillis() - lastRebuildAt >= reconcileIntervalMs;
+        if (bestSellerLeaderboard.isReady() && !bestSellerLeaderboard.isStale() && !due) {
+            return;
+        }
+        rebuild();
+    }
+
+    private void rebuild() {
+        try {
+            long start = System.currentTimeMillis();
+            long changeCount = bestSellerLeaderboard.getChangeCount();
+            LocalDate since = bestSellerLeaderboard.requiredSince();
+            List<BestSellingProductDTO> allTime = orderItemRepository.findAllTimeProductSales(COUNTED_STATUSES);
+            List<DailyProductSalesDTO> daily = orderItemRepository.findDailyProductSalesSince(
+                    COUNTED_STATUSES, since.atStartOfDay());
+            bestSellerLeaderboard.replace(allTime, daily, since, changeCount);
+            lastRebuildAt = System.currentTimeMillis();
+            logger.info("Rebuilt best seller leaderboard with {} products and {} daily totals in {} ms.",
+                    allTime.size(), daily.size(), lastRebuildAt - start);
+        } catch (Exception e) {
+            logger.error("Error rebuilding best seller leaderboard: {}", e.getMessage(), e);
+        }
+    }
+}
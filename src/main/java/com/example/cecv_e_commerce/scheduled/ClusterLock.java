@@ -0,0 +1,25 @@
+package com.example.cecv_e_commerce.scheduled;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a scheduled method on at most one node at a time.
+ * <p>
+ * Before the method runs, a lease named {@link #name()} is taken in {@code scheduler_locks}; if
+ * another node holds an unexpired lease the invocation is skipped. The lease is renewed while the
+ * method runs and released when it returns, so {@link #leaseMs()} only bounds how long a crashed
+ * node can keep the lock.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ClusterLock {
+
+    String name();
+
+    long leaseMs() default 60000;
+}
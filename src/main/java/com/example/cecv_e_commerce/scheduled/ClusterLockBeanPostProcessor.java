@@ -0,0 +1,78 @@
+package com.example.cecv_e_commerce.scheduled;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps beans with {@link ClusterLock} methods in a proxy that runs each method only while this
+ * node holds the lock's lease. It is ordered ahead of the {@code @Scheduled} post-processor so the
+ * scheduler registers the proxied methods.
+ */
+@Component
+public class ClusterLockBeanPostProcessor implements BeanPostProcessor, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterLockBeanPostProcessor.class);
+
+    private final ObjectProvider<SchedulerLockService> lockServiceProvider;
+
+    public ClusterLockBeanPostProcessor(ObjectProvider<SchedulerLockService> lockServiceProvider) {
+        this.lockServiceProvider = lockServiceProvider;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        AtomicBoolean locked = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(targetClass,
+                method -> locked.set(true),
+                method -> AnnotatedElementUtils.hasAnnotation(method, ClusterLock.class));
+        if (!locked.get()) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(lockingInterceptor());
+        return proxyFactory.getProxy(targetClass.getClassLoader());
+    }
+
+    private MethodInterceptor lockingInterceptor() {
+        return invocation -> {
+            Method method = invocation.getMethod();
+            ClusterLock clusterLock = AnnotatedElementUtils.findMergedAnnotation(
+                    AopUtils.getMostSpecificMethod(method, invocation.getThis().getClass()), ClusterLock.class);
+            if (clusterLock == null) {
+                return invocation.proceed();
+            }
+            SchedulerLockService lockService = lockServiceProvider.getObject();
+            if (!lockService.tryAcquire(clusterLock.name(), clusterLock.leaseMs())) {
+                logger.debug("Scheduler lock {} is held by another node; skipping {}.", clusterLock.name(), method.getName());
+                return null;
+            }
+            ScheduledFuture<?> renewal = lockService.startRenewal(clusterLock.name(), clusterLock.leaseMs());
+            try {
+                return invocation.proceed();
+            } finally {
+                renewal.cancel(false);
+                lockService.release(clusterLock.name());
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.cecv_e_commerce.scheduled;
+
+import com.example.cecv_e_commerce.service.OutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OutboxDispatchTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatchTask.class);
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.retention-days:7}")
+    private int retentionDays;
+
+    /**
+     * Drains due outbox events one claimed batch at a time until a batch comes back short.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void dispatchOutbox() {
+        try {
+            int dispatched;
+            int total = 0;
+            do {
+                dispatched = outboxService.dispatchDueEvents(batchSize);
+                total += dispatched;
+            } while (dispatched == batchSize);
+            if (total > 0) {
+                logger.debug("Dispatched {} outbox events.", total);
+            }
+        } catch (Exception e) {
+            logger.error("Error dispatching outbox events: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.purge-cron:0 30 2 * * ?}")
+    @ClusterLock(name = "outbox-purge")
+    public void purgeProcessedEvents() {
+        try {
+            int purged = outboxService.purgeProcessedEvents(retentionDays);
+            logger.info("Purged {} processed outbox events older than {} days.", purged, retentionDays);
+        } catch (Exception e) {
+            logger.error("Error purging outbox events: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.cecv_e_commerce.scheduled;
+
+import com.example.cecv_e_commerce.domain.model.Product;
+import com.example.cecv_e_commerce.repository.ProductRepository;
+import com.example.cecv_e_commerce.service.impl.ProductSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class ProductSearchIndexTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndexTask.class);
+    private static final int BUILD_PAGE_SIZE = 500;
+    // Re-read a window before the last seen update so rows committed late are not missed.
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Value("${app.search.index.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        if (!enabled) {
+            logger.info("Product search index disabled; searches use database queries.");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<Product> products = new ArrayList<>();
+        Slice<Product> slice = productRepository.findAll(PageRequest.of(0, BUILD_PAGE_SIZE, Sort.by("id")));
+        products.addAll(slice.getContent());
+        while (slice.hasNext()) {
+            slice = productRepository.findAll(slice.nextPageable());
+            products.addAll(slice.getContent());
+        }
+        productSearchIndex.rebuild(products);
+        logger.info("Built product search index with {} products in {} ms.",
+                products.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Catches up with product writes the entity listener cannot see (bulk updates, other
+     * services, manual SQL); writes through JPA reach the index on commit.
+     */
+    @Scheduled(fixedDelayString = "${app.search.index.refresh-interval-ms:600000}",
+            initialDelayString = "${app.search.index.refresh-interval-ms:600000}")
+    public void refreshIndex() {
+        if (!enabled || !productSearchIndex.isReady()) {
+            return;
+        }
+        try {
+            if (productRepository.count() != productSearchIndex.size()) {
+                logger.info("Product count changed outside JPA writes; rebuilding search index.");
+                buildIndex();
+                return;
+            }
+            LocalDateTime lastUpdatedAt = productSearchIndex.getLastUpdatedAt();
+            if (lastUpdatedAt == null) {
+                return;
+            }
+            List<Product> changed = productRepository.findByUpdatedAtGreaterThanEqual(
+                    lastUpdatedAt.minus(REFRESH_OVERLAP));
+            productSearchIndex.index(changed);
+            logger.debug("Refreshed {} products in search index.", changed.size());
+        } catch (Exception e) {
+            logger.error("Error refreshing product search index: {}", e.getMessage(), e);
+        }
+    }
+}
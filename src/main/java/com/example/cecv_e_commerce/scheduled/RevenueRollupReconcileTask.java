@@ -0,0 +1,143 @@
+package com.example.cecv_e_commerce.scheduled;
+
+import com.example.cecv_e_commerce.config.RevenueRollupListener;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Repairs the last {@code app.stats.revenue.reconcile-days} days of {@code daily_revenue_rollups}
+ * after bulk or out-of-band order updates that bypassed the RevenueRollupListener.
+ * <p>
+ * The order aggregates and the current rollup rows are read with plain SELECTs in one read-only
+ * REPEATABLE READ transaction. That is a single non-locking snapshot, so checkouts are never
+ * blocked, and because the listener writes its deltas in the order's own transaction, orders and
+ * rollups agree in that snapshot except for what was missed. The difference is then added with
+ * the listener's upsert in a second short transaction. Deltas commute, so orders committed in the
+ * meantime are neither lost nor counted twice. Older days are left as they are.
+ */
+@Component
+public class RevenueRollupReconcileTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueRollupReconcileTask.class);
+
+    private static final List<String> COUNTED_STATUS_NAMES = RevenueRollupListener.COUNTED_STATUSES.stream()
+            .map(Enum::name)
+            .sorted()
+            .toList();
+
+    static final String ORDER_TOTALS_SQL = "SELECT DATE(created_at) AS revenue_date, status, COUNT(*) AS order_count,"
+            + " COALESCE(SUM(total), 0) AS total_revenue FROM orders"
+            + " WHERE created_at >= ? AND status IN (" + String.join(", ", Collections.nCopies(COUNTED_STATUS_NAMES.size(), "?")) + ")"
+            + " GROUP BY DATE(created_at), status";
+
+    static final String ROLLUP_TOTALS_SQL = "SELECT revenue_date, status, order_count, total_revenue"
+            + " FROM daily_revenue_rollups WHERE revenue_date >= ?";
+
+    private static final RowMapper<Totals> TOTALS_MAPPER = (rs, rowNum) -> new Totals(
+            rs.getDate("revenue_date").toLocalDate(), rs.getString("status"),
+            rs.getLong("order_count"), rs.getBigDecimal("total_revenue"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.stats.revenue.reconcile-days:7}")
+    private int reconcileDays;
+
+    private TransactionTemplate snapshotTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        snapshotTemplate = new TransactionTemplate(transactionManager);
+        snapshotTemplate.setReadOnly(true);
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.revenue.reconcile-interval-ms:3600000}",
+            initialDelayString = "${app.stats.revenue.reconcile-interval-ms:3600000}")
+    @ClusterLock(name = "revenue-rollup-reconcile")
+    public void reconcileRollups() {
+        try {
+            long start = System.currentTimeMillis();
+            int rows = reconcileSince(LocalDate.now().minusDays(reconcileDays - 1L));
+            logger.info("Corrected {} revenue rollup rows for the last {} days in {} ms.",
+                    rows, reconcileDays, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Error reconciling revenue rollups: {}", e.getMessage(), e);
+        }
+    }
+
+    int reconcileSince(LocalDate since) {
+        Date sinceDate = Date.valueOf(since);
+        List<Object[]> corrections = snapshotTemplate.execute(status -> {
+            Object[] orderArgs = Stream.concat(Stream.of(sinceDate), COUNTED_STATUS_NAMES.stream()).toArray();
+            List<Totals> expected = jdbcTemplate.query(ORDER_TOTALS_SQL, TOTALS_MAPPER, orderArgs);
+            List<Totals> recorded = jdbcTemplate.query(ROLLUP_TOTALS_SQL, TOTALS_MAPPER, sinceDate);
+            return corrections(expected, recorded);
+        });
+        if (corrections == null || corrections.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                RevenueRollupListener.UPSERT_SQL, corrections));
+        return corrections.size();
+    }
+
+    private static List<Object[]> corrections(List<Totals> expected, List<Totals> recorded) {
+        Map<List<Object>, Totals> differences = new HashMap<>();
+        expected.forEach(totals -> differences.merge(totals.key(), totals, Totals::plus));
+        recorded.forEach(totals -> differences.merge(totals.key(), totals.negate(), Totals::plus));
+        List<Object[]> corrections = new ArrayList<>();
+        for (Totals difference : differences.values()) {
+            if (difference.orderCount() != 0 || difference.revenue().signum() != 0) {
+                corrections.add(new Object[]{Date.valueOf(difference.day()), difference.status(),
+                        difference.orderCount(), difference.revenue()});
+            }
+        }
+        return corrections;
+    }
+
+    private record Totals(LocalDate day, String status, long orderCount, BigDecimal revenue) {
+
+        Totals {
+            revenue = (revenue == null ? BigDecimal.ZERO : revenue).setScale(2, RoundingMode.HALF_UP);
+        }
+
+        List<Object> key() {
+            return List.of(day, status);
+        }
+
+        Totals plus(Totals other) {
+            return new Totals(day, status, orderCount + other.orderCount, revenue.add(other.revenue));
+        }
+
+        Totals negate() {
+            return new Totals(day, status, -orderCount, revenue.negate());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.cecv_e_commerce.scheduled;
+
+import com.example.cecv_e_commerce.util.ThreadFactories;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lease-based locks in {@code scheduler_locks}, used by {@link ClusterLock}.
+ * <p>
+ * Lease expiry is computed with the database clock, so nodes with skewed clocks still agree on
+ * when a lease is free. For every lock name this node has tried, the {@code scheduler.lock.held}
+ * gauge (tagged with the lock name and this node's id) is 1 while this node holds the lease.
+ */
+@Component
+public class SchedulerLockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLockService.class);
+
+    private static final String TAKE_EXPIRED_SQL = """
+            UPDATE scheduler_locks
+            SET locked_by = ?, locked_at = NOW(3), lock_until = DATE_ADD(NOW(3), INTERVAL ? MICROSECOND)
+            WHERE name = ? AND lock_until <= NOW(3)
+            """;
+    private static final String INSERT_SQL = """
+            INSERT IGNORE INTO scheduler_locks (name, locked_by, locked_at, lock_until)
+            VALUES (?, ?, NOW(3), DATE_ADD(NOW(3), INTERVAL ? MICROSECOND))
+            """;
+    private static final String RENEW_SQL = """
+            UPDATE scheduler_locks SET lock_until = DATE_ADD(NOW(3), INTERVAL ? MICROSECOND)
+            WHERE name = ? AND locked_by = ?
+            """;
+    private static final String RELEASE_SQL = """
+            UPDATE scheduler_locks SET lock_until = NOW(3) WHERE name = ? AND locked_by = ?
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.scheduling.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private String nodeId;
+    private ScheduledExecutorService renewalScheduler;
+    private final Set<String> heldLocks = ConcurrentHashMap.newKeySet();
+    private final Set<String> registeredGauges = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        // RuntimeMXBean name is "pid@hostname".
+        nodeId = StringUtils.hasText(configuredNodeId) ? configuredNodeId : ManagementFactory.getRuntimeMXBean().getName();
+        renewalScheduler = Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("scheduler-lock-renewal-", virtualThreads));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renewalScheduler.shutdownNow();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean tryAcquire(String name, long leaseMs) {
+        registerGauge(name);
+        long leaseMicros = leaseMs * 1000;
+        boolean acquired = jdbcTemplate.update(TAKE_EXPIRED_SQL, nodeId, leaseMicros, name) == 1
+                || jdbcTemplate.update(INSERT_SQL, name, nodeId, leaseMicros) == 1;
+        if (acquired) {
+            heldLocks.add(name);
+        }
+        return acquired;
+    }
+
+    /**
+     * Extends the lease every third of {@code leaseMs} until the returned future is cancelled.
+     */
+    public ScheduledFuture<?> startRenewal(String name, long leaseMs) {
+        long period = Math.max(leaseMs / 3, 1);
+        return renewalScheduler.scheduleAtFixedRate(() -> renew(name, leaseMs), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public void release(String name) {
+        heldLocks.remove(name);
+        try {
+            jdbcTemplate.update(RELEASE_SQL, name, nodeId);
+        } catch (Exception e) {
+            logger.warn("Failed to release scheduler lock {}; it expires with its lease: {}", name, e.getMessage());
+        }
+    }
+
+    private void renew(String name, long leaseMs) {
+        try {
+            if (jdbcTemplate.update(RENEW_SQL, leaseMs * 1000, name, nodeId) == 0) {
+                heldLocks.remove(name);
+                logger.error("Lost scheduler lock {}; another node may now run the same job.", name);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to renew scheduler lock {}: {}", name, e.getMessage());
+        }
+    }
+
+    private void registerGauge(String name) {
+        if (registeredGauges.add(name)) {
+            Gauge.builder("scheduler.lock.held", heldLocks, locks -> locks.contains(name) ? 1 : 0)
+                    .description("1 while this node holds the scheduler lock")
+                    .tag("name", name)
+                    .tag("node", nodeId)
+                    .register(meterRegistry);
+        }
+    }
+}
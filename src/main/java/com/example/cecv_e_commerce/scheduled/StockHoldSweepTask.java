@@ -0,0 +1,44 @@
+package com.example.cecv_e_commerce.scheduled;
+
+import com.example.cecv_e_commerce.service.StockHoldService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StockHoldSweepTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockHoldSweepTask.class);
+
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    @Value("${app.stock.holds.sweep-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Returns expired holds to stock batch by batch until a batch comes back short; within a batch
+     * each product is released in its own transaction. Runs while holds are disabled too, so holds
+     * left from before the switch are still released. Expired rows are locked with SKIP LOCKED, so
+     * nodes sweeping at the same time take different rows.
+     */
+    @Scheduled(fixedDelayString = "${app.stock.holds.sweep-interval-ms:30000}")
+    public void releaseExpiredHolds() {
+        try {
+            int released;
+            int total = 0;
+            do {
+                released = stockHoldService.releaseExpired(batchSize);
+                total += released;
+            } while (released == batchSize);
+            if (total > 0) {
+                logger.info("Released {} expired stock holds.", total);
+            }
+        } catch (Exception e) {
+            logger.error("Error releasing expired stock holds: {}", e.getMessage(), e);
+        }
+    }
+}
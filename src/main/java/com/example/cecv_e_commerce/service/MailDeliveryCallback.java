@@ -0,0 +1,13 @@
+package com.example.cecv_e_commerce.service;
+
+/**
+ * Receives the outcome of a queued email. Called once per email, on the mail worker that sent it.
+ */
+public interface MailDeliveryCallback {
+
+    /** The mail server accepted the email. */
+    void delivered();
+
+    /** The email could not be prepared or the mail server did not accept it. */
+    void failed(String error);
+}
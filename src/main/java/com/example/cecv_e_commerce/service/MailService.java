@@ -1,7 +1,15 @@
 package com.example.cecv_e_commerce.service;
 
 public interface MailService {
-    void sendActivationEmail(String to, String name, String activationLink);
+    /**
+     * Queues the activation email; {@code callback} is told whether it was delivered. Throws
+     * {@link org.springframework.mail.MailSendException} if the queue is full.
+     */
+    void sendActivationEmail(Integer userId, String to, String name, String activationLink, MailDeliveryCallback callback);
 
-    void sendPasswordResetEmail(String to, String name, String resetLink);
+    /**
+     * Queues the password reset email; {@code callback} is told whether it was delivered. Throws
+     * {@link org.springframework.mail.MailSendException} if the queue is full.
+     */
+    void sendPasswordResetEmail(Integer userId, String to, String name, String resetLink, MailDeliveryCallback callback);
 }
@@ -0,0 +1,11 @@
+package com.example.cecv_e_commerce.service;
+
+import com.example.cecv_e_commerce.domain.enums.OutboxEventType;
+
+public interface OutboxService {
+    void enqueue(OutboxEventType eventType, String dedupKey, Object payload);
+
+    int dispatchDueEvents(int batchSize);
+
+    int purgeProcessedEvents(int retentionDays);
+}
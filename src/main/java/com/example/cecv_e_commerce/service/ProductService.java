@@ -1,5 +1,6 @@
 package com.example.cecv_e_commerce.service;
 
+import com.example.cecv_e_commerce.domain.dto.CursorPageDTO;
 import com.example.cecv_e_commerce.domain.dto.product.ProductBriefDTO;
 import com.example.cecv_e_commerce.domain.dto.product.ProductDetailDTO;
 import com.example.cecv_e_commerce.domain.dto.product.SearchProductRequestDTO;
@@ -10,4 +11,6 @@ public interface ProductService {
     Page<ProductBriefDTO> getFeaturedProducts(Pageable pageable);
     ProductDetailDTO getProductDetails(Integer productId);
     Page<ProductBriefDTO> searchProducts(SearchProductRequestDTO criteria, Pageable pageable);
+    CursorPageDTO<ProductBriefDTO> getFeaturedProducts(String cursor, int size);
+    CursorPageDTO<ProductBriefDTO> searchProducts(SearchProductRequestDTO criteria, String cursor, int size);
 }
@@ -0,0 +1,48 @@
+package com.example.cecv_e_commerce.service;
+
+import java.util.Map;
+
+/**
+ * Time-boxed stock holds for cart items. Placing a hold takes the stock from the product at once,
+ * so checkout only has to convert the hold, and a hold that is not checked out within
+ * {@code app.stock.holds.ttl-ms} is returned to stock by the sweeper.
+ */
+public interface StockHoldService {
+
+    /**
+     * Whether adding to the cart places holds ({@code app.stock.holds.enabled}).
+     */
+    boolean isEnabled();
+
+    /**
+     * Takes {@code quantity} more units of the product from stock for the user and restarts the
+     * hold's expiry.
+     */
+    void add(Integer userId, Integer productId, int quantity);
+
+    /**
+     * Changes the user's hold on the product to {@code quantity} units, taking or returning the
+     * difference; 0 releases the hold.
+     */
+    void set(Integer userId, Integer productId, int quantity);
+
+    void releaseAll(Integer userId);
+
+    /**
+     * Uses up the user's holds for an order, whether or not they have expired yet. Must be called
+     * inside the checkout transaction.
+     *
+     * @param requestedQuantities ordered quantity keyed by product id
+     * @return the part of each requested quantity that was already held, keyed by product id
+     */
+    Map<Integer, Integer> convert(Integer userId, Map<Integer, Integer> requestedQuantities);
+
+    /**
+     * Returns the stock of up to {@code limit} expired holds and deletes them, one transaction per
+     * product. Holds locked by a checkout are skipped, and a product whose release conflicts is
+     * left for the next run without undoing the others.
+     *
+     * @return the number of holds released
+     */
+    int releaseExpired(int limit);
+}
@@ -0,0 +1,32 @@
+package com.example.cecv_e_commerce.service;
+
+import com.example.cecv_e_commerce.domain.model.Product;
+
+import java.util.Map;
+
+/**
+ * Stock changes for orders. With {@code app.stock.locking-mode=pessimistic} (the default) the
+ * product rows are locked until the caller's transaction ends; with {@code optimistic} they are
+ * read without locks and written back with a version check, and a concurrent change surfaces as an
+ * {@link org.springframework.dao.OptimisticLockingFailureException} for the caller to retry (see
+ * {@link com.example.cecv_e_commerce.config.RetryOnConflict}).
+ */
+public interface StockReservationService {
+    /**
+     * Loads every requested product in ascending id order and decrements its stock; sharded
+     * products (see {@link StockShardService}) are decremented on one of their shards instead.
+     * Must be called inside the caller's transaction; all shortages are reported together.
+     *
+     * @param requestedQuantities quantity to reserve keyed by product id
+     * @return the reserved products keyed by product id
+     */
+    Map<Integer, Product> reserve(Map<Integer, Integer> requestedQuantities);
+
+    /**
+     * Takes {@code delta} units of a product's stock, or returns them when {@code delta} is
+     * negative. Must be called inside the caller's transaction.
+     *
+     * @return the product
+     */
+    Product adjustStock(Integer productId, int delta);
+}
@@ -0,0 +1,41 @@
+package com.example.cecv_e_commerce.service;
+
+import com.example.cecv_e_commerce.domain.model.Product;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Stock of products split across {@code product_stock_shards} rows, so that concurrent orders for
+ * one hot product update different rows instead of queueing on its {@code products} row. Products
+ * with {@code stockShards == 0} keep their stock in {@code products.quantity} and are answered
+ * from the entity without a query.
+ */
+public interface StockShardService {
+
+    int availableQuantity(Product product);
+
+    /**
+     * @return available stock keyed by product id
+     */
+    Map<Integer, Integer> availableQuantities(Collection<Product> products);
+
+    /**
+     * Takes {@code quantity} units from a random shard that has enough, or from several shards if
+     * none has. Must be called inside the caller's transaction.
+     *
+     * @return false if the shards together hold less than {@code quantity}
+     */
+    boolean take(Product product, int quantity);
+
+    /**
+     * Returns {@code quantity} units to a random shard. Must be called inside the caller's transaction.
+     */
+    void giveBack(Product product, int quantity);
+
+    /**
+     * Redistributes the product's current stock over {@code shards} rows, or moves it back into
+     * {@code products.quantity} when {@code shards} is 0.
+     */
+    void reshard(Integer productId, int shards);
+}
@@ -25,7 +25,9 @@ import java.time.YearMonth;
 import java.time.temporal.TemporalAdjusters;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -35,6 +37,7 @@ public class AdminStatsServiceImpl implements AdminStatsService {
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
+    private final BestSellerLeaderboard bestSellerLeaderboard;
 
     private static final List<OrderStatusEnum> VALID_STATS_STATUSES = Arrays.asList(
             OrderStatusEnum.CONFIRMED,
@@ -42,6 +45,10 @@ public class AdminStatsServiceImpl implements AdminStatsService {
             OrderStatusEnum.DELIVERED
     );
 
+    private static final List<String> VALID_STATS_STATUS_NAMES = VALID_STATS_STATUSES.stream()
+            .map(OrderStatusEnum::name)
+            .toList();
+
     @Override
     public RevenueStatsDTO getRevenueStats(String period, int year, Integer month) {
         logger.debug("Calculating revenue stats for period: {}, year: {}, month: {}", period, year, month);
@@ -83,11 +90,12 @@ public class AdminStatsServiceImpl implements AdminStatsService {
             throw new BadRequestException("Invalid date parameters for statistics: " + e.getMessage(), e);
         }
 
-        Double totalRevenueDouble = orderRepository.findTotalRevenueByStatusInAndCreatedAtBetween(
-                VALID_STATS_STATUSES, startDate, endDate
+        // Sums at most one pre-aggregated row per day and status instead of scanning the orders table.
+        BigDecimal rolledUpRevenue = orderRepository.sumRolledUpRevenue(
+                VALID_STATS_STATUS_NAMES, startDate.toLocalDate(), endDate.toLocalDate()
         );
 
-        BigDecimal totalRevenue = (totalRevenueDouble == null) ? BigDecimal.ZERO : BigDecimal.valueOf(totalRevenueDouble);
+        BigDecimal totalRevenue = (rolledUpRevenue == null) ? BigDecimal.ZERO : rolledUpRevenue;
 
         logger.info("Revenue calculated for {}: {}", periodDescription, totalRevenue);
         return new RevenueStatsDTO(periodDescription, year, month, totalRevenue);
@@ -130,6 +138,13 @@ public class AdminStatsServiceImpl implements AdminStatsService {
             throw new BadRequestException("Error calculating date range for best selling products period '" + period + "': " + e.getMessage(), e);
         }
 
+        String periodKey = isAllTime ? BestSellerLeaderboard.ALL_TIME : period.toLowerCase(Locale.ROOT);
+        Optional<List<BestSellingProductDTO>> leaderboard = bestSellerLeaderboard.top(periodKey, limit);
+        if (leaderboard.isPresent()) {
+            logger.info("Served {} best selling products for period '{}' from the leaderboard", leaderboard.get().size(), period);
+            return leaderboard.get();
+        }
+
         Pageable pageable = PageRequest.of(0, limit);
         Page<BestSellingProductDTO> resultsPage;
 
@@ -1,19 +1,22 @@
 package com.example.cecv_e_commerce.service.impl;
 
 import com.example.cecv_e_commerce.config.JwtTokenProvider;
+import com.example.cecv_e_commerce.config.UserPrincipalCache;
+import com.example.cecv_e_commerce.domain.dto.outbox.MailEventPayloadDTO;
 import com.example.cecv_e_commerce.domain.dto.user.AuthResponseDTO;
 import com.example.cecv_e_commerce.domain.dto.user.LoginRequestDTO;
 import com.example.cecv_e_commerce.domain.dto.user.RegisterRequestDTO;
 import com.example.cecv_e_commerce.domain.dto.user.UserDTO;
+import com.example.cecv_e_commerce.domain.enums.OutboxEventType;
 import com.example.cecv_e_commerce.domain.enums.Role;
 import com.example.cecv_e_commerce.domain.model.User;
 import com.example.cecv_e_commerce.exception.BadRequestException;
 import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
+import com.example.cecv_e_commerce.mapper.UserMapper;
 import com.example.cecv_e_commerce.repository.UserRepository;
 import com.example.cecv_e_commerce.service.AuthService;
 import com.example.cecv_e_commerce.service.CartService;
-import com.example.cecv_e_commerce.service.MailService;
-import org.modelmapper.ModelMapper;
+import com.example.cecv_e_commerce.service.OutboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -47,13 +50,16 @@ public class AuthServiceImpl implements AuthService {
     private JwtTokenProvider tokenProvider;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private UserMapper userMapper;
 
     @Autowired
     private CartService cartService;
 
     @Autowired
-    private MailService mailService;
+    private OutboxService outboxService;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
 
     @Value("${app.activation.base-url}")
     private String activationBaseUrl;
@@ -84,13 +90,11 @@ public class AuthServiceImpl implements AuthService {
         User savedUser = userRepository.save(user);
         logger.info("User registered successfully with email: {}", savedUser.getEmail());
 
-        try {
-            String activationLink = activationBaseUrl + "?token=" + token;
-            mailService.sendActivationEmail(savedUser.getEmail(), savedUser.getName(), activationLink);
-            logger.info("Activation email sent to: {}", savedUser.getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send activation email to {}: {}", savedUser.getEmail(), e.getMessage());
-        }
+        // Sent by the outbox dispatcher once this transaction has committed.
+        String activationLink = activationBaseUrl + "?token=" + token;
+        outboxService.enqueue(OutboxEventType.ACTIVATION_EMAIL, OutboxEventType.ACTIVATION_EMAIL + ":" + token,
+                new MailEventPayloadDTO(savedUser.getId(), savedUser.getEmail(), savedUser.getName(), activationLink));
+        logger.info("Activation email queued for: {}", savedUser.getEmail());
     }
 
     @Override
@@ -105,7 +109,7 @@ public class AuthServiceImpl implements AuthService {
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = tokenProvider.generateToken(authentication);
         User userDetails = (User) authentication.getPrincipal();
-        UserDTO userDto = modelMapper.map(userDetails, UserDTO.class);
+        UserDTO userDto = userMapper.toDTO(userDetails);
 
         logger.info("User logged in successfully: {}", userDetails.getEmail());
         return new AuthResponseDTO(jwt, userDto);
@@ -132,6 +136,7 @@ public class AuthServiceImpl implements AuthService {
         user.setActivationToken(null); // Delete token after active
         user.setActivationDeadline(null);
         userRepository.save(user);
+        userPrincipalCache.invalidate(user.getId(), user.getEmail());
         cartService.createCart(user);
 
         logger.info("Account activated successfully for email: {}", user.getEmail());
@@ -152,13 +157,10 @@ public class AuthServiceImpl implements AuthService {
         user.setPasswordResetDeadline(LocalDateTime.now().plusHours(PASSWORD_RESET_TOKEN_EXPIRATION_HOURS));
         userRepository.save(user);
 
-        try {
-            String resetLink = passwordResetBaseUrl + "?token=" + token;
-            mailService.sendPasswordResetEmail(user.getEmail(), user.getName(), resetLink);
-            logger.info("Password reset email sent to: {}", user.getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send password reset email to {}: {}", user.getEmail(), e.getMessage());
-        }
+        String resetLink = passwordResetBaseUrl + "?token=" + token;
+        outboxService.enqueue(OutboxEventType.PASSWORD_RESET_EMAIL, OutboxEventType.PASSWORD_RESET_EMAIL + ":" + token,
+                new MailEventPayloadDTO(user.getId(), user.getEmail(), user.getName(), resetLink));
+        logger.info("Password reset email queued for: {}", user.getEmail());
     }
 
     @Override
@@ -179,6 +181,7 @@ public class AuthServiceImpl implements AuthService {
         user.setPasswordResetToken(null); // Delete token after reset
         user.setPasswordResetDeadline(null);
         userRepository.save(user);
+        userPrincipalCache.invalidate(user.getId(), user.getEmail());
         logger.info("Password reset successfully for email: {}", user.getEmail());
         // Todo: send mail: mailService.sendPasswordChangedEmail(user.getEmail(), user.getName());
     }
@@ -0,0 +1,334 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.dto.stats.BestSellingProductDTO;
+import com.example.cecv_e_commerce.domain.dto.stats.DailyProductSalesDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory best-seller leaderboard for the admin stats API.
+ * <p>
+ * Holds all-time quantities per product plus daily quantities for the window the dated periods
+ * can reach (the current year and the last 30 days). Each period's ranking is sorted once on first
+ * use each day; after that {@link #apply} only moves the entries of the products an order touched,
+ * so a delta costs O(log n) per item instead of a re-sort. The board is loaded with
+ * {@link #replace} and then fed signed deltas through {@link #apply}; a change that cannot be
+ * expressed as a delta marks it stale, and {@link #top} answers empty until the next rebuild so
+ * callers fall back to the database.
+ * <p>
+ * Deltas only come from order writes on this node. With several nodes, each board misses the
+ * orders written by the others until its next scheduled rebuild, so rankings may lag by up to
+ * {@code app.stats.leaderboard.reconcile-interval-ms}.
+ */
+@Component
+public class BestSellerLeaderboard {
+
+    public static final String ALL_TIME = "all_time";
+    public static final String YEARLY = "yearly";
+    public static final String MONTHLY = "monthly";
+    public static final String LAST_30_DAYS = "last_30_days";
+
+    private static final int LAST_DAYS = 30;
+
+    private static final Comparator<BestSellingProductDTO> RANKING =
+            Comparator.comparing(BestSellingProductDTO::getTotalQuantitySold, Comparator.reverseOrder())
+                    .thenComparing(BestSellingProductDTO::getProductName,
+                            Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(BestSellingProductDTO::getProductId);
+
+    private final int capacity;
+    private final Clock clock;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Long> allTime = new HashMap<>();
+    private final TreeMap<LocalDate, Map<Integer, Long>> daily = new TreeMap<>();
+    private final Map<Integer, ProductInfo> products = new HashMap<>();
+    private final Map<String, Ranking> rankings = new HashMap<>();
+    private LocalDate rankedOn;
+    private LocalDate dailySince;
+    private long changeCount;
+    private boolean ready;
+    private boolean stale;
+
+    @Autowired
+    public BestSellerLeaderboard(@Value("${app.stats.leaderboard.size:100}") int capacity) {
+        this(capacity, Clock.systemDefaultZone());
+    }
+
+    BestSellerLeaderboard(int capacity, Clock clock) {
+        this.capacity = capacity;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the best sellers of a period, or empty when the board cannot answer: it has not
+     * been built, it is stale, or {@code limit} is larger than the number of entries kept.
+     */
+    public Optional<List<BestSellingProductDTO>> top(String period, int limit) {
+        if (limit > capacity) {
+            return Optional.empty();
+        }
+        LocalDate today = LocalDate.now(clock);
+        lock.readLock().lock();
+        try {
+            if (!ready || stale) {
+                return Optional.empty();
+            }
+            Ranking ranking = today.equals(rankedOn) ? rankings.get(period) : null;
+            if (ranking != null) {
+                return Optional.of(ranking.top(limit));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (!ready || stale) {
+                return Optional.empty();
+            }
+            if (!today.equals(rankedOn)) {
+                rankings.clear();
+                rankedOn = today;
+            }
+            Ranking ranking = rankings.get(period);
+            if (ranking == null) {
+                ranking = rank(period, today);
+                rankings.put(period, ranking);
+            }
+            return Optional.of(ranking.top(limit));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds ({@code sign > 0}) or removes ({@code sign < 0}) the items of one counted order
+     * created on {@code day}.
+     */
+    public void apply(LocalDate day, Collection<BestSellingProductDTO> items, int sign) {
+        lock.writeLock().lock();
+        try {
+            changeCount++;
+            for (BestSellingProductDTO item : items) {
+                Long quantity = sign * item.getTotalQuantitySold();
+                ProductInfo info = new ProductInfo(item.getProductName(), item.getImageUrl());
+                products.put(item.getProductId(), info);
+                add(allTime, item.getProductId(), quantity);
+                if (dailySince != null && !day.isBefore(dailySince)) {
+                    add(daily.computeIfAbsent(day, d -> new HashMap<>()), item.getProductId(), quantity);
+                }
+                for (Ranking ranking : rankings.values()) {
+                    ranking.adjust(item.getProductId(), ranking.covers(day) ? quantity : 0L, info);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Flags the board as out of date after a change it cannot replay, such as a deleted order.
+     */
+    public void markStale() {
+        lock.writeLock().lock();
+        try {
+            changeCount++;
+            stale = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the board with freshly aggregated totals. {@code expectedChangeCount} is the value
+     * of {@link #getChangeCount()} read before the totals were queried; if deltas arrived in the
+     * meantime the new state may or may not include them, so the board stays stale for another
+     * rebuild.
+     */
+    public void replace(Collection<BestSellingProductDTO> allTimeSales, Collection<DailyProductSalesDTO> dailySales,
+                        LocalDate since, long expectedChangeCount) {
+        lock.writeLock().lock();
+        try {
+            allTime.clear();
+            daily.clear();
+            products.clear();
+            rankings.clear();
+            for (BestSellingProductDTO sale : allTimeSales) {
+                products.put(sale.getProductId(), new ProductInfo(sale.getProductName(), sale.getImageUrl()));
+                add(allTime, sale.getProductId(), sale.getTotalQuantitySold());
+            }
+            for (DailyProductSalesDTO sale : dailySales) {
+                products.putIfAbsent(sale.getProductId(), new ProductInfo(sale.getProductName(), sale.getImageUrl()));
+                add(daily.computeIfAbsent(sale.getDay(), d -> new HashMap<>()), sale.getProductId(),
+                        sale.getQuantitySold());
+            }
+            dailySince = since;
+            ready = true;
+            stale = changeCount != expectedChangeCount;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * First day whose daily totals must be loaded so every dated period can be answered until
+     * the next rebuild.
+     */
+    public LocalDate requiredSince() {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate startOfYear = today.with(TemporalAdjusters.firstDayOfYear());
+        LocalDate lastDaysStart = today.minusDays(LAST_DAYS);
+        return startOfYear.isBefore(lastDaysStart) ? startOfYear : lastDaysStart;
+    }
+
+    public long getChangeCount() {
+        lock.readLock().lock();
+        try {
+            return changeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isStale() {
+        lock.readLock().lock();
+        try {
+            return stale;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Ranking rank(String period, LocalDate today) {
+        if (ALL_TIME.equals(period)) {
+            return rank(allTime, null, null);
+        }
+        LocalDate start;
+        LocalDate end;
+        switch (period) {
+            case LAST_30_DAYS -> {
+                start = today.minusDays(LAST_DAYS);
+                end = today.plusDays(1);
+            }
+            case MONTHLY -> {
+                start = today.with(TemporalAdjusters.firstDayOfMonth());
+                end = start.plusMonths(1);
+            }
+            case YEARLY -> {
+                start = today.with(TemporalAdjusters.firstDayOfYear());
+                end = start.plusYears(1);
+            }
+            default -> throw new IllegalArgumentException("Unknown best seller period " + period);
+        }
+        Map<Integer, Long> totals = new HashMap<>();
+        for (Map<Integer, Long> day : daily.subMap(start, true, end, false).values()) {
+            day.forEach((productId, quantity) -> totals.merge(productId, quantity, Long::sum));
+        }
+        return rank(totals, start, end);
+    }
+
+    private Ranking rank(Map<Integer, Long> totals, LocalDate start, LocalDate end) {
+        Ranking ranking = new Ranking(start, end);
+        totals.forEach((productId, quantity) ->
+                ranking.adjust(productId, quantity, products.getOrDefault(productId, ProductInfo.UNKNOWN)));
+        return ranking;
+    }
+
+    private static void add(Map<Integer, Long> totals, Integer productId, Long quantity) {
+        if (quantity == null || quantity == 0) {
+            return;
+        }
+        Long updated = totals.merge(productId, quantity, Long::sum);
+        if (updated == 0) {
+            totals.remove(productId);
+        }
+    }
+
+    private record ProductInfo(String name, String imageUrl) {
+
+        static final ProductInfo UNKNOWN = new ProductInfo(null, null);
+
+        boolean describes(BestSellingProductDTO entry) {
+            return Objects.equals(name, entry.getProductName()) && Objects.equals(imageUrl, entry.getImageUrl());
+        }
+    }
+
+    /**
+     * Totals of one period kept in ranking order. Entries are never modified in place: a change
+     * removes the product's entry and inserts a new one, so the sorted set stays consistent.
+     */
+    private static final class Ranking {
+
+        private final LocalDate start;
+        private final LocalDate end;
+        private final Map<Integer, Long> totals = new HashMap<>();
+        private final Map<Integer, BestSellingProductDTO> entries = new HashMap<>();
+        private final TreeSet<BestSellingProductDTO> ordered = new TreeSet<>(RANKING);
+
+        Ranking(LocalDate start, LocalDate end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        boolean covers(LocalDate day) {
+            return start == null || (!day.isBefore(start) && day.isBefore(end));
+        }
+
+        void adjust(Integer productId, Long delta, ProductInfo info) {
+            BestSellingProductDTO current = entries.get(productId);
+            if (delta == 0 && (current == null || info.describes(current))) {
+                return;
+            }
+            add(totals, productId, delta);
+            Long quantity = totals.getOrDefault(productId, 0L);
+            if (current != null) {
+                ordered.remove(current);
+                entries.remove(productId);
+            }
+            if (quantity > 0) {
+                BestSellingProductDTO entry = new BestSellingProductDTO(productId, info.name(), info.imageUrl(),
+                        quantity);
+                entries.put(productId, entry);
+                ordered.add(entry);
+            }
+        }
+
+        List<BestSellingProductDTO> top(int limit) {
+            List<BestSellingProductDTO> copy = new ArrayList<>(Math.min(limit, ordered.size()));
+            for (BestSellingProductDTO entry : ordered) {
+                if (copy.size() == limit) {
+                    break;
+                }
+                copy.add(new BestSellingProductDTO(entry.getProductId(), entry.getProductName(),
+                        entry.getImageUrl(), entry.getTotalQuantitySold()));
+            }
+            return copy;
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package com.example.cecv_e_commerce.service.impl;
 
+import com.example.cecv_e_commerce.config.RetryOnConflict;
 import com.example.cecv_e_commerce.domain.dto.cart.CartItemDTO;
 import com.example.cecv_e_commerce.domain.dto.cart.CartItemRequestCreateDTO;
 import com.example.cecv_e_commerce.domain.dto.cart.CartItemRequestUpdateDTO;
 import com.example.cecv_e_commerce.domain.dto.cart.CartResponseDTO;
 import com.example.cecv_e_commerce.domain.dto.product.ProductDTO;
 import com.example.cecv_e_commerce.domain.model.Cart;
-import com.example.cecv_e_commerce.domain.model.CartItem;
 import com.example.cecv_e_commerce.domain.model.Product;
 import com.example.cecv_e_commerce.domain.model.User;
 import com.example.cecv_e_commerce.exception.BadRequestException;
@@ -14,11 +14,16 @@ import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
 import com.example.cecv_e_commerce.repository.CartRepository;
 import com.example.cecv_e_commerce.repository.ProductRepository;
 import com.example.cecv_e_commerce.service.CartService;
+import com.example.cecv_e_commerce.service.StockHoldService;
+import com.example.cecv_e_commerce.service.StockShardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +32,10 @@ public class CartServiceImpl implements CartService {
 
     private final CartRepository cartRepository;
     private final ProductRepository productRepository;
+    private final CartStore cartStore;
+    private final StockShardService stockShardService;
+    private final StockHoldService stockHoldService;
+    private final ProductCatalogCache productCatalogCache;
 
     @Override
     @Transactional
@@ -37,76 +46,106 @@ public class CartServiceImpl implements CartService {
     }
 
     public CartResponseDTO getCart() {
-        Cart cart = getCurrentUserCart();
-        return mapToCartResponseDTO(cart);
+        return mapToCartResponseDTO(cartStore.read(getCurrentUser().getId()));
     }
 
+    @RetryOnConflict
     public CartResponseDTO addToCart(CartItemRequestCreateDTO cartItemRequestDTO) {
-        Cart cart = getCurrentUserCart();
+        User user = getCurrentUser();
+        if (stockHoldService.isEnabled()) {
+            return addToCartWithHold(user, cartItemRequestDTO.getProductId(), cartItemRequestDTO.getQuantity());
+        }
         Product product = productRepository.findById(cartItemRequestDTO.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
-        if (product.getQuantity() < cartItemRequestDTO.getQuantity()) {
+        int available = stockShardService.availableQuantity(product);
+        if (available < cartItemRequestDTO.getQuantity()) {
             throw new BadRequestException(
-                    "Not enough stock available. Available quantity: " + product.getQuantity());
+                    "Not enough stock available. Available quantity: " + available);
         }
 
-        CartItem existingCartItem = cart.getItems().stream()
-                .filter(item -> item.getProduct().getId().equals(product.getId())).findFirst()
-                .orElse(null);
-
-        if (existingCartItem != null) {
-            Integer newQuantity = existingCartItem.getQuantity() + cartItemRequestDTO.getQuantity();
-            if (newQuantity > product.getQuantity()) {
+        CartStore.CartView cart = cartStore.update(user.getId(), state -> {
+            Integer newQuantity = state.getQuantity(product.getId()) + cartItemRequestDTO.getQuantity();
+            if (newQuantity > available) {
                 throw new BadRequestException(
-                        "Not enough stock available. Available quantity: " + product.getQuantity());
+                        "Not enough stock available. Available quantity: " + available);
             }
-            existingCartItem.setQuantity(newQuantity);
-        } else {
-            CartItem cartItem = new CartItem();
-            cartItem.setCart(cart);
-            cartItem.setProduct(product);
-            cartItem.setQuantity(cartItemRequestDTO.getQuantity());
-            cart.getItems().add(cartItem);
-        }
-
-        cartRepository.save(cart);
+            state.setQuantity(product.getId(), newQuantity);
+        });
 
         return mapToCartResponseDTO(cart);
     }
 
+    @RetryOnConflict
     public CartResponseDTO removeFromCart(Integer productId) {
-        Cart cart = getCurrentUserCart();
-        cart.getItems().removeIf(item -> item.getProduct().getId().equals(productId));
-        cartRepository.save(cart);
-
-        return mapToCartResponseDTO(cart);
+        User user = getCurrentUser();
+        if (stockHoldService.isEnabled()) {
+            stockHoldService.set(user.getId(), productId, 0);
+        }
+        return mapToCartResponseDTO(cartStore.update(user.getId(), state -> state.remove(productId)));
     }
 
+    @RetryOnConflict
     public CartResponseDTO updateCartItem(Integer productId,
             CartItemRequestUpdateDTO cartItemRequestUpdateDTO) {
-        Cart cart = getCurrentUserCart();
-        CartItem cartItem = cart.getItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId)).findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found in cart"));
-
-        if (cartItemRequestUpdateDTO.getQuantity() > cartItem.getProduct().getQuantity()) {
-            throw new BadRequestException("Not enough stock available. Available quantity: "
-                    + cartItem.getProduct().getQuantity());
+        User user = getCurrentUser();
+        if (stockHoldService.isEnabled()) {
+            return updateCartItemWithHold(user, productId, cartItemRequestUpdateDTO.getQuantity());
         }
+        Product product = productRepository.findById(productId).orElse(null);
+        int available = product == null ? 0 : stockShardService.availableQuantity(product);
 
-        cartItem.setQuantity(cartItemRequestUpdateDTO.getQuantity());
-        cartRepository.save(cart);
+        CartStore.CartView cart = cartStore.update(user.getId(), state -> {
+            if (product == null || !state.contains(productId)) {
+                throw new ResourceNotFoundException("Product not found in cart");
+            }
+            if (cartItemRequestUpdateDTO.getQuantity() > available) {
+                throw new BadRequestException("Not enough stock available. Available quantity: "
+                        + available);
+            }
+            state.setQuantity(productId, cartItemRequestUpdateDTO.getQuantity());
+        });
 
         return mapToCartResponseDTO(cart);
     }
 
+    @RetryOnConflict
     public CartResponseDTO clearCart() {
-        Cart cart = getCurrentUserCart();
-        cart.getItems().clear();
-        cartRepository.save(cart);
+        User user = getCurrentUser();
+        if (stockHoldService.isEnabled()) {
+            stockHoldService.releaseAll(user.getId());
+        }
+        return mapToCartResponseDTO(cartStore.update(user.getId(), CartStore.CartState::clear));
+    }
 
-        return mapToCartResponseDTO(cart);
+    /**
+     * The cached available-to-sell quantity turns away requests that cannot fit without touching
+     * the product row; the hold itself takes the stock under the usual stock checks. A hold whose
+     * cart update fails is left to expire. The hold commits in its own transaction, so a
+     * versioned stock conflict re-runs the whole call ({@link RetryOnConflict}).
+     */
+    private CartResponseDTO addToCartWithHold(User user, Integer productId, int quantity) {
+        int available = productCatalogCache.getAvailable(productId, this::loadAvailableQuantity);
+        if (available < quantity) {
+            throw new BadRequestException("Not enough stock available. Available quantity: " + available);
+        }
+        stockHoldService.add(user.getId(), productId, quantity);
+        return mapToCartResponseDTO(cartStore.update(user.getId(),
+                state -> state.setQuantity(productId, state.getQuantity(productId) + quantity)));
+    }
+
+    private CartResponseDTO updateCartItemWithHold(User user, Integer productId, int quantity) {
+        if (!cartStore.read(user.getId()).productIds().contains(productId)) {
+            throw new ResourceNotFoundException("Product not found in cart");
+        }
+        stockHoldService.set(user.getId(), productId, quantity);
+        return mapToCartResponseDTO(cartStore.update(user.getId(), state -> state.setQuantity(productId, quantity)));
+    }
+
+    private int loadAvailableQuantity(Integer productId) {
+        return productRepository.findById(productId)
+                .map(stockShardService::availableQuantity)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
     }
 
 
@@ -122,23 +161,21 @@ public class CartServiceImpl implements CartService {
         return user;
     }
 
-    private Cart getCurrentUserCart() {
-        User user = getCurrentUser();
-        return cartRepository.findByUserId(user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
-    }
-
-    private CartResponseDTO mapToCartResponseDTO(Cart cart) {
-        return new CartResponseDTO(cart.getId(), cart.getUser().getId(),
-                cart.getItems().stream().map(this::mapToCartItemDTO).collect(Collectors.toList()),
-                cart.getItems().size());
+    private CartResponseDTO mapToCartResponseDTO(CartStore.CartView cart) {
+        Map<Integer, Product> products = productRepository.findAllById(cart.productIds()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Integer, Integer> available = stockShardService.availableQuantities(products.values());
+        List<CartItemDTO> items = cart.lines().stream()
+                .filter(line -> products.containsKey(line.productId()))
+                .map(line -> mapToCartItemDTO(line, products.get(line.productId()), available.get(line.productId())))
+                .collect(Collectors.toList());
+        return new CartResponseDTO(cart.cartId(), cart.userId(), items, items.size());
     }
 
-    private CartItemDTO mapToCartItemDTO(CartItem cartItem) {
-        Product product = cartItem.getProduct();
+    private CartItemDTO mapToCartItemDTO(CartStore.CartLine line, Product product, Integer available) {
         ProductDTO productDTO = new ProductDTO(product.getId(), product.getName(),
-                product.getDescription(), product.getPrice(), product.getQuantity());
+                product.getDescription(), product.getPrice(), available);
 
-        return new CartItemDTO(cartItem.getId(), cartItem.getQuantity(), productDTO);
+        return new CartItemDTO(line.itemId(), line.quantity(), productDTO);
     }
 }
@@ -0,0 +1,313 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.model.Cart;
+import com.example.cecv_e_commerce.domain.model.CartItem;
+import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
+import com.example.cecv_e_commerce.repository.CartRepository;
+import com.example.cecv_e_commerce.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Per-user cart state with write-behind persistence to {@code carts}/{@code cart_items}.
+ * <p>
+ * Every read and change of a user's cart runs under one of {@code app.cart.store.lock-stripes}
+ * locks picked by user id, so concurrent requests for one cart are applied one after another.
+ * With {@code app.cart.store.enabled} a cart stays in memory after its first load, changes only
+ * mark it dirty, and dirty carts are written back every {@code app.cart.store.flush-interval-ms}
+ * and on shutdown; carts idle for {@code app.cart.store.idle-ttl-ms} are evicted once clean.
+ * Changes since the last flush are lost if the node dies, and every node keeps its own copy, so
+ * only enable it where a user's requests stay on one node. When disabled, each change is loaded
+ * and written back in a single transaction.
+ */
+@Component
+public class CartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartStore.class);
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cart.store.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.cart.store.lock-stripes:64}")
+    private int lockStripes;
+
+    @Value("${app.cart.store.idle-ttl-ms:1800000}")
+    private long idleTtlMs;
+
+    private final Map<Integer, CartState> carts = new ConcurrentHashMap<>();
+    private ReentrantLock[] locks;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransactionTemplate;
+    private Counter flushFailures;
+
+    @PostConstruct
+    public void init() {
+        locks = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+        Gauge.builder("cart.store.size", carts, Map::size)
+                .description("Carts held in memory")
+                .register(meterRegistry);
+        flushFailures = Counter.builder("cart.store.flush.failures")
+                .description("Dirty carts that could not be written back")
+                .register(meterRegistry);
+    }
+
+    public CartView read(Integer userId) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            if (!enabled) {
+                return readOnlyTransactionTemplate.execute(status -> CartState.of(findCart(userId)).view());
+            }
+            CartState state = cached(userId);
+            state.lastAccess = System.currentTimeMillis();
+            return state.view();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies {@code change} to the user's cart and returns the result. If the change throws, the
+     * cart is left as it was.
+     */
+    public CartView update(Integer userId, Consumer<CartState> change) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            if (!enabled) {
+                return transactionTemplate.execute(status -> {
+                    Cart cart = findCart(userId);
+                    CartState state = CartState.of(cart);
+                    change.accept(state);
+                    writeTo(cart, state);
+                    return state.view();
+                });
+            }
+            CartState state = cached(userId).copy();
+            change.accept(state);
+            state.dirty = true;
+            state.lastAccess = System.currentTimeMillis();
+            carts.put(userId, state);
+            return state.view();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.store.flush-interval-ms:5000}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Integer userId : carts.keySet()) {
+            ReentrantLock lock = lockFor(userId);
+            lock.lock();
+            try {
+                CartState state = carts.get(userId);
+                if (state == null) {
+                    continue;
+                }
+                if (state.dirty && !writeBack(state)) {
+                    continue;
+                }
+                if (now - state.lastAccess > idleTtlMs) {
+                    carts.remove(userId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private CartState cached(Integer userId) {
+        CartState state = carts.get(userId);
+        if (state == null) {
+            state = readOnlyTransactionTemplate.execute(status -> CartState.of(findCart(userId)));
+            carts.put(userId, state);
+        }
+        return state;
+    }
+
+    private boolean writeBack(CartState state) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> cartRepository.findWithItemsById(state.cartId)
+                    .ifPresentOrElse(cart -> writeTo(cart, state), () -> {
+                        logger.warn("Cart {} no longer exists; dropping its in-memory changes.", state.cartId);
+                        carts.remove(state.userId);
+                    }));
+            state.dirty = false;
+            return true;
+        } catch (Exception e) {
+            flushFailures.increment();
+            logger.warn("Failed to write back cart {}: {}", state.cartId, e.getMessage());
+            return false;
+        }
+    }
+
+    private void writeTo(Cart cart, CartState state) {
+        Map<Integer, CartItem> existing = new HashMap<>();
+        for (CartItem item : cart.getItems()) {
+            existing.put(item.getProduct().getId(), item);
+        }
+        cart.getItems().removeIf(item -> !state.lines.containsKey(item.getProduct().getId()));
+        state.lines.forEach((productId, line) -> {
+            CartItem item = existing.get(productId);
+            if (item == null) {
+                item = new CartItem();
+                item.setCart(cart);
+                item.setProduct(productRepository.getReferenceById(productId));
+                cart.getItems().add(item);
+            }
+            if (!line.quantity.equals(item.getQuantity())) {
+                item.setQuantity(line.quantity);
+            }
+        });
+        Cart saved = cartRepository.saveAndFlush(cart);
+        for (CartItem item : saved.getItems()) {
+            state.lines.get(item.getProduct().getId()).itemId = item.getId();
+        }
+    }
+
+    private Cart findCart(Integer userId) {
+        return cartRepository.findWithItemsByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
+    }
+
+    private ReentrantLock lockFor(Integer userId) {
+        return locks[Math.floorMod(userId.hashCode(), locks.length)];
+    }
+
+    /**
+     * Mutable cart contents keyed by product id, in the order products were added.
+     */
+    public static final class CartState {
+
+        private final Integer cartId;
+        private final Integer userId;
+        private final LinkedHashMap<Integer, Line> lines;
+        private boolean dirty;
+        private long lastAccess;
+
+        private CartState(Integer cartId, Integer userId, LinkedHashMap<Integer, Line> lines) {
+            this.cartId = cartId;
+            this.userId = userId;
+            this.lines = lines;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        static CartState of(Cart cart) {
+            LinkedHashMap<Integer, Line> lines = new LinkedHashMap<>();
+            for (CartItem item : cart.getItems()) {
+                lines.put(item.getProduct().getId(), new Line(item.getId(), item.getQuantity()));
+            }
+            return new CartState(cart.getId(), cart.getUser().getId(), lines);
+        }
+
+        public boolean contains(Integer productId) {
+            return lines.containsKey(productId);
+        }
+
+        public int getQuantity(Integer productId) {
+            Line line = lines.get(productId);
+            return line == null ? 0 : line.quantity;
+        }
+
+        public void setQuantity(Integer productId, Integer quantity) {
+            Line line = lines.get(productId);
+            if (line == null) {
+                lines.put(productId, new Line(null, quantity));
+            } else {
+                line.quantity = quantity;
+            }
+        }
+
+        public void remove(Integer productId) {
+            lines.remove(productId);
+        }
+
+        public void clear() {
+            lines.clear();
+        }
+
+        private CartState copy() {
+            LinkedHashMap<Integer, Line> copied = new LinkedHashMap<>();
+            lines.forEach((productId, line) -> copied.put(productId, new Line(line.itemId, line.quantity)));
+            CartState state = new CartState(cartId, userId, copied);
+            state.dirty = dirty;
+            return state;
+        }
+
+        private CartView view() {
+            return new CartView(cartId, userId, lines.entrySet().stream()
+                    .map(entry -> new CartLine(entry.getValue().itemId, entry.getKey(), entry.getValue().quantity))
+                    .toList());
+        }
+    }
+
+    private static final class Line {
+
+        private Integer itemId;
+        private Integer quantity;
+
+        private Line(Integer itemId, Integer quantity) {
+            this.itemId = itemId;
+            this.quantity = quantity;
+        }
+    }
+
+    public record CartView(Integer cartId, Integer userId, List<CartLine> lines) {
+
+        public List<Integer> productIds() {
+            return lines.stream().map(CartLine::productId).toList();
+        }
+    }
+
+    /**
+     * One cart line; {@code itemId} is null until the line has been written to {@code cart_items}.
+     */
+    public record CartLine(Integer itemId, Integer productId, Integer quantity) {
+    }
+}
@@ -7,12 +7,12 @@ import com.example.cecv_e_commerce.domain.model.Product;
 import com.example.cecv_e_commerce.domain.model.User;
 import com.example.cecv_e_commerce.exception.BadRequestException;
 import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
+import com.example.cecv_e_commerce.mapper.CommentMapper;
 import com.example.cecv_e_commerce.repository.CommentRepository;
 import com.example.cecv_e_commerce.repository.ProductRepository;
 import com.example.cecv_e_commerce.repository.UserRepository;
 import com.example.cecv_e_commerce.service.CommentService;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -31,7 +31,7 @@ public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final CommentMapper commentMapper;
 
     @Override
     public CommentDTO addComment(Integer userId, Integer productId, String content) {
@@ -79,13 +79,6 @@ public class CommentServiceImpl implements CommentService {
     }
 
     private CommentDTO mapToCommentDTO(Comment comment) {
-        if (comment == null) return null;
-        CommentDTO dto = modelMapper.map(comment, CommentDTO.class);
-        if (comment.getProduct() != null) dto.setProductId(comment.getProduct().getId());
-        if (comment.getUser() != null) {
-            dto.setUserId(comment.getUser().getId());
-            dto.setUsername(comment.getUser().getName());
-        }
-        return dto;
+        return commentMapper.toDTO(comment);
     }
 }
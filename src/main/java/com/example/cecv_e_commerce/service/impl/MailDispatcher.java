@@ -0,0 +1,243 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.service.MailDeliveryCallback;
+import com.example.cecv_e_commerce.util.ThreadFactories;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Outbound mail pipeline.
+ * <p>
+ * {@link #submit} only enqueues; a fixed pool of workers renders the templates and sends whatever
+ * has accumulated in one {@link JavaMailSender#send(MimeMessage...)} call, which reuses a single
+ * SMTP connection for the whole batch. Each message's outcome is reported to its
+ * {@link OutgoingMail#callback()}; the pipeline does not retry on its own, the caller (the outbox)
+ * owns retries and their backoff. When the queue is full the message is rejected and logged as
+ * failed instead of blocking the caller. Messages still queued at shutdown get no outcome, which
+ * the outbox treats like a lost send once their lease runs out.
+ */
+@Component
+public class MailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailDispatcher.class);
+    private static final long POLL_TIMEOUT_MS = 500;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    @Autowired
+    private MailLogWriter mailLogWriter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.mail.username}")
+    private String mailFrom;
+
+    @Value("${app.mail.queue.capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.mail.workers:2}")
+    private int workers;
+
+    @Value("${app.mail.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.mail.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private BlockingQueue<OutgoingMail> queue;
+    private ExecutorService workerPool;
+    private volatile boolean running;
+
+    private Counter sentCounter;
+    private Counter failedCounter;
+    private Counter rejectedCounter;
+    private Timer batchTimer;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("mail.queue.size", queue, BlockingQueue::size)
+                .description("Emails waiting for a mail worker")
+                .register(meterRegistry);
+        Gauge.builder("mail.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("Free slots in the outbound mail queue")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("mail.sent").register(meterRegistry);
+        failedCounter = Counter.builder("mail.failed").register(meterRegistry);
+        rejectedCounter = Counter.builder("mail.rejected")
+                .description("Emails dropped because the queue was full")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("mail.send.batch").register(meterRegistry);
+
+        running = true;
+        workerPool = Executors.newFixedThreadPool(workers, ThreadFactories.named("mail-worker-", virtualThreads));
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::runWorker);
+        }
+        logger.info("Mail dispatcher started with {} workers, queue capacity {}, batch size {}.",
+                workers, queueCapacity, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workerPool.shutdown();
+        try {
+            if (!workerPool.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                workerPool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workerPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Mail dispatcher stopped with {} unsent emails.", queue.size());
+        }
+    }
+
+    /**
+     * Queues an email for delivery. Returns {@code false} if the queue is full; the rejection is
+     * recorded in the mail log and the callback is not called.
+     */
+    public boolean submit(OutgoingMail mail) {
+        if (queue.offer(mail)) {
+            return true;
+        }
+        rejectedCounter.increment();
+        logger.warn("Mail queue full; dropping {} email to {}", mail.mailType(), mail.to());
+        mailLogWriter.logMailEvent(mail.userId(), mail.to(), mail.mailType(), false, "Mail queue is full");
+        return false;
+    }
+
+    private void runWorker() {
+        List<OutgoingMail> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OutgoingMail first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Unexpected error in mail worker: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void deliver(List<OutgoingMail> batch) {
+        List<OutgoingMail> prepared = new ArrayList<>(batch.size());
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (OutgoingMail mail : batch) {
+            try {
+                messages.add(toMimeMessage(mail));
+                prepared.add(mail);
+            } catch (Exception e) {
+                // Rendering and address errors fail the message without holding up the rest of the batch.
+                logger.error("Failed to prepare {} email to {}: {}", mail.mailType(), mail.to(), e.getMessage());
+                failed(mail, e.getMessage());
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+            prepared.forEach(this::sent);
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (int i = 0; i < messages.size(); i++) {
+                Exception failure = failedMessages.isEmpty() ? e : failedMessages.get(messages.get(i));
+                if (failure == null) {
+                    sent(prepared.get(i));
+                } else {
+                    sendFailed(prepared.get(i), failure);
+                }
+            }
+        } catch (MailException e) {
+            for (OutgoingMail mail : prepared) {
+                sendFailed(mail, e);
+            }
+        } finally {
+            sample.stop(batchTimer);
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutgoingMail mail) throws Exception {
+        String htmlContent = mailTemplateRenderer.render(mail.template(), mail.variables());
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setTo(mail.to());
+        helper.setSubject(mail.subject());
+        helper.setText(htmlContent, true);
+        helper.setFrom(mailFrom);
+        return message;
+    }
+
+    private void sent(OutgoingMail mail) {
+        sentCounter.increment();
+        logger.info("{} email sent successfully to {}", mail.mailType(), mail.to());
+        mailLogWriter.logMailEvent(mail.userId(), mail.to(), mail.mailType(), true, null);
+        report(mail, MailDeliveryCallback::delivered);
+    }
+
+    private void sendFailed(OutgoingMail mail, Exception cause) {
+        logger.warn("Sending {} email to {} failed: {}", mail.mailType(), mail.to(), cause.getMessage());
+        failed(mail, cause.getMessage());
+    }
+
+    private void failed(OutgoingMail mail, String errorMessage) {
+        failedCounter.increment();
+        mailLogWriter.logMailEvent(mail.userId(), mail.to(), mail.mailType(), false, errorMessage);
+        report(mail, callback -> callback.failed(errorMessage));
+    }
+
+    private void report(OutgoingMail mail, Consumer<MailDeliveryCallback> outcome) {
+        try {
+            outcome.accept(mail.callback());
+        } catch (Exception e) {
+            logger.error("Delivery callback for {} email to {} failed: {}", mail.mailType(), mail.to(), e.getMessage(), e);
+        }
+    }
+}
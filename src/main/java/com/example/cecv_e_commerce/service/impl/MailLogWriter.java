@@ -0,0 +1,113 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.enums.MailStatus;
+import com.example.cecv_e_commerce.domain.enums.MailType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records the outcome of every outbound email in {@code mail_logs}.
+ * <p>
+ * Entries are buffered and written with JDBC batch inserts, either as soon as
+ * {@code app.mail.log.batch-size} entries are waiting (on the thread that logged the last one) or
+ * by the periodic flush. Failures to write the log are logged and swallowed so they never affect
+ * delivery.
+ */
+@Component
+public class MailLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailLogWriter.class);
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO mail_logs (user_id, recipient_email, type, status, error_message, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.mail.log.batch-size:100}")
+    private int batchSize;
+
+    private final ConcurrentLinkedQueue<Object[]> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public void logMailEvent(Integer userId, String recipientEmail, MailType mailType, boolean success,
+                             String errorMessage) {
+        String error = null;
+        if (!success) {
+            error = errorMessage != null && errorMessage.length() > MAX_ERROR_LENGTH
+                    ? errorMessage.substring(0, MAX_ERROR_LENGTH) : errorMessage;
+        }
+        buffer.add(new Object[]{
+                userId,
+                recipientEmail,
+                mailType.name(),
+                (success ? MailStatus.SENT : MailStatus.FAILED).name(),
+                error,
+                Timestamp.valueOf(LocalDateTime.now())
+        });
+        if (buffered.incrementAndGet() >= batchSize && flushLock.tryLock()) {
+            try {
+                flushBuffered();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.log.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushBuffered();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushBuffered() {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        Object[] row;
+        while ((row = buffer.poll()) != null) {
+            buffered.decrementAndGet();
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        } catch (Exception e) {
+            logger.error("Failed to write {} mail log entries to DB: {}", batch.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders mail templates from precompiled fragments.
+ * <p>
+ * The first time a template is used with a given set of variables it is rendered once through
+ * Thymeleaf with a unique marker in place of every variable, and the output is split at the
+ * markers into static text and variable slots. Later messages only concatenate the static text
+ * with the HTML-escaped values. This holds for templates that output variables as text or
+ * attribute values; to catch anything else (conditionals, loops, formatting) the compiled form is
+ * checked against Thymeleaf with probe values, and templates that do not match keep being
+ * rendered by Thymeleaf.
+ */
+@Component
+public class MailTemplateRenderer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailTemplateRenderer.class);
+    private static final String MARKER_PREFIX = "__mailslot_";
+    private static final String MARKER_SUFFIX = "__";
+
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+
+    @Value("${app.mail.template.precompile:true}")
+    private boolean precompile;
+
+    private final Map<String, CompiledTemplate> compiledTemplates = new ConcurrentHashMap<>();
+
+    public String render(String template, Map<String, Object> variables) {
+        // A null value drops th:href attributes entirely, which a slot cannot express.
+        if (!precompile || variables.containsValue(null)) {
+            return process(template, variables);
+        }
+        String key = template + new TreeSet<>(variables.keySet());
+        CompiledTemplate compiled = compiledTemplates.computeIfAbsent(key, k -> compile(template, variables.keySet()));
+        return compiled.usable() ? compiled.fill(variables) : process(template, variables);
+    }
+
+    private String process(String template, Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariables(variables);
+        return templateEngine.process(template, context);
+    }
+
+    private CompiledTemplate compile(String template, Iterable<String> names) {
+        Map<String, Object> markers = new HashMap<>();
+        Map<String, Object> probes = new HashMap<>();
+        for (String name : names) {
+            markers.put(name, MARKER_PREFIX + name + MARKER_SUFFIX);
+            probes.put(name, "<probe \"" + name + "\" & 'đ'>");
+        }
+        String rendered = process(template, markers);
+
+        List<String> texts = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int position = 0;
+        int start;
+        while ((start = rendered.indexOf(MARKER_PREFIX, position)) >= 0) {
+            int end = rendered.indexOf(MARKER_SUFFIX, start + MARKER_PREFIX.length());
+            String name = rendered.substring(start + MARKER_PREFIX.length(), end);
+            texts.add(rendered.substring(position, start));
+            slots.add(name);
+            position = end + MARKER_SUFFIX.length();
+        }
+        texts.add(rendered.substring(position));
+
+        CompiledTemplate compiled = new CompiledTemplate(texts, slots, true);
+        if (!compiled.fill(probes).equals(process(template, probes))) {
+            logger.warn("Mail template '{}' cannot be precompiled; rendering it with Thymeleaf.", template);
+            return new CompiledTemplate(texts, slots, false);
+        }
+        logger.debug("Precompiled mail template '{}' into {} fragments.", template, texts.size());
+        return compiled;
+    }
+
+    static String escapeHtml(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&#39;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private record CompiledTemplate(List<String> texts, List<String> slots, boolean usable) {
+
+        String fill(Map<String, Object> variables) {
+            StringBuilder html = new StringBuilder(texts.stream().mapToInt(String::length).sum() + 256);
+            for (int i = 0; i < slots.size(); i++) {
+                html.append(texts.get(i));
+                Object value = variables.get(slots.get(i));
+                html.append(escapeHtml(Objects.toString(value, "")));
+            }
+            return html.append(texts.get(texts.size() - 1)).toString();
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.cecv_e_commerce.service.impl;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import com.example.cecv_e_commerce.config.RetryOnConflict;
 import com.example.cecv_e_commerce.domain.dto.order.OrderItemDTO;
+import com.example.cecv_e_commerce.domain.dto.order.OrderItemRowDTO;
 import com.example.cecv_e_commerce.domain.dto.order.OrderItemRequestCreateDTO;
 import com.example.cecv_e_commerce.domain.dto.order.OrderItemRequestDeleteDTO;
 import com.example.cecv_e_commerce.domain.dto.order.OrderItemRequestUpdateDTO;
@@ -13,6 +18,7 @@ import com.example.cecv_e_commerce.domain.dto.order.OrderPaymentRequestDTO;
 import com.example.cecv_e_commerce.domain.dto.order.OrderRequestDTO;
 import com.example.cecv_e_commerce.domain.dto.order.OrderResponseDTO;
 import com.example.cecv_e_commerce.domain.dto.order.OrderShippingDTO;
+import com.example.cecv_e_commerce.domain.dto.order.OrderSummaryRowDTO;
 import com.example.cecv_e_commerce.domain.dto.product.ProductDTO;
 import com.example.cecv_e_commerce.domain.enums.OrderStatusEnum;
 import com.example.cecv_e_commerce.domain.model.Order;
@@ -29,6 +35,8 @@ import com.example.cecv_e_commerce.repository.OrderItemRepository;
 import com.example.cecv_e_commerce.repository.OrderPaymentRepository;
 import com.example.cecv_e_commerce.repository.ProductRepository;
 import com.example.cecv_e_commerce.service.OrderService;
+import com.example.cecv_e_commerce.service.StockHoldService;
+import com.example.cecv_e_commerce.service.StockReservationService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
@@ -36,35 +44,31 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
-    private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final OrderShippingRepository orderShippingRepository;
     private final OrderPaymentRepository orderPaymentRepository;
+    private final StockReservationService stockReservationService;
+    private final StockHoldService stockHoldService;
+    private final ProductRepository productRepository;
+    private final ProductCatalogCache productCatalogCache;
 
     @Override
     @Transactional
+    @RetryOnConflict
     public OrderResponseDTO createOrder(OrderRequestDTO orderRequestDTO) {
         User user = getCurrentUser();
         Order order = new Order();
         order.setUser(user);
 
-        List<OrderItem> orderItems = orderRequestDTO.orderItems().stream().map(item -> {
-            Product product = productRepository.findByIdWithLock(item.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-
-            if (product.getQuantity() < item.getQuantity()) {
-                throw new BadRequestException(
-                        "Not enough product quantity in stock for product ID: " + product.getId()
-                                + ". Available: " + product.getQuantity() + ", Requested: "
-                                + item.getQuantity());
-            }
-
-            product.setQuantity(product.getQuantity() - item.getQuantity());
-            productRepository.save(product);
+        Map<Integer, Integer> requestedQuantities = orderRequestDTO.orderItems().stream()
+                .collect(Collectors.toMap(OrderItemRequestCreateDTO::getProductId,
+                        OrderItemRequestCreateDTO::getQuantity, Integer::sum, LinkedHashMap::new));
+        Map<Integer, Product> reservedProducts = reserveStock(user, requestedQuantities);
 
+        List<OrderItem> orderItems = orderRequestDTO.orderItems().stream().map(item -> {
             OrderItem orderItem = new OrderItem();
-            orderItem.setProduct(product);
+            orderItem.setProduct(reservedProducts.get(item.getProductId()));
             orderItem.setQuantity(item.getQuantity());
             orderItem.setPrice(item.getPrice());
             orderItem.setOrder(order);
@@ -97,16 +101,15 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional
+    @RetryOnConflict
     public OrderResponseDTO updateOrderItem(OrderItemRequestUpdateDTO orderItemRequestUpdateDTO) {
         Order order = findOrderByIdAndCheckAccess(orderItemRequestUpdateDTO.getOrderId());
         OrderItem orderItem =
                 findOrderItemByIdAndCheckAccess(orderItemRequestUpdateDTO.getOrderItemId());
 
-        Product product = productRepository.findByIdWithLock(orderItem.getProduct().getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-
-        validateAndUpdateProductQuantity(product, orderItemRequestUpdateDTO.getQuantity(),
-                orderItem.getQuantity());
+        Product product = stockReservationService.adjustStock(orderItem.getProduct().getId(),
+                orderItemRequestUpdateDTO.getQuantity() - orderItem.getQuantity());
+        productCatalogCache.evictProducts(List.of(product.getId()));
 
         orderItem.setQuantity(orderItemRequestUpdateDTO.getQuantity());
         orderItem.setPrice(orderItemRequestUpdateDTO.getPrice());
@@ -118,16 +121,15 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional
+    @RetryOnConflict
     public OrderResponseDTO deleteOrderItem(OrderItemRequestDeleteDTO orderItemRequestDeleteDTO) {
         Order order = findOrderByIdAndCheckAccess(orderItemRequestDeleteDTO.getOrderId());
         OrderItem orderItem =
                 findOrderItemByIdAndCheckAccess(orderItemRequestDeleteDTO.getOrderItemId());
 
-        Product product = productRepository.findByIdWithLock(orderItem.getProduct().getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-
-        product.setQuantity(product.getQuantity() + orderItem.getQuantity());
-        productRepository.save(product);
+        Product product = stockReservationService.adjustStock(orderItem.getProduct().getId(),
+                -orderItem.getQuantity());
+        productCatalogCache.evictProducts(List.of(product.getId()));
 
         order.getOrderItems().remove(orderItem);
         updateOrderTotal(order);
@@ -137,8 +139,20 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public OrderResponseDTO getOrderById(Integer orderId) {
-        Order order = findOrderByIdAndCheckAccess(orderId);
-        return convertOrderToOrderResponseDTO(order);
+        // Read-only: two projection queries instead of hydrating the order aggregate.
+        User user = getCurrentUser();
+        OrderSummaryRowDTO summary = orderRepository.findSummaryById(orderId)
+                .filter(row -> row.userId().equals(user.getId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        if (summary.status() != OrderStatusEnum.PENDING) {
+            throw new BadRequestException("Cannot modify a order is not pending");
+        }
+
+        List<OrderItemDTO> orderItems = orderItemRepository.findRowsByOrderId(orderId).stream()
+                .map(OrderItemRowDTO::toOrderItemDTO)
+                .collect(Collectors.toList());
+        return new OrderResponseDTO(summary.orderId(), summary.userId(), orderItems,
+                summary.toOrderShippingDTO(), orderItems.size(), summary.toOrderPaymentDTO());
     }
 
     @Override
@@ -171,6 +185,31 @@ public class OrderServiceImpl implements OrderService {
         return convertOrderToOrderResponseDTO(order);
     }
 
+    /**
+     * Uses the user's stock holds first; their stock was taken when they were placed, so only the
+     * quantity not covered by a hold is reserved (and its product rows locked) here.
+     */
+    private Map<Integer, Product> reserveStock(User user, Map<Integer, Integer> requestedQuantities) {
+        Map<Integer, Integer> heldQuantities = stockHoldService.convert(user.getId(), requestedQuantities);
+        Map<Integer, Integer> remainingQuantities = new LinkedHashMap<>();
+        requestedQuantities.forEach((productId, quantity) -> {
+            int remaining = quantity - heldQuantities.getOrDefault(productId, 0);
+            if (remaining > 0) {
+                remainingQuantities.put(productId, remaining);
+            }
+        });
+
+        Map<Integer, Product> products = new HashMap<>(stockReservationService.reserve(remainingQuantities));
+        List<Integer> heldOnlyIds = heldQuantities.keySet().stream()
+                .filter(productId -> !products.containsKey(productId))
+                .toList();
+        if (!heldOnlyIds.isEmpty()) {
+            productRepository.findAllById(heldOnlyIds).forEach(product -> products.put(product.getId(), product));
+        }
+        productCatalogCache.evictProducts(products.keySet());
+        return products;
+    }
+
     private User getCurrentUser() {
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (user == null) {
@@ -182,7 +221,7 @@ public class OrderServiceImpl implements OrderService {
 
     private Order findOrderByIdAndCheckAccess(Integer orderId) {
         User user = getCurrentUser();
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithDetailsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
         if (order.getUser().getId() != user.getId()) {
             throw new ResourceNotFoundException("Order not found");
@@ -197,7 +236,7 @@ public class OrderServiceImpl implements OrderService {
 
     private Order findOrderByIdAndCheckAccess(Integer orderId, boolean checkStatus) {
         User user = getCurrentUser();
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithDetailsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
         if (order.getUser().getId() != user.getId()) {
             throw new ResourceNotFoundException("Order not found");
@@ -223,16 +262,6 @@ public class OrderServiceImpl implements OrderService {
         orderRepository.save(order);
     }
 
-    private void validateAndUpdateProductQuantity(Product product, int requestedQuantity,
-            int currentOrderItemQuantity) {
-        if (product.getQuantity() < (requestedQuantity - currentOrderItemQuantity)) {
-            throw new BadRequestException(
-                    "Not enough product quantity in stock. Available: " + product.getQuantity());
-        }
-        product.setQuantity(product.getQuantity() - (requestedQuantity - currentOrderItemQuantity));
-        productRepository.save(product);
-    }
-
     private OrderResponseDTO convertOrderToOrderResponseDTO(Order order) {
         List<OrderItemDTO> orderItems = order.getOrderItems().stream()
                 .map(item -> new OrderItemDTO(item.getId(), order.getId(),
@@ -0,0 +1,207 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.dto.outbox.MailEventPayloadDTO;
+import com.example.cecv_e_commerce.domain.enums.OutboxEventType;
+import com.example.cecv_e_commerce.domain.enums.OutboxStatus;
+import com.example.cecv_e_commerce.domain.model.OutboxEvent;
+import com.example.cecv_e_commerce.repository.OutboxEventRepository;
+import com.example.cecv_e_commerce.service.MailDeliveryCallback;
+import com.example.cecv_e_commerce.service.MailService;
+import com.example.cecv_e_commerce.service.OutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactional outbox. Events are inserted by {@link #enqueue} inside the caller's transaction,
+ * so they exist exactly when the business change committed, and are handed to their handler by
+ * {@link #dispatchDueEvents} afterwards.
+ * <p>
+ * Dispatching never keeps a transaction open while mail is sent. Due events are claimed in one
+ * short transaction, which marks them {@code IN_FLIGHT} with a lease of {@code app.outbox.lease-ms},
+ * and then handed to the mail queue. The mail worker reports each event's outcome through a
+ * {@link MailDeliveryCallback}, which writes it in its own short transaction: processed once the
+ * mail server accepted it, otherwise rescheduled with the outbox's backoff. A full mail queue
+ * counts as a failed attempt. Delivery is at least once: an event whose
+ * outcome was never written (the node died, or the write failed) is claimed again when its lease
+ * runs out. Each event carries a unique dedup key, so enqueuing the same logical event twice is
+ * a no-op.
+ */
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxServiceImpl.class);
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    @Value("${app.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxEventType eventType, String dedupKey, Object payload) {
+        if (outboxEventRepository.existsByDedupKey(dedupKey)) {
+            logger.debug("Outbox event {} already recorded; skipping.", dedupKey);
+            return;
+        }
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(eventType);
+        event.setDedupKey(dedupKey);
+        event.setPayload(toJson(payload));
+        event.setAvailableAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+    }
+
+    @Override
+    public int dispatchDueEvents(int batchSize) {
+        List<OutboxEvent> claimed = new ArrayList<>(batchSize);
+        Integer due = transactionTemplate.execute(status -> claimDueEvents(batchSize, claimed));
+        for (OutboxEvent event : claimed) {
+            try {
+                handle(event);
+            } catch (Exception e) {
+                failed(event, e.getMessage());
+            }
+        }
+        return due == null ? 0 : due;
+    }
+
+    /**
+     * Claims up to {@code limit} due events into {@code claimed} and returns how many were due.
+     * An event whose lease ran out on its last attempt is given up on instead of claimed again.
+     */
+    private int claimDueEvents(int limit, List<OutboxEvent> claimed) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.lockDueEvents(now, limit);
+        for (OutboxEvent event : events) {
+            if (event.getStatus() == OutboxStatus.IN_FLIGHT && event.getAttempts() >= maxAttempts) {
+                event.setStatus(OutboxStatus.FAILED);
+                event.setLastError("Lease expired without a delivery outcome");
+                logger.error("Giving up on outbox event {} after {} attempts: lease expired",
+                        event.getDedupKey(), event.getAttempts());
+                continue;
+            }
+            event.setStatus(OutboxStatus.IN_FLIGHT);
+            event.setAttempts(event.getAttempts() + 1);
+            event.setAvailableAt(now.plusNanos(leaseMs * 1_000_000));
+            claimed.add(event);
+        }
+        return events.size();
+    }
+
+    private void completed(OutboxEvent event) {
+        complete(event, OutboxStatus.PROCESSED, event.getAvailableAt(), LocalDateTime.now(), null);
+    }
+
+    private void failed(OutboxEvent event, String message) {
+        String error = message != null && message.length() > MAX_ERROR_LENGTH
+                ? message.substring(0, MAX_ERROR_LENGTH) : message;
+        if (event.getAttempts() >= maxAttempts) {
+            logger.error("Giving up on outbox event {} after {} attempts: {}",
+                    event.getDedupKey(), event.getAttempts(), error);
+            complete(event, OutboxStatus.FAILED, event.getAvailableAt(), null, error);
+        } else {
+            long delay = retryBackoffMs << Math.min(event.getAttempts() - 1, 10);
+            logger.warn("Outbox event {} failed (attempt {}), retrying in {} ms: {}",
+                    event.getDedupKey(), event.getAttempts(), delay, error);
+            complete(event, OutboxStatus.PENDING, LocalDateTime.now().plusNanos(delay * 1_000_000), null, error);
+        }
+    }
+
+    private void complete(OutboxEvent event, OutboxStatus status, LocalDateTime availableAt,
+                          LocalDateTime processedAt, String error) {
+        try {
+            Integer updated = transactionTemplate.execute(tx -> outboxEventRepository.completeClaim(
+                    event.getId(), event.getAttempts(), status, availableAt, processedAt, error));
+            if (updated == null || updated == 0) {
+                logger.warn("Outbox event {} was claimed again before its outcome ({}) was recorded.",
+                        event.getDedupKey(), status);
+            }
+        } catch (Exception e) {
+            // The lease runs out and the event is claimed again, so this is a duplicate at worst.
+            logger.error("Failed to record outcome {} of outbox event {}: {}",
+                    status, event.getDedupKey(), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int purgeProcessedEvents(int retentionDays) {
+        return outboxEventRepository.deleteByStatusAndProcessedAtBefore(
+                OutboxStatus.PROCESSED, LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    /**
+     * Queues the event's mail; the outcome is recorded when the mail worker reports it.
+     */
+    private void handle(OutboxEvent event) throws JsonProcessingException {
+        MailDeliveryCallback callback = new MailDeliveryCallback() {
+            @Override
+            public void delivered() {
+                completed(event);
+            }
+
+            @Override
+            public void failed(String error) {
+                OutboxServiceImpl.this.failed(event, error);
+            }
+        };
+        switch (event.getEventType()) {
+            case ACTIVATION_EMAIL -> {
+                MailEventPayloadDTO payload = objectMapper.readValue(event.getPayload(), MailEventPayloadDTO.class);
+                mailService.sendActivationEmail(payload.getUserId(), payload.getTo(), payload.getName(), payload.getLink(),
+                        callback);
+            }
+            case PASSWORD_RESET_EMAIL -> {
+                MailEventPayloadDTO payload = objectMapper.readValue(event.getPayload(), MailEventPayloadDTO.class);
+                mailService.sendPasswordResetEmail(payload.getUserId(), payload.getTo(), payload.getName(), payload.getLink(),
+                        callback);
+            }
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.enums.MailType;
+import com.example.cecv_e_commerce.service.MailDeliveryCallback;
+
+import java.util.Map;
+
+/**
+ * An email waiting in the {@link MailDispatcher} queue. The body is rendered from
+ * {@code template} and {@code variables} on a mail worker, not on the caller's thread, and the
+ * worker reports the outcome to {@code callback}.
+ */
+public record OutgoingMail(Integer userId, String to, String subject, String template, Map<String, Object> variables,
+                           MailType mailType, MailDeliveryCallback callback) {
+}
@@ -0,0 +1,113 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.dto.product.ProductBriefDTO;
+import com.example.cecv_e_commerce.domain.dto.product.ProductDetailDTO;
+import com.example.cecv_e_commerce.mapper.ProductMapper;
+import com.example.cecv_e_commerce.util.BoundedTtlCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of product detail and featured-page DTOs, and of the quantity available to
+ * sell per product, which the cart checks before taking a stock hold.
+ * <p>
+ * Entries are never handed out directly: callers always receive a copy, so a cached snapshot
+ * cannot be modified after it was loaded. Stock changes must call {@link #evictProducts(Collection)}.
+ */
+@Component
+public class ProductCatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalogCache.class);
+
+    private final ProductMapper productMapper;
+    private final BoundedTtlCache<Integer, ProductDetailDTO> details;
+    private final BoundedTtlCache<FeaturedPageKey, FeaturedPage> featuredPages;
+    private final BoundedTtlCache<Integer, Integer> available;
+
+    public ProductCatalogCache(ProductMapper productMapper,
+                               @Value("${app.catalog.cache.max-size:5000}") int maxSize,
+                               @Value("${app.catalog.cache.featured-max-pages:100}") int featuredMaxPages,
+                               @Value("${app.catalog.cache.ttl-ms:60000}") long ttlMs,
+                               MeterRegistry meterRegistry) {
+        this.productMapper = productMapper;
+        this.details = new BoundedTtlCache<Integer, ProductDetailDTO>("product_details", maxSize, ttlMs)
+                .bindTo(meterRegistry);
+        this.featuredPages = new BoundedTtlCache<FeaturedPageKey, FeaturedPage>("featured_products",
+                featuredMaxPages, ttlMs)
+                .bindTo(meterRegistry);
+        this.available = new BoundedTtlCache<Integer, Integer>("available_to_sell", maxSize, ttlMs)
+                .bindTo(meterRegistry);
+    }
+
+    public ProductDetailDTO getDetails(Integer productId, Function<Integer, ProductDetailDTO> loader) {
+        return productMapper.copyOf(details.getOrLoad(productId, loader));
+    }
+
+    /**
+     * Available-to-sell quantity for a quick check only; the stock change itself still decides.
+     */
+    public int getAvailable(Integer productId, Function<Integer, Integer> loader) {
+        return available.getOrLoad(productId, loader);
+    }
+
+    public Page<ProductBriefDTO> getFeatured(Pageable pageable, Supplier<Page<ProductBriefDTO>> loader) {
+        FeaturedPageKey key = new FeaturedPageKey(pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort().toString());
+        FeaturedPage cached = featuredPages.getOrLoad(key, k -> {
+            Page<ProductBriefDTO> page = loader.get();
+            return new FeaturedPage(List.copyOf(page.getContent()), page.getTotalElements());
+        });
+        List<ProductBriefDTO> content = cached.content().stream()
+                .map(productMapper::copyOf)
+                .toList();
+        return new PageImpl<>(content, pageable, cached.totalElements());
+    }
+
+    /**
+     * Drops the detail snapshots of the given products now and, inside a transaction, again after
+     * commit so a read racing the stock update cannot leave the old quantity cached.
+     */
+    public void evictProducts(Collection<Integer> productIds) {
+        evictDetails(productIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Integer> ids = List.copyOf(productIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictDetails(ids);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        details.invalidateAll();
+        featuredPages.invalidateAll();
+        available.invalidateAll();
+    }
+
+    private void evictDetails(Collection<Integer> productIds) {
+        logger.debug("Evicting cached product details for IDs: {}", productIds);
+        productIds.forEach(details::invalidate);
+        productIds.forEach(available::invalidate);
+    }
+
+    private record FeaturedPageKey(int page, int size, String sort) {
+    }
+
+    private record FeaturedPage(List<ProductBriefDTO> content, long totalElements) {
+    }
+}
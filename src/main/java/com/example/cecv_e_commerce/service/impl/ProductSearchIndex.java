@@ -0,0 +1,387 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.dto.product.SearchProductRequestDTO;
+import com.example.cecv_e_commerce.domain.model.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product names and descriptions.
+ * <p>
+ * Every query token matches the indexed terms that contain it, like the {@code LIKE '%kw%'} query
+ * it replaces ("phone" finds "smartphone"); a product must match all tokens. Unlike that query, a
+ * keyword of several words matches the words anywhere in the name or description, in any order,
+ * and matching ignores case and diacritics. Tokens of three or more characters find their terms
+ * through a trigram index over the term dictionary; shorter tokens scan the dictionary.
+ * <p>
+ * Results are ranked by a tf-idf score where name hits weigh more than description hits and
+ * exact term matches more than prefix matches, and prefix matches more than other substrings,
+ * with the requested sort as tie-breaker. Category and price filters are applied to the indexed
+ * fields, so only the requested page is read from the database.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double PREFIX_MATCH_WEIGHT = 0.5;
+    private static final double INFIX_MATCH_WEIGHT = 0.25;
+    private static final int GRAM_LENGTH = 3;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern TOKEN_SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final Map<String, Function<IndexedProduct, Comparable<?>>> SORTABLE_FIELDS = Map.of(
+            "id", IndexedProduct::id,
+            "name", IndexedProduct::name,
+            "price", IndexedProduct::price,
+            "createdAt", IndexedProduct::createdAt,
+            "updatedAt", IndexedProduct::updatedAt);
+
+    private static final Comparator<IndexedProduct> KEYSET_ORDER = Comparator
+            .comparing(IndexedProduct::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(IndexedProduct::id, Comparator.reverseOrder());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Integer, IndexedProduct> documents = new HashMap<>();
+    private NavigableMap<String, Map<Integer, TermFrequency>> postings = new TreeMap<>();
+    private Map<String, Set<String>> termsByGram = new HashMap<>();
+    private volatile boolean ready;
+    private volatile LocalDateTime lastUpdatedAt;
+
+    public record SearchHits(List<Integer> productIds, long totalElements) {
+    }
+
+    /**
+     * Searches the index, or returns empty when the query cannot be answered from it (index not
+     * built yet, keyword without searchable characters, or a sort property that is not indexed).
+     */
+    public Optional<SearchHits> search(SearchProductRequestDTO criteria, Pageable pageable) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(criteria.getKeyword())));
+        if (!ready || tokens.isEmpty()) {
+            return Optional.empty();
+        }
+        Comparator<IndexedProduct> sortOrder = toComparator(pageable.getSort());
+        if (sortOrder == null) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = scoreAll(tokens);
+            List<IndexedProduct> matches = filter(scores.keySet(), criteria);
+            matches.sort(Comparator.<IndexedProduct>comparingDouble(p -> scores.get(p.id())).reversed()
+                    .thenComparing(sortOrder)
+                    .thenComparing(IndexedProduct::id));
+
+            int from = (int) Math.min(pageable.getOffset(), matches.size());
+            int to = Math.min(from + pageable.getPageSize(), matches.size());
+            List<Integer> pageIds = matches.subList(from, to).stream().map(IndexedProduct::id).toList();
+            return Optional.of(new SearchHits(pageIds, matches.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keyset variant of {@link #search}: returns up to {@code limit} matching product ids ordered by
+     * {@code (createdAt, id)} descending, strictly after the given position when one is provided.
+     */
+    public Optional<List<Integer>> searchAfter(SearchProductRequestDTO criteria, LocalDateTime createdAt,
+                                               Integer id, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(criteria.getKeyword())));
+        if (!ready || tokens.isEmpty()) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<IndexedProduct> matches = filter(scoreAll(tokens).keySet(), criteria);
+            return Optional.of(matches.stream()
+                    .filter(p -> createdAt == null || isBefore(p, createdAt, id))
+                    .sorted(KEYSET_ORDER)
+                    .limit(limit)
+                    .map(IndexedProduct::id)
+                    .toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index with the given products and marks it ready for queries.
+     */
+    public void rebuild(Collection<Product> products) {
+        Map<Integer, IndexedProduct> newDocuments = new HashMap<>();
+        NavigableMap<String, Map<Integer, TermFrequency>> newPostings = new TreeMap<>();
+        Map<String, Set<String>> newTermsByGram = new HashMap<>();
+        LocalDateTime newest = null;
+        for (Product product : products) {
+            addDocument(product, newDocuments, newPostings, newTermsByGram);
+            newest = latest(newest, product.getUpdatedAt());
+        }
+
+        lock.writeLock().lock();
+        try {
+            documents = newDocuments;
+            postings = newPostings;
+            termsByGram = newTermsByGram;
+            lastUpdatedAt = newest;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            for (Product product : products) {
+                removeDocument(product.getId());
+                addDocument(product, documents, postings, termsByGram);
+                lastUpdatedAt = latest(lastUpdatedAt, product.getUpdatedAt());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public LocalDateTime getLastUpdatedAt() {
+        return lastUpdatedAt;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (!StringUtils.hasText(text)) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD);
+        normalized = COMBINING_MARKS.matcher(normalized).replaceAll("").replace('đ', 'd');
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private Map<Integer, Double> scoreAll(List<String> tokens) {
+        Map<Integer, Double> scores = null;
+        for (String token : tokens) {
+            Map<Integer, Double> tokenScores = scoreToken(token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((productId, score) -> score + tokenScores.get(productId));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private List<IndexedProduct> filter(Collection<Integer> productIds, SearchProductRequestDTO criteria) {
+        List<IndexedProduct> matches = new ArrayList<>();
+        for (Integer productId : productIds) {
+            IndexedProduct product = documents.get(productId);
+            if (matchesFilters(product, criteria)) {
+                matches.add(product);
+            }
+        }
+        return matches;
+    }
+
+    private static boolean isBefore(IndexedProduct product, LocalDateTime createdAt, Integer id) {
+        if (product.createdAt() == null) {
+            return false;
+        }
+        int byCreatedAt = product.createdAt().compareTo(createdAt);
+        return byCreatedAt < 0 || (byCreatedAt == 0 && product.id() < id);
+    }
+
+    private Map<Integer, Double> scoreToken(String token) {
+        Map<Integer, Double> tokenScores = new HashMap<>();
+        int documentCount = documents.size();
+        for (String term : matchingTerms(token)) {
+            Map<Integer, TermFrequency> termPostings = postings.get(term);
+            double idf = Math.log(1.0 + (double) documentCount / termPostings.size());
+            double matchWeight = term.equals(token) ? 1.0
+                    : term.startsWith(token) ? PREFIX_MATCH_WEIGHT : INFIX_MATCH_WEIGHT;
+            termPostings.forEach((productId, frequency) -> {
+                double score = (NAME_WEIGHT * frequency.name() + DESCRIPTION_WEIGHT * frequency.description())
+                        * idf * matchWeight;
+                tokenScores.merge(productId, score, Math::max);
+            });
+        }
+        return tokenScores;
+    }
+
+    private Collection<String> matchingTerms(String token) {
+        if (token.length() < GRAM_LENGTH) {
+            return postings.keySet().stream().filter(term -> term.contains(token)).toList();
+        }
+        // Every matching term holds all of the token's trigrams; check the rarest one's terms.
+        Set<String> candidates = null;
+        for (String gram : grams(token)) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms == null) {
+                return List.of();
+            }
+            if (candidates == null || terms.size() < candidates.size()) {
+                candidates = terms;
+            }
+        }
+        return candidates.stream().filter(term -> term.contains(token)).toList();
+    }
+
+    private static Set<String> grams(String term) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private boolean matchesFilters(IndexedProduct product, SearchProductRequestDTO criteria) {
+        if (criteria.getCategoryId() != null && !criteria.getCategoryId().equals(product.categoryId())) {
+            return false;
+        }
+        if (criteria.getMinPrice() != null
+                && (product.price() == null || product.price().compareTo(criteria.getMinPrice()) < 0)) {
+            return false;
+        }
+        return criteria.getMaxPrice() == null
+                || (product.price() != null && product.price().compareTo(criteria.getMaxPrice()) <= 0);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<IndexedProduct> toComparator(Sort sort) {
+        Comparator<IndexedProduct> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Function<IndexedProduct, Comparable<?>> field = SORTABLE_FIELDS.get(order.getProperty());
+            if (field == null) {
+                return null;
+            }
+            Comparator<IndexedProduct> byField = (a, b) -> {
+                Comparable left = field.apply(a);
+                Comparable right = field.apply(b);
+                if (left == null || right == null) {
+                    return left == right ? 0 : (left == null ? 1 : -1);
+                }
+                return left.compareTo(right);
+            };
+            comparator = comparator.thenComparing(order.isDescending() ? byField.reversed() : byField);
+        }
+        return comparator;
+    }
+
+    private void addDocument(Product product, Map<Integer, IndexedProduct> targetDocuments,
+                             NavigableMap<String, Map<Integer, TermFrequency>> targetPostings,
+                             Map<String, Set<String>> targetTermsByGram) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        for (String token : tokenize(product.getName())) {
+            frequencies.computeIfAbsent(token, t -> new int[2])[0]++;
+        }
+        for (String token : tokenize(product.getDescription())) {
+            frequencies.computeIfAbsent(token, t -> new int[2])[1]++;
+        }
+        frequencies.forEach((term, counts) -> targetPostings
+                .computeIfAbsent(term, t -> {
+                    grams(t).forEach(gram -> targetTermsByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(t));
+                    return new HashMap<>();
+                })
+                .put(product.getId(), new TermFrequency(counts[0], counts[1])));
+
+        Integer categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+        targetDocuments.put(product.getId(), new IndexedProduct(product.getId(), product.getName(), categoryId,
+                product.getPrice(), product.getCreatedAt(), product.getUpdatedAt(),
+                Set.copyOf(frequencies.keySet())));
+    }
+
+    private void removeDocument(Integer productId) {
+        IndexedProduct existing = documents.remove(productId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms()) {
+            Map<Integer, TermFrequency> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(productId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                    removeGrams(term);
+                }
+            }
+        }
+    }
+
+    private void removeGrams(String term) {
+        for (String gram : grams(term)) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    termsByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static LocalDateTime latest(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    private record IndexedProduct(Integer id, String name, Integer categoryId, BigDecimal price,
+                                  LocalDateTime createdAt, LocalDateTime updatedAt, Set<String> terms) {
+    }
+
+    private record TermFrequency(int name, int description) {
+    }
+}
@@ -1,19 +1,21 @@
 package com.example.cecv_e_commerce.service.impl;
 
+import com.example.cecv_e_commerce.domain.dto.CursorPageDTO;
 import com.example.cecv_e_commerce.domain.dto.product.ProductBriefDTO;
 import com.example.cecv_e_commerce.domain.dto.product.ProductDetailDTO;
-import com.example.cecv_e_commerce.domain.dto.category.CategoryDTO;
 import com.example.cecv_e_commerce.domain.dto.product.SearchProductRequestDTO;
 import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
+import com.example.cecv_e_commerce.mapper.ProductMapper;
 import com.example.cecv_e_commerce.domain.model.Category;
 import com.example.cecv_e_commerce.domain.model.Product;
 import com.example.cecv_e_commerce.repository.ProductRepository;
 import com.example.cecv_e_commerce.service.ProductService;
+import com.example.cecv_e_commerce.service.StockShardService;
+import com.example.cecv_e_commerce.util.KeysetCursor;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -26,6 +28,10 @@ import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,31 +41,100 @@ public class ProductServiceImpl implements ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
     private final ProductRepository productRepository;
-    private final ModelMapper modelMapper;
+    private final ProductMapper productMapper;
+    private final ProductCatalogCache productCatalogCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final StockShardService stockShardService;
 
     @Override
     public Page<ProductBriefDTO> getFeaturedProducts(Pageable pageable) {
         logger.debug("Fetching featured products with pageable: {}", pageable);
-        Page<Product> productPage = productRepository.findByFeaturedTrue(pageable);
-        List<ProductBriefDTO> dtos = productPage.getContent().stream()
-                .map(this::mapToBriefDTO)
-                .collect(Collectors.toList());
-        return new PageImpl<>(dtos, pageable, productPage.getTotalElements());
+        return productCatalogCache.getFeatured(pageable, () -> {
+            Page<Product> productPage = productRepository.findByFeaturedTrue(pageable);
+            List<ProductBriefDTO> dtos = productPage.getContent().stream()
+                    .map(this::mapToBriefDTO)
+                    .collect(Collectors.toList());
+            return new PageImpl<>(dtos, pageable, productPage.getTotalElements());
+        });
     }
 
     @Override
     public ProductDetailDTO getProductDetails(Integer productId) {
         logger.debug("Fetching product details for id: {}", productId);
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
-        return mapToDetailDTO(product);
+        return productCatalogCache.getDetails(productId, id -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+            return mapToDetailDTO(product);
+        });
     }
 
     @Override
     public Page<ProductBriefDTO> searchProducts(SearchProductRequestDTO criteria, Pageable pageable) {
         logger.debug("Searching products with criteria - keyword: '{}', categoryId: {}, minPrice: {}, maxPrice: {}, pageable: {}",
                 criteria.getKeyword(), criteria.getCategoryId(), criteria.getMinPrice(), criteria.getMaxPrice(), pageable);
+        if (StringUtils.hasText(criteria.getKeyword())) {
+            Optional<ProductSearchIndex.SearchHits> hits = productSearchIndex.search(criteria, pageable);
+            if (hits.isPresent()) {
+                logger.debug("Found {} products matching criteria in search index.", hits.get().totalElements());
+                return loadSearchHits(hits.get(), pageable);
+            }
+        }
+        Page<Product> productPage = productRepository.findAll(buildSearchSpecification(criteria), pageable);
+        logger.debug("Found {} products matching criteria.", productPage.getTotalElements());
+        List<ProductBriefDTO> dtos = productPage.getContent().stream()
+                .map(this::mapToBriefDTO)
+                .collect(Collectors.toList());
+        return new PageImpl<>(dtos, pageable, productPage.getTotalElements());
+    }
+
+    @Override
+    public CursorPageDTO<ProductBriefDTO> getFeaturedProducts(String cursor, int size) {
+        logger.debug("Fetching featured products after cursor: {}, size: {}", cursor, size);
         Specification<Product> spec = (root, query, criteriaBuilder) -> {
+            root.fetch("category", JoinType.LEFT);
+            return criteriaBuilder.isTrue(root.get("featured"));
+        };
+        return scroll(spec, KeysetCursor.decode(cursor), size);
+    }
+
+    @Override
+    public CursorPageDTO<ProductBriefDTO> searchProducts(SearchProductRequestDTO criteria, String cursor, int size) {
+        logger.debug("Searching products with criteria - keyword: '{}', categoryId: {}, minPrice: {}, maxPrice: {}, cursor: {}, size: {}",
+                criteria.getKeyword(), criteria.getCategoryId(), criteria.getMinPrice(), criteria.getMaxPrice(), cursor, size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        if (StringUtils.hasText(criteria.getKeyword())) {
+            Optional<List<Integer>> ids = productSearchIndex.searchAfter(criteria,
+                    after != null ? after.createdAt() : null, after != null ? after.id() : null, size + 1);
+            if (ids.isPresent()) {
+                return toCursorPage(loadInOrder(ids.get()), size);
+            }
+        }
+        return scroll(buildSearchSpecification(criteria), after, size);
+    }
+
+    private CursorPageDTO<ProductBriefDTO> scroll(Specification<Product> spec, KeysetCursor after, int size) {
+        // One extra row tells whether another page exists without running a count query.
+        List<Product> products = productRepository.findNextByCreatedAtDesc(spec,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null, size + 1);
+        return toCursorPage(products, size);
+    }
+
+    private CursorPageDTO<ProductBriefDTO> toCursorPage(List<Product> products, int size) {
+        boolean hasNext = products.size() > size;
+        List<Product> content = hasNext ? products.subList(0, size) : products;
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<ProductBriefDTO> dtos = content.stream()
+                .map(this::mapToBriefDTO)
+                .collect(Collectors.toList());
+        return new CursorPageDTO<>(dtos, dtos.size(), hasNext, nextCursor);
+    }
+
+    private Specification<Product> buildSearchSpecification(SearchProductRequestDTO criteria) {
+        return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             if (query.getResultType() != Long.class && query.getResultType() != long.class) {
@@ -87,33 +162,32 @@ public class ProductServiceImpl implements ProductService {
             }
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
-        Page<Product> productPage = productRepository.findAll(spec, pageable);
-        logger.debug("Found {} products matching criteria.", productPage.getTotalElements());
-        List<ProductBriefDTO> dtos = productPage.getContent().stream()
+    }
+
+    private Page<ProductBriefDTO> loadSearchHits(ProductSearchIndex.SearchHits hits, Pageable pageable) {
+        List<ProductBriefDTO> dtos = loadInOrder(hits.productIds()).stream()
                 .map(this::mapToBriefDTO)
                 .collect(Collectors.toList());
-        return new PageImpl<>(dtos, pageable, productPage.getTotalElements());
+        return new PageImpl<>(dtos, pageable, hits.totalElements());
+    }
+
+    private List<Product> loadInOrder(List<Integer> productIds) {
+        Map<Integer, Product> productsById = productRepository.findByIdIn(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        // Keep the index order; products deleted since the last refresh are skipped.
+        return productIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     private ProductBriefDTO mapToBriefDTO(Product product) {
-        ProductBriefDTO dto = modelMapper.map(product, ProductBriefDTO.class);
-        if (product.getCategory() != null) {
-            CategoryDTO categoryDTO = modelMapper.map(product.getCategory(), CategoryDTO.class);
-            dto.setCategory(categoryDTO);
-        } else {
-            dto.setCategory(null);
-        }
-        return dto;
+        return productMapper.toBriefDTO(product);
     }
 
     private ProductDetailDTO mapToDetailDTO(Product product) {
-        ProductDetailDTO dto = modelMapper.map(product, ProductDetailDTO.class);
-        if (product.getCategory() != null) {
-            CategoryDTO categoryDTO = modelMapper.map(product.getCategory(), CategoryDTO.class);
-            dto.setCategory(categoryDTO);
-        } else {
-            dto.setCategory(null);
-        }
+        ProductDetailDTO dto = productMapper.toDetailDTO(product);
+        dto.setQuantity(stockShardService.availableQuantity(product));
         return dto;
     }
 }
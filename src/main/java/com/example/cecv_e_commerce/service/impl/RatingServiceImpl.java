@@ -7,12 +7,12 @@ import com.example.cecv_e_commerce.domain.model.Rating;
 import com.example.cecv_e_commerce.domain.model.User;
 import com.example.cecv_e_commerce.exception.BadRequestException;
 import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
+import com.example.cecv_e_commerce.mapper.RatingMapper;
 import com.example.cecv_e_commerce.repository.RatingRepository;
 import com.example.cecv_e_commerce.repository.ProductRepository;
 import com.example.cecv_e_commerce.repository.UserRepository;
 import com.example.cecv_e_commerce.service.RatingService;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -25,7 +25,7 @@ public class RatingServiceImpl implements RatingService {
     private final RatingRepository ratingRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final RatingMapper ratingMapper;
 
     @Override
     public RatingDTO addRating(Integer userId, Integer productId, Integer rating) {
@@ -55,13 +55,6 @@ public class RatingServiceImpl implements RatingService {
     }
 
     private RatingDTO mapToRatingDTO(Rating rating) {
-        if (rating == null) return null;
-        RatingDTO dto = modelMapper.map(rating, RatingDTO.class);
-        if (rating.getProduct() != null) dto.setProductId(rating.getProduct().getId());
-        if (rating.getUser() != null) {
-            dto.setUserId(rating.getUser().getId());
-            dto.setUsername(rating.getUser().getName());
-        }
-        return dto;
+        return ratingMapper.toDTO(rating);
     }
 }
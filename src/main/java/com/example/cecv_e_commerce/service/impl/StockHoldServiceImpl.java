@@ -0,0 +1,170 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.model.StockHold;
+import com.example.cecv_e_commerce.repository.StockHoldRepository;
+import com.example.cecv_e_commerce.service.StockHoldService;
+import com.example.cecv_e_commerce.service.StockReservationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Holds are rows in {@code stock_holds}, one per user and product. Stock moves between the
+ * product and the hold through {@link StockReservationService#adjustStock}, so holds work the same
+ * for locked, versioned and sharded stock. Hold rows are locked before product rows on checkout,
+ * release and sweep, and the sweeper skips rows locked by a checkout in progress. The sweep
+ * releases each product in its own transaction, so a conflict on one hot product only postpones
+ * that product's holds.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockHoldServiceImpl implements StockHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockHoldServiceImpl.class);
+
+    private final StockHoldRepository stockHoldRepository;
+    private final StockReservationService stockReservationService;
+    private final ProductCatalogCache productCatalogCache;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.stock.holds.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.stock.holds.ttl-ms:900000}")
+    private long ttlMs;
+
+    private Counter expiredCounter;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        expiredCounter = Counter.builder("stock.holds.expired")
+                .description("Stock holds returned to stock after their TTL")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    @Transactional
+    public void add(Integer userId, Integer productId, int quantity) {
+        // The upsert locks the hold row first; a stock shortage below rolls it back.
+        stockHoldRepository.addQuantity(userId, productId, quantity, expiry());
+        stockReservationService.adjustStock(productId, quantity);
+        productCatalogCache.evictProducts(List.of(productId));
+    }
+
+    @Override
+    @Transactional
+    public void set(Integer userId, Integer productId, int quantity) {
+        Optional<StockHold> hold = stockHoldRepository.findByUserIdAndProductIdWithLock(userId, productId);
+        int delta = quantity - hold.map(StockHold::getQuantity).orElse(0);
+        if (delta != 0) {
+            stockReservationService.adjustStock(productId, delta);
+            productCatalogCache.evictProducts(List.of(productId));
+        }
+        if (quantity == 0) {
+            hold.ifPresent(stockHoldRepository::delete);
+            return;
+        }
+        StockHold updated = hold.orElseGet(() -> new StockHold(userId, productId));
+        updated.setQuantity(quantity);
+        updated.setExpiresAt(expiry());
+        stockHoldRepository.save(updated);
+    }
+
+    @Override
+    @Transactional
+    public void releaseAll(Integer userId) {
+        List<StockHold> holds = stockHoldRepository.findByUserIdWithLock(userId);
+        release(holds);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Integer, Integer> convert(Integer userId, Map<Integer, Integer> requestedQuantities) {
+        if (!enabled || requestedQuantities.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, Integer> converted = new HashMap<>();
+        for (StockHold hold : stockHoldRepository.findByUserIdAndProductIdInWithLock(userId, requestedQuantities.keySet())) {
+            int used = Math.min(hold.getQuantity(), requestedQuantities.get(hold.getProductId()));
+            converted.put(hold.getProductId(), used);
+            if (used == hold.getQuantity()) {
+                stockHoldRepository.delete(hold);
+            } else {
+                hold.setQuantity(hold.getQuantity() - used);
+            }
+        }
+        return converted;
+    }
+
+    @Override
+    public int releaseExpired(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        // Ascending product id, the same order checkout locks products in.
+        Map<Integer, List<Integer>> holdIdsByProduct = stockHoldRepository.findExpired(now, PageRequest.of(0, limit))
+                .stream()
+                .collect(Collectors.groupingBy(StockHold::getProductId, TreeMap::new,
+                        Collectors.mapping(StockHold::getId, Collectors.toList())));
+        int released = 0;
+        for (Map.Entry<Integer, List<Integer>> product : holdIdsByProduct.entrySet()) {
+            try {
+                Integer count = transactionTemplate.execute(status -> {
+                    List<StockHold> locked = stockHoldRepository.findExpiredByIdInWithLock(product.getValue(), now);
+                    if (!locked.isEmpty()) {
+                        release(locked);
+                    }
+                    return locked.size();
+                });
+                released += count == null ? 0 : count;
+            } catch (ConcurrencyFailureException e) {
+                logger.debug("Releasing expired holds of product {} conflicted; retrying next run: {}",
+                        product.getKey(), e.getMessage());
+            }
+        }
+        if (released > 0) {
+            expiredCounter.increment(released);
+            logger.debug("Released {} expired stock hold(s).", released);
+        }
+        return released;
+    }
+
+    private void release(List<StockHold> holds) {
+        // Ascending product id, the same order checkout locks products in.
+        Map<Integer, Integer> quantities = new TreeMap<>();
+        holds.forEach(hold -> quantities.merge(hold.getProductId(), hold.getQuantity(), Integer::sum));
+        quantities.forEach((productId, quantity) -> stockReservationService.adjustStock(productId, -quantity));
+        stockHoldRepository.deleteAllInBatch(holds);
+        productCatalogCache.evictProducts(quantities.keySet());
+    }
+
+    private LocalDateTime expiry() {
+        return LocalDateTime.now().plusNanos(ttlMs * 1_000_000);
+    }
+}
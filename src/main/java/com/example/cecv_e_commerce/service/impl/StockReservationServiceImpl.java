@@ -0,0 +1,179 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.model.Product;
+import com.example.cecv_e_commerce.exception.BadRequestException;
+import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
+import com.example.cecv_e_commerce.repository.ProductRepository;
+import com.example.cecv_e_commerce.service.StockReservationService;
+import com.example.cecv_e_commerce.service.StockShardService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationServiceImpl.class);
+
+    private static final String PESSIMISTIC = "pessimistic";
+    private static final String OPTIMISTIC = "optimistic";
+
+    private final ProductRepository productRepository;
+    private final StockShardService stockShardService;
+
+    @Value("${app.stock.locking-mode:" + PESSIMISTIC + "}")
+    private String lockingMode = PESSIMISTIC;
+
+    @PostConstruct
+    public void init() {
+        if (!PESSIMISTIC.equalsIgnoreCase(lockingMode) && !OPTIMISTIC.equalsIgnoreCase(lockingMode)) {
+            throw new IllegalStateException("app.stock.locking-mode must be 'pessimistic' or 'optimistic', was: " + lockingMode);
+        }
+        logger.info("Stock changes use {} locking.", lockingMode.toLowerCase());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Integer, Product> reserve(Map<Integer, Integer> requestedQuantities) {
+        if (requestedQuantities.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // Ascending id order keeps the lock order identical for every checkout, so two carts
+        // sharing products can only wait on each other, never deadlock. Sharded products are
+        // never row-locked; their stock is taken from one shard row below.
+        List<Integer> productIds = new ArrayList<>(new TreeSet<>(requestedQuantities.keySet()));
+        List<Integer> shardedIds = productRepository.findShardedIds(productIds);
+        List<Integer> rowIds = productIds.stream().filter(id -> !shardedIds.contains(id)).toList();
+        Map<Integer, Product> loaded = new HashMap<>();
+        if (!rowIds.isEmpty()) {
+            (isOptimistic()
+                    ? productRepository.findAllByIdInOrderByIdAsc(rowIds)
+                    : productRepository.findAllByIdInWithLockOrderById(rowIds))
+                    .forEach(product -> loaded.put(product.getId(), product));
+        }
+        if (!shardedIds.isEmpty()) {
+            productRepository.findAllByIdInOrderByIdAsc(shardedIds).forEach(product -> loaded.put(product.getId(), product));
+        }
+        Map<Integer, Product> products = new LinkedHashMap<>();
+        for (Integer productId : productIds) {
+            Product product = loaded.get(productId);
+            if (product == null) {
+                continue;
+            }
+            if (product.getStockShards() > 0 && !shardedIds.contains(productId)) {
+                // Sharded after the check above; the retry takes the sharded path.
+                throw new ObjectOptimisticLockingFailureException(Product.class, productId);
+            }
+            products.put(productId, product);
+        }
+
+        List<Integer> missingIds = productIds.stream()
+                .filter(id -> !products.containsKey(id))
+                .collect(Collectors.toList());
+        if (!missingIds.isEmpty()) {
+            throw new ResourceNotFoundException("Product not found with id(s): " + joinIds(missingIds));
+        }
+
+        Map<Integer, Integer> available = shardedIds.isEmpty()
+                ? products.values().stream().collect(Collectors.toMap(Product::getId, Product::getQuantity))
+                : stockShardService.availableQuantities(products.values());
+        List<String> shortages = new ArrayList<>();
+        for (Product product : products.values()) {
+            int requested = requestedQuantities.get(product.getId());
+            if (available.get(product.getId()) < requested) {
+                shortages.add(shortage(product.getId(), available.get(product.getId()), requested));
+            }
+        }
+        if (!shortages.isEmpty()) {
+            logger.warn("Stock reservation rejected, {} item(s) short: {}", shortages.size(), shortages);
+            throw new BadRequestException("Not enough product quantity in stock for "
+                    + String.join("; ", shortages));
+        }
+
+        // The new quantities are written back as one JDBC batch on flush (see
+        // hibernate.jdbc.batch_size / hibernate.order_updates). Each UPDATE carries the version
+        // read above; in optimistic mode it is flushed here so a concurrent change fails now,
+        // before the order rows are written.
+        List<Product> rowProducts = new ArrayList<>();
+        for (Product product : products.values()) {
+            int requested = requestedQuantities.get(product.getId());
+            if (product.getStockShards() > 0) {
+                if (!stockShardService.take(product, requested)) {
+                    throw new BadRequestException("Not enough product quantity in stock for "
+                            + shortage(product.getId(), stockShardService.availableQuantity(product), requested));
+                }
+            } else {
+                product.setQuantity(product.getQuantity() - requested);
+                rowProducts.add(product);
+            }
+        }
+        if (isOptimistic() && !rowProducts.isEmpty()) {
+            productRepository.saveAllAndFlush(rowProducts);
+        }
+
+        logger.debug("Reserved stock for {} product(s): {}", products.size(), requestedQuantities);
+        return products;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Product adjustStock(Integer productId, int delta) {
+        // In pessimistic mode an unsharded row is locked by the first read: loading it unlocked
+        // first would leave that snapshot in the persistence context, and the locking query would
+        // hand back the same stale instance. Sharded products are not row-locked, as in reserve().
+        boolean lockRow = !isOptimistic() && productRepository.findShardedIds(List.of(productId)).isEmpty();
+        Product product = (lockRow ? productRepository.findByIdWithLock(productId) : productRepository.findById(productId))
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        if (product.getStockShards() > 0) {
+            if (delta > 0 && !stockShardService.take(product, delta)) {
+                throw new BadRequestException("Not enough product quantity in stock. Available: "
+                        + stockShardService.availableQuantity(product));
+            }
+            if (delta < 0) {
+                stockShardService.giveBack(product, -delta);
+            }
+            return product;
+        }
+
+        if (!isOptimistic() && !lockRow) {
+            // Sharding was removed after the check above; lock the row before changing it.
+            product = productRepository.findByIdWithLock(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        }
+        if (product.getQuantity() < delta) {
+            throw new BadRequestException("Not enough product quantity in stock. Available: " + product.getQuantity());
+        }
+        product.setQuantity(product.getQuantity() - delta);
+        productRepository.save(product);
+        return product;
+    }
+
+    private String shortage(Integer productId, int available, int requested) {
+        return "product ID: " + productId + " (Available: " + available + ", Requested: " + requested + ")";
+    }
+
+    private boolean isOptimistic() {
+        return OPTIMISTIC.equalsIgnoreCase(lockingMode);
+    }
+
+    private String joinIds(List<Integer> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.dto.product.ProductStockTotalDTO;
+import com.example.cecv_e_commerce.domain.model.Product;
+import com.example.cecv_e_commerce.domain.model.ProductStockShard;
+import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
+import com.example.cecv_e_commerce.repository.ProductRepository;
+import com.example.cecv_e_commerce.repository.ProductStockShardRepository;
+import com.example.cecv_e_commerce.scheduled.ClusterLock;
+import com.example.cecv_e_commerce.service.StockShardService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decrements go to one shard picked at random among those with enough stock, so up to
+ * {@code stockShards} orders for the same product can hold row locks at once. Only when no single
+ * shard can cover a request are all of the product's shards locked and drained in shard order.
+ * {@code products.quantity} of sharded products is refreshed from the shard totals every
+ * {@code app.stock.shards.sync-interval-ms} for readers that do not go through this service, by
+ * one node at a time and one product per transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockShardServiceImpl implements StockShardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockShardServiceImpl.class);
+
+    private final ProductRepository productRepository;
+    private final ProductStockShardRepository productStockShardRepository;
+    private final ProductCatalogCache productCatalogCache;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public int availableQuantity(Product product) {
+        return availableQuantities(List.of(product)).get(product.getId());
+    }
+
+    @Override
+    public Map<Integer, Integer> availableQuantities(Collection<Product> products) {
+        Map<Integer, Integer> quantities = new HashMap<>();
+        List<Integer> shardedIds = new ArrayList<>();
+        for (Product product : products) {
+            quantities.put(product.getId(), product.getQuantity());
+            if (product.getStockShards() > 0) {
+                shardedIds.add(product.getId());
+                quantities.put(product.getId(), 0);
+            }
+        }
+        if (!shardedIds.isEmpty()) {
+            for (ProductStockTotalDTO total : productStockShardRepository.sumQuantities(shardedIds)) {
+                quantities.put(total.productId(), total.quantity().intValue());
+            }
+        }
+        return quantities;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean take(Product product, int quantity) {
+        Integer productId = product.getId();
+        List<Integer> candidates = productStockShardRepository.findShardNosWithAtLeast(productId, quantity);
+        Collections.shuffle(candidates, ThreadLocalRandom.current());
+        for (Integer shardNo : candidates) {
+            // The candidate list is a snapshot; the conditional UPDATE re-checks the current row.
+            if (productStockShardRepository.takeFromShard(productId, shardNo, quantity) == 1) {
+                return true;
+            }
+        }
+
+        List<ProductStockShard> shards = productStockShardRepository.findByProductIdWithLock(productId);
+        int available = shards.stream().mapToInt(ProductStockShard::getQuantity).sum();
+        if (available < quantity) {
+            return false;
+        }
+        int remaining = quantity;
+        for (ProductStockShard shard : shards) {
+            int taken = Math.min(shard.getQuantity(), remaining);
+            shard.setQuantity(shard.getQuantity() - taken);
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        logger.debug("Took {} of product {} from several shards.", quantity, productId);
+        return true;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void giveBack(Product product, int quantity) {
+        Integer productId = product.getId();
+        int shardNo = ThreadLocalRandom.current().nextInt(product.getStockShards());
+        if (productStockShardRepository.addToShard(productId, shardNo, quantity) == 0) {
+            throw new IllegalStateException("Stock shard " + shardNo + " of product " + productId + " is missing");
+        }
+    }
+
+    @Override
+    @Transactional
+    public void reshard(Integer productId, int shards) {
+        Product product = productRepository.findByIdWithLock(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        List<ProductStockShard> existing = productStockShardRepository.findByProductIdWithLock(productId);
+        int total = product.getStockShards() > 0
+                ? existing.stream().mapToInt(ProductStockShard::getQuantity).sum()
+                : product.getQuantity();
+
+        productStockShardRepository.deleteAllInBatch(existing);
+        List<ProductStockShard> created = new ArrayList<>();
+        for (int shardNo = 0; shardNo < shards; shardNo++) {
+            int quantity = total / shards + (shardNo < total % shards ? 1 : 0);
+            created.add(new ProductStockShard(null, productId, shardNo, quantity));
+        }
+        productStockShardRepository.saveAll(created);
+
+        product.setStockShards(shards);
+        product.setQuantity(total);
+        productCatalogCache.evictProducts(List.of(productId));
+        logger.info("Product {} now keeps its stock of {} in {} shard(s).", productId, total, shards);
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.shards.sync-interval-ms:5000}")
+    @ClusterLock(name = "stock-shard-sync")
+    public void syncProductQuantities() {
+        int updated = 0;
+        // Each product row is locked only for its own UPDATE, not until every product is synced.
+        for (ProductStockTotalDTO total : productStockShardRepository.sumAllQuantities()) {
+            Integer count = transactionTemplate.execute(status ->
+                    productRepository.syncShardedQuantity(total.productId(), total.quantity().intValue()));
+            updated += count == null ? 0 : count;
+        }
+        if (updated > 0) {
+            logger.debug("Synced products.quantity of {} sharded product(s).", updated);
+        }
+    }
+}
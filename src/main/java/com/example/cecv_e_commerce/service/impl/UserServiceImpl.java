@@ -1,11 +1,13 @@
 package com.example.cecv_e_commerce.service.impl;
 
+import com.example.cecv_e_commerce.config.UserPrincipalCache;
+import com.example.cecv_e_commerce.config.UserStatusRegistry;
 import com.example.cecv_e_commerce.domain.dto.user.UserDTO;
 import com.example.cecv_e_commerce.domain.model.User;
 import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
+import com.example.cecv_e_commerce.mapper.UserMapper;
 import com.example.cecv_e_commerce.repository.UserRepository;
 import com.example.cecv_e_commerce.service.UserService;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,7 +31,13 @@ public class UserServiceImpl implements UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private UserMapper userMapper;
+
+    @Autowired
+    private UserStatusRegistry userStatusRegistry;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
 
     @Override
     public Page<UserDTO> getAllUsers(Pageable pageable, String searchTerm, String[] sort) {
@@ -46,7 +54,7 @@ public class UserServiceImpl implements UserService {
             userPage = userRepository.findAll(sortedPageable);
         }
 
-        return userPage.map(user -> modelMapper.map(user, UserDTO.class));
+        return userPage.map(userMapper::toDTO);
     }
 
     @Override
@@ -54,7 +62,7 @@ public class UserServiceImpl implements UserService {
         logger.debug("Fetching user by ID: {}", userId);
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-        return modelMapper.map(user, UserDTO.class);
+        return userMapper.toDTO(user);
     }
 
     @Override
@@ -76,7 +84,9 @@ public class UserServiceImpl implements UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        userStatusRegistry.invalidate(userId);
+        userPrincipalCache.invalidate(userId, updatedUser.getEmail());
         logger.info("User status updated successfully for user ID: {}", userId);
-        return modelMapper.map(updatedUser, UserDTO.class);
+        return userMapper.toDTO(updatedUser);
     }
 }
@@ -0,0 +1,230 @@
+package com.example.cecv_e_commerce.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Small in-process LRU cache with a maximum size and a time-to-live per entry.
+ * <p>
+ * Loaders run outside the internal lock, so a slow load never blocks readers of other keys;
+ * two threads missing the same key at once may both load it, and the last one wins. A load that
+ * overlaps any invalidation is returned to its caller but not cached, so an invalidation can never
+ * be undone by a read that started before it.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Bumped under the lock by every invalidation; guards getOrLoad against caching stale loads.
+    private long generation;
+    private Timer loadTimer;
+
+    public BoundedTtlCache(String name, int maxSize, long ttlMs) {
+        this(name, maxSize, ttlMs, System::nanoTime);
+    }
+
+    BoundedTtlCache(String name, int maxSize, long ttlMs, LongSupplier ticker) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key) {
+        long now = ticker.getAsLong();
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - now > 0) {
+                hits.increment();
+                return entry.value();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        return null;
+    }
+
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        long loadGeneration = generation();
+        if (loadTimer != null) {
+            value = loadTimer.record(() -> loader.apply(key));
+        } else {
+            value = loader.apply(key);
+        }
+        if (value != null) {
+            putIfGeneration(key, value, loadGeneration);
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        long expiresAt = ticker.getAsLong() + ttlNanos;
+        lock.lock();
+        try {
+            entries.put(key, new Entry<>(value, expiresAt));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caches {@code value} only if nothing was invalidated since {@link #generation()} returned
+     * {@code expectedGeneration}; for loads that fill several caches from one read.
+     */
+    public void putIfGeneration(K key, V value, long expectedGeneration) {
+        long expiresAt = ticker.getAsLong() + ttlNanos;
+        lock.lock();
+        try {
+            if (generation == expectedGeneration) {
+                entries.put(key, new Entry<>(value, expiresAt));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long generation() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            generation++;
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateIf(Predicate<? super V> predicate) {
+        lock.lock();
+        try {
+            generation++;
+            Iterator<Entry<V>> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (predicate.test(iterator.next().value())) {
+                    iterator.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation++;
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Registers size, hit, miss, eviction and load-latency meters following Micrometer's cache
+     * naming, plus a precomputed hit ratio gauge.
+     */
+    public BoundedTtlCache<K, V> bindTo(MeterRegistry registry) {
+        Gauge.builder("cache.size", this, BoundedTtlCache::size)
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, BoundedTtlCache::hitCount)
+                .tag("cache", name).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, BoundedTtlCache::missCount)
+                .tag("cache", name).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", this, BoundedTtlCache::evictionCount)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("cache.hit.ratio", this, BoundedTtlCache::hitRatio)
+                .tag("cache", name)
+                .register(registry);
+        this.loadTimer = Timer.builder("cache.load")
+                .description("Time spent loading values on a cache miss")
+                .tag("cache", name)
+                .register(registry);
+        return this;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
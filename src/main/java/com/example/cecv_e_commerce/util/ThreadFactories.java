@@ -0,0 +1,19 @@
+package com.example.cecv_e_commerce.util;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the application's own executors, following {@code spring.threads.virtual.enabled}
+ * like the request, {@code @Async} and {@code @Scheduled} threads Spring Boot creates.
+ */
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    public static ThreadFactory named(String prefix, boolean virtual) {
+        return virtual ? Thread.ofVirtual().name(prefix, 1).factory() : new CustomizableThreadFactory(prefix);
+    }
+}
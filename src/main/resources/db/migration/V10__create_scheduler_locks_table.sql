@@ -0,0 +1,7 @@
+-- SCHEDULER LOCKS (leases that keep a @ClusterLock job on one node at a time)
+CREATE TABLE scheduler_locks (
+    name VARCHAR(64) NOT NULL PRIMARY KEY,
+    locked_by VARCHAR(255) NOT NULL,
+    locked_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    lock_until TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
@@ -0,0 +1,12 @@
+-- PRODUCT STOCK SHARDS (stock of a product with stock_shards > 0 is split across these rows;
+-- products.quantity then holds a periodically synced copy of their sum)
+ALTER TABLE products ADD COLUMN stock_shards INT NOT NULL DEFAULT 0;
+
+CREATE TABLE product_stock_shards (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    product_id INT NOT NULL,
+    shard_no INT NOT NULL,
+    quantity INT NOT NULL,
+    UNIQUE KEY uk_product_stock_shards_product_shard (product_id, shard_no),
+    FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE
+);
@@ -0,0 +1,14 @@
+-- STOCK HOLDS (stock set aside for a user's cart until expires_at, see app.stock.holds.enabled;
+-- the held quantity is already taken from the product's stock)
+CREATE TABLE stock_holds (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
+    product_id INT NOT NULL,
+    quantity INT NOT NULL,
+    expires_at DATETIME(3) NOT NULL,
+    created_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    UNIQUE KEY uk_stock_holds_user_product (user_id, product_id),
+    KEY idx_stock_holds_expires_at (expires_at),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE
+);
@@ -0,0 +1,3 @@
+-- Rollups are only kept for the statuses revenue stats read; pending and cancelled rows were
+-- never queried and made every new order lock the (PENDING, today) row.
+DELETE FROM daily_revenue_rollups WHERE status NOT IN ('CONFIRMED', 'SHIPPED', 'DELIVERED');
@@ -0,0 +1,34 @@
+-- Secondary indexes for the repository query paths
+
+-- CartRepository.findByUserId
+CREATE INDEX idx_carts_user_id ON carts (user_id);
+
+-- Cart item lookups by cart / product
+CREATE INDEX idx_cart_items_cart_product ON cart_items (cart_id, product_id);
+
+-- CommentRepository.findByProductId (ordered by created_at) and existsByUserIdAndProductId
+CREATE INDEX idx_comments_product_created ON comments (product_id, created_at);
+CREATE INDEX idx_comments_user_product ON comments (user_id, product_id);
+
+-- RatingRepository.existsByUserIdAndProductId
+CREATE INDEX idx_ratings_user_product ON ratings (user_id, product_id);
+CREATE INDEX idx_ratings_product ON ratings (product_id);
+
+-- UserRepository.findByIsActiveFalseAndActivationDeadlineBefore
+CREATE INDEX idx_users_active_deadline ON users (is_active, activation_deadline);
+
+-- Revenue and best-seller statistics filter orders by status and creation date
+CREATE INDEX idx_orders_status_created ON orders (status, created_at);
+CREATE INDEX idx_orders_user ON orders (user_id);
+
+-- Best-seller joins from orders to their items (covering product_id and quantity)
+CREATE INDEX idx_order_items_order_product_qty ON order_items (order_id, product_id, quantity);
+CREATE INDEX idx_order_items_product ON order_items (product_id);
+
+CREATE INDEX idx_order_shippings_order ON order_shippings (order_id);
+
+-- Featured listing, keyset pagination on (created_at, id), category filter and search index refresh
+CREATE INDEX idx_products_featured_created ON products (featured, created_at, id);
+CREATE INDEX idx_products_created ON products (created_at, id);
+CREATE INDEX idx_products_category ON products (category_id);
+CREATE INDEX idx_products_updated ON products (updated_at);
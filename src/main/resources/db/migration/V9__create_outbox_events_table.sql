@@ -0,0 +1,16 @@
+-- OUTBOX EVENTS (written in the business transaction, drained by the outbox dispatcher)
+CREATE TABLE outbox_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    dedup_key VARCHAR(191) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP NULL,
+    CONSTRAINT uk_outbox_events_dedup_key UNIQUE (dedup_key)
+);
+
+CREATE INDEX idx_outbox_events_status_available ON outbox_events (status, available_at, id);
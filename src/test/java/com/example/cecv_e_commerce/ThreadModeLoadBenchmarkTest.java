@@ -0,0 +1,177 @@
+package com.example.cecv_e_commerce;
+
+import com.example.cecv_e_commerce.config.JwtTokenProvider;
+import com.example.cecv_e_commerce.domain.dto.order.OrderItemRequestCreateDTO;
+import com.example.cecv_e_commerce.domain.dto.order.OrderRequestDTO;
+import com.example.cecv_e_commerce.domain.dto.order.OrderShippingRequestCreateDTO;
+import com.example.cecv_e_commerce.domain.model.Product;
+import com.example.cecv_e_commerce.domain.model.User;
+import com.example.cecv_e_commerce.repository.ProductRepository;
+import com.example.cecv_e_commerce.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Highest concurrency at which browse (product search) and checkout (order creation) stay within
+ * the latency and error budget, for the thread mode the application starts in. Needs the
+ * Flyway-migrated MySQL test database and leaves its orders there; run it once per mode and
+ * compare:
+ * <pre>
+ * mvn test -Dtest=ThreadModeLoadBenchmarkTest -Dload.benchmark=true -Dspring.threads.virtual.enabled=false
+ * mvn test -Dtest=ThreadModeLoadBenchmarkTest -Dload.benchmark=true -Dspring.threads.virtual.enabled=true
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.hibernate.ddl-auto=none")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "load.benchmark", matches = "true")
+class ThreadModeLoadBenchmarkTest {
+
+    private static final int[] CONCURRENCY_LEVELS = {50, 100, 200, 400, 800, 1600};
+    private static final Duration LEVEL_DURATION = Duration.ofSeconds(10);
+    private static final Duration P99_BUDGET = Duration.ofMillis(500);
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void maxSustainableConcurrency() throws Exception {
+        HttpRequest browse = HttpRequest.newBuilder(uri("/api/v1/products?page=0&size=20")).GET().build();
+        HttpRequest checkout = checkoutRequest();
+
+        int browseLevel = maxSustainableConcurrency("browse", browse);
+        int checkoutLevel = maxSustainableConcurrency("checkout", checkout);
+
+        System.out.printf("%s threads: browse sustains %d concurrent clients, checkout %d%n",
+                virtualThreads ? "virtual" : "platform", browseLevel, checkoutLevel);
+        assertTrue(browseLevel > 0, "browse did not sustain the lowest concurrency level");
+        assertTrue(checkoutLevel > 0, "checkout did not sustain the lowest concurrency level");
+    }
+
+    private int maxSustainableConcurrency(String name, HttpRequest request) throws InterruptedException {
+        int sustained = 0;
+        for (int concurrency : CONCURRENCY_LEVELS) {
+            LevelResult result = runLevel(concurrency, request);
+            System.out.printf("%s @%d: %.0f req/s, p99 %d ms, errors %.2f%%%n", name, concurrency,
+                    result.throughput(), result.p99().toMillis(), result.errorRate() * 100);
+            if (result.errorRate() > MAX_ERROR_RATE || result.p99().compareTo(P99_BUDGET) > 0) {
+                break;
+            }
+            sustained = concurrency;
+        }
+        return sustained;
+    }
+
+    private LevelResult runLevel(int concurrency, HttpRequest request) throws InterruptedException {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        long deadline = start + LEVEL_DURATION.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latencies.add(System.nanoTime() - sent);
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p99 = sorted.isEmpty() ? Long.MAX_VALUE : sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        double errorRate = sorted.isEmpty() ? 1.0 : (double) errors.get() / sorted.size();
+        return new LevelResult(sorted.size() / seconds, Duration.ofNanos(p99), errorRate);
+    }
+
+    private HttpRequest checkoutRequest() throws IOException {
+        User user = new User();
+        user.setName("Load Benchmark");
+        user.setEmail("load-benchmark-" + UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setActive(true);
+        userRepository.save(user);
+        String token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        Product product = new Product();
+        product.setName("Load benchmark product");
+        product.setPrice(BigDecimal.TEN);
+        product.setQuantity(Integer.MAX_VALUE);
+        productRepository.save(product);
+
+        OrderRequestDTO order = new OrderRequestDTO(
+                List.of(new OrderItemRequestCreateDTO(product.getId(), 1, 10.0, null)),
+                new OrderShippingRequestCreateDTO("Load Benchmark", "0900000000", "1 Benchmark Street",
+                        "Floor 1", "Hanoi", "10000", "VN", "STANDARD", 2.0));
+        return HttpRequest.newBuilder(uri("/api/v1/orders"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(order)))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private record LevelResult(double throughput, Duration p99, double errorRate) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.cecv_e_commerce.cart;
+
+import com.example.cecv_e_commerce.domain.dto.cart.CartItemRequestCreateDTO;
+import com.example.cecv_e_commerce.domain.dto.cart.CartItemRequestUpdateDTO;
+import com.example.cecv_e_commerce.domain.model.Product;
+import com.example.cecv_e_commerce.domain.model.User;
+import com.example.cecv_e_commerce.repository.CartRepository;
+import com.example.cecv_e_commerce.repository.ProductRepository;
+import com.example.cecv_e_commerce.repository.UserRepository;
+import com.example.cecv_e_commerce.service.CartService;
+import com.example.cecv_e_commerce.utils.QueryCountInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Asserts that the cart operations issue the same number of SQL statements whatever the number
+ * of lines in the cart.
+ * <p>
+ * Needs the MySQL test database migrated by Flyway, so it is opt-in:
+ * {@code mvn test -Ddb.querycount=true}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "app.cart.store.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.cecv_e_commerce.utils.QueryCountInspector"})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "db.querycount", matches = "true")
+class CartQueryCountTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Product> products = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        for (User user : users) {
+            cartRepository.findWithItemsByUserId(user.getId()).ifPresent(cartRepository::delete);
+        }
+        userRepository.deleteAll(users);
+        productRepository.deleteAll(products);
+    }
+
+    @Test
+    void getCart_ShouldIssueSameStatementsForAnyCartSize() {
+        signInWithCartOf(1);
+        int small = QueryCountInspector.count(cartService::getCart);
+
+        signInWithCartOf(6);
+        int large = QueryCountInspector.count(cartService::getCart);
+
+        assertEquals(small, large);
+        assertTrue(small <= 2, () -> "getCart issued " + small + " statements");
+    }
+
+    @Test
+    void cartUpdates_ShouldIssueSameStatementsForAnyCartSize() {
+        List<Integer> small = countUpdates(signInWithCartOf(1));
+        List<Integer> large = countUpdates(signInWithCartOf(6));
+
+        assertEquals(small, large);
+    }
+
+    private List<Integer> countUpdates(Product first) {
+        Product extra = product();
+        CartItemRequestUpdateDTO update = new CartItemRequestUpdateDTO();
+        update.setQuantity(2);
+        return List.of(
+                QueryCountInspector.count(() -> cartService.addToCart(addRequest(extra))),
+                QueryCountInspector.count(() -> cartService.updateCartItem(first.getId(), update)),
+                QueryCountInspector.count(() -> cartService.removeFromCart(extra.getId())));
+    }
+
+    private Product signInWithCartOf(int lines) {
+        User user = new User();
+        user.setName("Query Count");
+        user.setEmail("query-count-" + UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        users.add(userRepository.save(user));
+        cartService.createCart(user);
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities())));
+
+        Product first = null;
+        for (int i = 0; i < lines; i++) {
+            Product product = product();
+            cartService.addToCart(addRequest(product));
+            first = first == null ? product : first;
+        }
+        return first;
+    }
+
+    private Product product() {
+        Product product = new Product();
+        product.setName("Query count product");
+        product.setPrice(BigDecimal.TEN);
+        product.setQuantity(100);
+        Product saved = productRepository.save(product);
+        products.add(saved);
+        return saved;
+    }
+
+    private static CartItemRequestCreateDTO addRequest(Product product) {
+        CartItemRequestCreateDTO request = new CartItemRequestCreateDTO();
+        request.setProductId(product.getId());
+        request.setQuantity(1);
+        return request;
+    }
+}
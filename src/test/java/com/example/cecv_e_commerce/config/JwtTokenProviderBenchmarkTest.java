@@ -0,0 +1,91 @@
+package com.example.cecv_e_commerce.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPU time per authenticated request spent on the bearer token, before and after the parser was
+ * built once. "Per call" is the old path: decode the secret and build a key and parser in both
+ * validateToken and getUsernameFromJWT, verifying the signature twice.
+ * Run with {@code mvn test -Dtest=JwtTokenProviderBenchmarkTest -Djwt.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "jwt.benchmark", matches = "true")
+class JwtTokenProviderBenchmarkTest {
+
+    private static final int WARMUP_REQUESTS = 20_000;
+    private static final int MEASURED_REQUESTS = 100_000;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Test
+    void cpuPerRequest() {
+        byte[] keyBytes = new byte[64];
+        new SecureRandom().nextBytes(keyBytes);
+        String secret = Encoders.BASE64.encode(keyBytes);
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", secret);
+        provider.init();
+        String token = token(Keys.hmacShaKeyFor(keyBytes));
+
+        double perCall = cpuNanosPerRequest(token, t -> {
+            Claims validated = parseWithNewParser(secret, t);
+            return validated.getSubject().length() + parseWithNewParser(secret, t).getSubject().length();
+        });
+        double once = cpuNanosPerRequest(token,
+                t -> provider.parseVerifiedClaims(t).orElseThrow().getSubject().length());
+
+        System.out.printf("JWT per request: per-call parsers %.1f us CPU, shared parser %.1f us CPU (x%.1f)%n",
+                perCall / 1000, once / 1000, perCall / once);
+        assertTrue(once < perCall);
+    }
+
+    private static Claims parseWithNewParser(String secret, String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+
+    private double cpuNanosPerRequest(String token, ToIntFunction<String> request) {
+        long checksum = run(token, request, WARMUP_REQUESTS);
+        long start = threads.getCurrentThreadCpuTime();
+        checksum += run(token, request, MEASURED_REQUESTS);
+        long elapsed = threads.getCurrentThreadCpuTime() - start;
+        assertTrue(checksum > 0);
+        return (double) elapsed / MEASURED_REQUESTS;
+    }
+
+    private long run(String token, ToIntFunction<String> request, int requests) {
+        long checksum = 0;
+        for (int i = 0; i < requests; i++) {
+            checksum += request.applyAsInt(token);
+        }
+        return checksum;
+    }
+
+    private static String token(SecretKey key) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setSubject("benchmark@example.com")
+                .claim("roles", "ROLE_USER")
+                .claim("userId", 1)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + 3_600_000))
+                .signWith(key, SignatureAlgorithm.HS512)
+                .compact();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.cecv_e_commerce.config;
+
+import com.example.cecv_e_commerce.domain.enums.Role;
+import com.example.cecv_e_commerce.domain.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private final JwtTokenProvider tokenProvider = new JwtTokenProvider();
+
+    @Test
+    void getPrincipalFromClaims_ShouldBuildUserFromClaims() {
+        Optional<User> principal = tokenProvider.getPrincipalFromClaims(claims("ROLE_ADMIN,ROLE_USER"));
+
+        assertTrue(principal.isPresent());
+        assertEquals(7, principal.get().getId());
+        assertEquals("user@example.com", principal.get().getEmail());
+        assertEquals(Role.ADMIN, principal.get().getRole());
+    }
+
+    @Test
+    void getPrincipalFromClaims_WhenRolesClaimIsMissing_ShouldReturnEmpty() {
+        Claims claims = Jwts.claims().setSubject("user@example.com");
+        claims.put("userId", 7);
+
+        assertTrue(tokenProvider.getPrincipalFromClaims(claims).isEmpty());
+    }
+
+    @Test
+    void getPrincipalFromClaims_WhenRolesClaimIsEmptyOrUnknown_ShouldThrowBadCredentials() {
+        assertThrows(BadCredentialsException.class, () -> tokenProvider.getPrincipalFromClaims(claims("")));
+        assertThrows(BadCredentialsException.class, () -> tokenProvider.getPrincipalFromClaims(claims("ROLE_ROOT")));
+    }
+
+    private static Claims claims(String roles) {
+        Claims claims = Jwts.claims().setSubject("user@example.com");
+        claims.put("userId", 7);
+        claims.put("roles", roles);
+        return claims;
+    }
+}
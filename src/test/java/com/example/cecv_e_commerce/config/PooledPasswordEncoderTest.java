@@ -0,0 +1,123 @@
+package com.example.cecv_e_commerce.config;
+
+import com.example.cecv_e_commerce.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PooledPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_runOnPoolAndRecordLatency() {
+        encoder = new PooledPasswordEncoder(4, 2, 10, 5000, meterRegistry);
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(1, meterRegistry.get("password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void upgradeEncoding_whenHashHasLowerCost_thenTrue() {
+        encoder = new PooledPasswordEncoder(5, 1, 10, 5000, meterRegistry);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("secret")));
+    }
+
+    @Test
+    void whenPoolAndQueueAreFull_thenRejectsImmediately() throws Exception {
+        encoder = new PooledPasswordEncoder(4, 1, 1, 5000, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> encoder.encode(new BlockingPassword(started)));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> encoder.encode("queued"));
+            waitForQueueSize(1);
+
+            assertThrows(ServiceUnavailableException.class, () -> encoder.encode("rejected"));
+            assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenHashingExceedsTimeout_thenFailsWithServiceUnavailable() throws Exception {
+        encoder = new PooledPasswordEncoder(4, 1, 1, 100, meterRegistry);
+
+        assertThrows(ServiceUnavailableException.class,
+                () -> encoder.encode(new BlockingPassword(new CountDownLatch(1))));
+        assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+    }
+
+    private void waitForQueueSize(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("password.hash.queue").gauge().value() < expected) {
+            assertTrue(System.currentTimeMillis() < deadline, "task was never queued");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * A password whose {@code toString()} holds the pool thread until the test releases it.
+     */
+    private class BlockingPassword implements CharSequence {
+
+        private final CountDownLatch started;
+
+        private BlockingPassword(CountDownLatch started) {
+            this.started = started;
+        }
+
+        @Override
+        public int length() {
+            return toString().length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return toString().charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "blocked";
+        }
+    }
+}
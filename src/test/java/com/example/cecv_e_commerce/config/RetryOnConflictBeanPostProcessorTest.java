@@ -0,0 +1,119 @@
+package com.example.cecv_e_commerce.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetryOnConflictBeanPostProcessorTest {
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RetryOnConflictBeanPostProcessor postProcessor;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.stock.retry.max-attempts", "3")
+                .withProperty("app.stock.retry.backoff-ms", "1");
+        postProcessor = new RetryOnConflictBeanPostProcessor(meterRegistryProvider, environment);
+    }
+
+    @Test
+    void postProcess_WithoutRetryOnConflict_ShouldReturnBeanUnchanged() {
+        Object bean = new Object();
+
+        assertSame(bean, postProcessor.postProcessAfterInitialization(bean, "plain"));
+    }
+
+    @Test
+    void retriedMethod_WhenConflictClears_ShouldRetryAndReturn() {
+        when(meterRegistryProvider.getIfAvailable()).thenReturn(meterRegistry);
+        ConflictingService target = new ConflictingService(2);
+        ConflictingService service = proxy(target);
+
+        assertEquals("done", service.update());
+
+        assertEquals(3, target.calls);
+        assertEquals(2.0, meterRegistry.counter("conflict.retries", "method", "update").count());
+    }
+
+    @Test
+    void retriedMethod_WhenConflictPersists_ShouldGiveUpAfterMaxAttempts() {
+        when(meterRegistryProvider.getIfAvailable()).thenReturn(meterRegistry);
+        ConflictingService target = new ConflictingService(10);
+        ConflictingService service = proxy(target);
+
+        assertThrows(OptimisticLockingFailureException.class, service::update);
+
+        assertEquals(3, target.calls);
+    }
+
+    @Test
+    void retriedMethod_InsideOuterTransaction_ShouldNotRetry() {
+        ConflictingService target = new ConflictingService(1);
+        ConflictingService service = proxy(target);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(OptimisticLockingFailureException.class, service::update);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(1, target.calls);
+        verifyNoInteractions(meterRegistryProvider);
+    }
+
+    @Test
+    void unannotatedMethod_ShouldNotRetry() {
+        ConflictingService target = new ConflictingService(1);
+        ConflictingService service = proxy(target);
+
+        assertThrows(OptimisticLockingFailureException.class, service::updateOnce);
+
+        assertEquals(1, target.calls);
+    }
+
+    private ConflictingService proxy(ConflictingService service) {
+        Object proxied = postProcessor.postProcessAfterInitialization(service, "conflictingService");
+        assertTrue(AopUtils.isCglibProxy(proxied));
+        return (ConflictingService) proxied;
+    }
+
+    static class ConflictingService {
+
+        private final int conflicts;
+        private int calls;
+
+        ConflictingService(int conflicts) {
+            this.conflicts = conflicts;
+        }
+
+        @RetryOnConflict
+        public String update() {
+            return updateOnce();
+        }
+
+        public String updateOnce() {
+            if (++calls <= conflicts) {
+                throw new OptimisticLockingFailureException("version changed");
+            }
+            return "done";
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.cecv_e_commerce.config;
+
+import com.example.cecv_e_commerce.domain.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPrincipalCacheTest {
+
+    private final UserPrincipalCache cache = new UserPrincipalCache(100, 60000, new SimpleMeterRegistry());
+
+    @Test
+    void getByEmail_ShouldFillBothIndexesFromOneLoad() {
+        User user = user("old-hash");
+        cache.getByEmail(user.getEmail(), email -> Optional.of(user));
+
+        assertSame(user, cache.getById(user.getId(), id -> fail("should be cached")).orElseThrow());
+    }
+
+    @Test
+    void getByEmail_WhenLoadOverlapsInvalidation_ShouldCacheNeitherIndex() {
+        User stale = user("old-hash");
+        User fresh = user("new-hash");
+        AtomicInteger loads = new AtomicInteger();
+
+        Optional<User> loaded = cache.getByEmail(stale.getEmail(), email -> {
+            loads.incrementAndGet();
+            // The password change commits while this request is still reading the old row.
+            cache.invalidate(stale.getId(), stale.getEmail());
+            return Optional.of(stale);
+        });
+
+        assertSame(stale, loaded.orElseThrow());
+        assertSame(fresh, cache.getById(stale.getId(), id -> {
+            loads.incrementAndGet();
+            return Optional.of(fresh);
+        }).orElseThrow());
+        assertSame(fresh, cache.getByEmail(stale.getEmail(), email -> fail("should be cached")).orElseThrow());
+        assertEquals(2, loads.get());
+    }
+
+    private static User user(String password) {
+        User user = new User();
+        user.setId(1);
+        user.setEmail("user@example.com");
+        user.setPassword(password);
+        return user;
+    }
+}
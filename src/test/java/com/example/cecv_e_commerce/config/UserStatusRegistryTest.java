@@ -0,0 +1,71 @@
+package com.example.cecv_e_commerce.config;
+
+import com.example.cecv_e_commerce.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatusRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserStatusRegistry userStatusRegistry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userStatusRegistry, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userStatusRegistry, "ttlMs", 30000L);
+        ReflectionTestUtils.setField(userStatusRegistry, "maxEntries", 100);
+        userStatusRegistry.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidate_InTransaction_ShouldDropFlagReloadedBeforeCommit() {
+        when(userRepository.findActiveFlagById(1)).thenReturn(Optional.of(true), Optional.of(true), Optional.of(false));
+        assertTrue(userStatusRegistry.isActive(1));
+
+        TransactionSynchronizationManager.initSynchronization();
+        userStatusRegistry.invalidate(1);
+        // A request during the commit window still reads the committed (old) row.
+        assertTrue(userStatusRegistry.isActive(1));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertFalse(userStatusRegistry.isActive(1));
+        verify(userRepository, times(3)).findActiveFlagById(1);
+    }
+
+    @Test
+    void isActive_WhenLoadOverlapsInvalidation_ShouldNotCacheTheOldFlag() {
+        when(userRepository.findActiveFlagById(1)).thenAnswer(invocation -> {
+            userStatusRegistry.invalidate(1);
+            return Optional.of(true);
+        }).thenReturn(Optional.of(false));
+
+        assertTrue(userStatusRegistry.isActive(1));
+
+        assertFalse(userStatusRegistry.isActive(1));
+    }
+}
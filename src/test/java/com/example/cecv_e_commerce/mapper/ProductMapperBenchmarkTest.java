@@ -0,0 +1,101 @@
+package com.example.cecv_e_commerce.mapper;
+
+import com.example.cecv_e_commerce.domain.dto.category.CategoryDTO;
+import com.example.cecv_e_commerce.domain.dto.product.ProductBriefDTO;
+import com.example.cecv_e_commerce.domain.model.Category;
+import com.example.cecv_e_commerce.domain.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.modelmapper.ModelMapper;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput and allocation of mapping one 12-item search page to {@link ProductBriefDTO}s, with
+ * the reflective ModelMapper calls ProductServiceImpl used to make and with {@link ProductMapper}.
+ * Run with {@code mvn test -Dtest=ProductMapperBenchmarkTest -Dmapper.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "mapper.benchmark", matches = "true")
+class ProductMapperBenchmarkTest {
+
+    private static final int PAGE_SIZE = 12;
+    private static final int WARMUP_PAGES = 50_000;
+    private static final int MEASURED_PAGES = 200_000;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void mapSearchPage() {
+        List<Product> page = page();
+        ModelMapper modelMapper = new ModelMapper();
+        ProductMapper productMapper = new ProductMapper(new CategoryMapper());
+
+        Result reflective = measure(page, product -> {
+            ProductBriefDTO dto = modelMapper.map(product, ProductBriefDTO.class);
+            dto.setCategory(product.getCategory() == null
+                    ? null : modelMapper.map(product.getCategory(), CategoryDTO.class));
+            return dto;
+        });
+        Result compiled = measure(page, productMapper::toBriefDTO);
+
+        System.out.printf("12-item page: ModelMapper %s; ProductMapper %s%n", reflective, compiled);
+        assertTrue(compiled.pagesPerSecond() > reflective.pagesPerSecond());
+    }
+
+    private Result measure(List<Product> page, Function<Product, ProductBriefDTO> mapper) {
+        long checksum = map(page, mapper, WARMUP_PAGES);
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        checksum += map(page, mapper, MEASURED_PAGES);
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        assertTrue(checksum > 0);
+        return new Result(MEASURED_PAGES / (elapsed / 1_000_000_000.0), (double) allocated / MEASURED_PAGES);
+    }
+
+    private long map(List<Product> page, Function<Product, ProductBriefDTO> mapper, int pages) {
+        long checksum = 0;
+        for (int i = 0; i < pages; i++) {
+            for (Product product : page) {
+                checksum += mapper.apply(product).getId();
+            }
+        }
+        return checksum;
+    }
+
+    private static List<Product> page() {
+        Category category = new Category();
+        category.setId(3);
+        category.setName("Books");
+        List<Product> page = new ArrayList<>();
+        for (int i = 1; i <= PAGE_SIZE; i++) {
+            Product product = new Product();
+            product.setId(i);
+            product.setName("Product " + i);
+            product.setDescription("Description " + i);
+            product.setImageUrl("http://img/" + i + ".png");
+            product.setPrice(new BigDecimal("100.00"));
+            product.setQuantity(7);
+            product.setCategory(category);
+            product.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+            page.add(product);
+        }
+        return page;
+    }
+
+    private record Result(double pagesPerSecond, double bytesPerPage) {
+
+        @Override
+        public String toString() {
+            return String.format("%.0f pages/s, %.0f bytes allocated/page", pagesPerSecond, bytesPerPage);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.cecv_e_commerce.mapper;
+
+import com.example.cecv_e_commerce.domain.dto.product.ProductBriefDTO;
+import com.example.cecv_e_commerce.domain.dto.product.ProductDetailDTO;
+import com.example.cecv_e_commerce.domain.model.Category;
+import com.example.cecv_e_commerce.domain.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductMapperTest {
+
+    private final ProductMapper productMapper = new ProductMapper(new CategoryMapper());
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setId(3);
+        category.setName("Books");
+
+        product = new Product();
+        product.setId(1);
+        product.setName("Product 1");
+        product.setDescription("Description");
+        product.setImageUrl("http://img/1.png");
+        product.setPrice(new BigDecimal("100.00"));
+        product.setQuantity(7);
+        product.setFeatured(true);
+        product.setCategory(category);
+        product.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+
+    @Test
+    void toBriefDTO_ShouldCopyListingFieldsAndCategory() {
+        ProductBriefDTO dto = productMapper.toBriefDTO(product);
+
+        assertEquals(1, dto.getId());
+        assertEquals("Product 1", dto.getName());
+        assertEquals(new BigDecimal("100.00"), dto.getPrice());
+        assertEquals("http://img/1.png", dto.getImageUrl());
+        assertEquals(3, dto.getCategory().getId());
+        assertEquals("Books", dto.getCategory().getName());
+    }
+
+    @Test
+    void toDetailDTO_ShouldCopyAllFields() {
+        ProductDetailDTO dto = productMapper.toDetailDTO(product);
+
+        assertEquals("Description", dto.getDescription());
+        assertEquals(7, dto.getQuantity());
+        assertTrue(dto.isFeatured());
+        assertEquals(product.getCreatedAt(), dto.getCreatedAt());
+        assertEquals(3, dto.getCategory().getId());
+    }
+
+    @Test
+    void toBriefDTO_WithoutCategory_ShouldLeaveCategoryNull() {
+        product.setCategory(null);
+
+        assertNull(productMapper.toBriefDTO(product).getCategory());
+    }
+}
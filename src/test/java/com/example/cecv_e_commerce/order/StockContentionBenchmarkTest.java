@@ -0,0 +1,157 @@
+package com.example.cecv_e_commerce.order;
+
+import com.example.cecv_e_commerce.domain.dto.order.OrderItemRequestCreateDTO;
+import com.example.cecv_e_commerce.domain.dto.order.OrderRequestDTO;
+import com.example.cecv_e_commerce.domain.dto.order.OrderShippingRequestCreateDTO;
+import com.example.cecv_e_commerce.domain.model.Product;
+import com.example.cecv_e_commerce.domain.model.User;
+import com.example.cecv_e_commerce.repository.ProductRepository;
+import com.example.cecv_e_commerce.repository.UserRepository;
+import com.example.cecv_e_commerce.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checkout throughput under stock contention for the locking mode the application starts in. The
+ * hot scenario sends every order to one product, the long-tail scenario spreads orders over
+ * {@link #LONG_TAIL_PRODUCTS} products. Needs the Flyway-migrated MySQL test database and leaves
+ * its orders there; run it once per mode and compare:
+ * <pre>
+ * mvn test -Dtest=StockContentionBenchmarkTest -Dstock.benchmark=true -Dapp.stock.locking-mode=pessimistic
+ * mvn test -Dtest=StockContentionBenchmarkTest -Dstock.benchmark=true -Dapp.stock.locking-mode=optimistic
+ * </pre>
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "stock.benchmark", matches = "true")
+class StockContentionBenchmarkTest {
+
+    private static final int WORKERS = 32;
+    private static final int LONG_TAIL_PRODUCTS = 1000;
+    private static final Duration SCENARIO_DURATION = Duration.ofSeconds(15);
+
+    @Value("${app.stock.locking-mode:pessimistic}")
+    private String lockingMode;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void checkoutUnderContention() throws InterruptedException {
+        User user = createUser();
+
+        ScenarioResult hot = runScenario(user, createProducts(1));
+        ScenarioResult longTail = runScenario(user, createProducts(LONG_TAIL_PRODUCTS));
+
+        System.out.printf("%s locking, hot product: %s%n", lockingMode, hot);
+        System.out.printf("%s locking, long tail:   %s%n", lockingMode, longTail);
+        assertTrue(hot.orders() > 0, "no order succeeded on the hot product");
+        assertTrue(longTail.orders() > 0, "no order succeeded on the long tail");
+    }
+
+    private ScenarioResult runScenario(User user, List<Integer> productIds) throws InterruptedException {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        double retriesBefore = retries();
+        long start = System.nanoTime();
+        long deadline = start + SCENARIO_DURATION.toNanos();
+        try (ExecutorService workers = Executors.newFixedThreadPool(WORKERS)) {
+            for (int i = 0; i < WORKERS; i++) {
+                workers.execute(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(
+                            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+                    while (System.nanoTime() < deadline) {
+                        Integer productId = productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+                        long sent = System.nanoTime();
+                        try {
+                            orderService.createOrder(order(productId));
+                            latencies.add(System.nanoTime() - sent);
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    SecurityContextHolder.clearContext();
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p99 = sorted.isEmpty() ? 0 : sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        return new ScenarioResult(sorted.size(), sorted.size() / seconds, Duration.ofNanos(p99),
+                (long) (retries() - retriesBefore), failures.get());
+    }
+
+    private double retries() {
+        return Search.in(meterRegistry).name("conflict.retries").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setName("Stock Benchmark");
+        user.setEmail("stock-benchmark-" + UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setActive(true);
+        return userRepository.save(user);
+    }
+
+    private List<Integer> createProducts(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName("Stock benchmark product " + i);
+            product.setPrice(BigDecimal.TEN);
+            product.setQuantity(Integer.MAX_VALUE);
+            products.add(product);
+        }
+        return productRepository.saveAll(products).stream().map(Product::getId).toList();
+    }
+
+    private OrderRequestDTO order(Integer productId) {
+        return new OrderRequestDTO(
+                List.of(new OrderItemRequestCreateDTO(productId, 1, 10.0, null)),
+                new OrderShippingRequestCreateDTO("Stock Benchmark", "0900000000", "1 Benchmark Street",
+                        "Floor 1", "Hanoi", "10000", "VN", "STANDARD", 2.0));
+    }
+
+    private record ScenarioResult(int orders, double throughput, Duration p99, long retries, int failures) {
+
+        @Override
+        public String toString() {
+            return String.format("%d orders, %.0f orders/s, p99 %d ms, %d conflict retries, %d failed",
+                    orders, throughput, p99.toMillis(), retries, failures);
+        }
+    }
+}
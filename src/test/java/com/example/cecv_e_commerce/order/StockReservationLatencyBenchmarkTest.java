@@ -0,0 +1,148 @@
+package com.example.cecv_e_commerce.order;
+
+import com.example.cecv_e_commerce.domain.model.Product;
+import com.example.cecv_e_commerce.exception.BadRequestException;
+import com.example.cecv_e_commerce.repository.ProductRepository;
+import com.example.cecv_e_commerce.service.StockReservationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * p99 latency of the stock reservation step of checkout, before and after the single sorted
+ * locking query. "Per line" is the old path: one {@code SELECT ... FOR UPDATE} and save per line
+ * item in the order the client sent them. Every cart takes {@link #LINES_PER_CART} products from a
+ * pool of {@link #POOL_PRODUCTS} in random order, so carts overlap the way they do at peak. Needs
+ * the Flyway-migrated MySQL test database and leaves its products there:
+ * <pre>
+ * mvn test -Dtest=StockReservationLatencyBenchmarkTest -Dcheckout.benchmark=true
+ * </pre>
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "checkout.benchmark", matches = "true")
+class StockReservationLatencyBenchmarkTest {
+
+    private static final int WORKERS = 32;
+    private static final int POOL_PRODUCTS = 50;
+    private static final int LINES_PER_CART = 5;
+    private static final Duration SCENARIO_DURATION = Duration.ofSeconds(15);
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void reservationLatency() throws InterruptedException {
+        List<Integer> productIds = createProducts();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        ScenarioResult perLine = runScenario(productIds,
+                cart -> transaction.executeWithoutResult(status -> reservePerLine(cart)));
+        ScenarioResult sorted = runScenario(productIds,
+                cart -> transaction.executeWithoutResult(status -> stockReservationService.reserve(cart)));
+
+        System.out.printf("per-line locking:    %s%n", perLine);
+        System.out.printf("sorted batch locking: %s%n", sorted);
+        assertTrue(sorted.reservations() > 0, "no reservation succeeded with sorted locking");
+    }
+
+    /**
+     * The reservation loop createOrder ran before the stock reservation service existed.
+     */
+    private void reservePerLine(Map<Integer, Integer> cart) {
+        cart.forEach((productId, quantity) -> {
+            Product product = productRepository.findByIdWithLock(productId).orElseThrow();
+            if (product.getQuantity() < quantity) {
+                throw new BadRequestException("Not enough product quantity in stock");
+            }
+            product.setQuantity(product.getQuantity() - quantity);
+            productRepository.save(product);
+        });
+    }
+
+    private ScenarioResult runScenario(List<Integer> productIds, Consumer<Map<Integer, Integer>> reserve)
+            throws InterruptedException {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        long start = System.nanoTime();
+        long deadline = start + SCENARIO_DURATION.toNanos();
+        try (ExecutorService workers = Executors.newFixedThreadPool(WORKERS)) {
+            for (int i = 0; i < WORKERS; i++) {
+                workers.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Map<Integer, Integer> cart = randomCart(productIds);
+                        long sent = System.nanoTime();
+                        try {
+                            reserve.accept(cart);
+                            latencies.add(System.nanoTime() - sent);
+                        } catch (RuntimeException e) {
+                            // Deadlock victims and lock wait timeouts.
+                            failures.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        List<Long> sortedLatencies = new ArrayList<>(latencies);
+        Collections.sort(sortedLatencies);
+        long p99 = sortedLatencies.isEmpty()
+                ? 0 : sortedLatencies.get((int) Math.ceil(sortedLatencies.size() * 0.99) - 1);
+        return new ScenarioResult(sortedLatencies.size(), sortedLatencies.size() / seconds, Duration.ofNanos(p99),
+                failures.get());
+    }
+
+    private Map<Integer, Integer> randomCart(List<Integer> productIds) {
+        List<Integer> shuffled = new ArrayList<>(productIds);
+        Collections.shuffle(shuffled, ThreadLocalRandom.current());
+        Map<Integer, Integer> cart = new LinkedHashMap<>();
+        shuffled.subList(0, LINES_PER_CART).forEach(productId -> cart.put(productId, 1));
+        return cart;
+    }
+
+    private List<Integer> createProducts() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < POOL_PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Reservation benchmark product " + i);
+            product.setPrice(BigDecimal.TEN);
+            product.setQuantity(Integer.MAX_VALUE);
+            products.add(product);
+        }
+        return productRepository.saveAll(products).stream().map(Product::getId).toList();
+    }
+
+    private record ScenarioResult(int reservations, double throughput, Duration p99, int failures) {
+
+        @Override
+        public String toString() {
+            return String.format("%d carts, %.0f carts/s, p99 %d ms, %d failed",
+                    reservations, throughput, p99.toMillis(), failures);
+        }
+    }
+}
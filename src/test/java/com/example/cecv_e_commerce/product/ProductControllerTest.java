@@ -2,7 +2,9 @@ package com.example.cecv_e_commerce.product;
 
 import com.example.cecv_e_commerce.config.JwtTokenProvider;
 import com.example.cecv_e_commerce.config.SecurityConfig;
+import com.example.cecv_e_commerce.config.UserStatusRegistry;
 import com.example.cecv_e_commerce.controller.ProductController;
+import com.example.cecv_e_commerce.domain.dto.CursorPageDTO;
 import com.example.cecv_e_commerce.domain.dto.comment.CommentDTO;
 import com.example.cecv_e_commerce.domain.dto.product.ProductBriefDTO;
 import com.example.cecv_e_commerce.domain.dto.product.ProductDetailDTO;
@@ -67,6 +69,9 @@ class ProductControllerTest {
     @MockBean
     private JwtTokenProvider jwtTokenProvider;
 
+    @MockBean
+    private UserStatusRegistry userStatusRegistry;
+
     private Integer productId = 1;
     private User testUser;
     private ProductDetailDTO productDetailDTO;
@@ -139,6 +144,33 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.data.content[0].name").value("Test Product Brief"));
     }
 
+    @Test
+    void scrollFeaturedProducts_shouldReturnCursorPage() throws Exception {
+        CursorPageDTO<ProductBriefDTO> mockPage = new CursorPageDTO<>(
+                Collections.singletonList(productBriefDTO), 1, true, "next-cursor");
+        when(productService.getFeaturedProducts("abc", 10)).thenReturn(mockPage);
+
+        mockMvc.perform(get("/api/v1/products/featured/scroll")
+                        .param("cursor", "abc")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].name").value("Test Product Brief"))
+                .andExpect(jsonPath("$.data.hasNext").value(true))
+                .andExpect(jsonPath("$.data.nextCursor").value("next-cursor"));
+    }
+
+    @Test
+    void scrollProducts_shouldCapPageSize() throws Exception {
+        CursorPageDTO<ProductBriefDTO> mockPage = new CursorPageDTO<>(Collections.emptyList(), 0, false, null);
+        when(productService.searchProducts(any(SearchProductRequestDTO.class), isNull(), eq(100))).thenReturn(mockPage);
+
+        mockMvc.perform(get("/api/v1/products/scroll")
+                        .param("keyword", "test")
+                        .param("size", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hasNext").value(false));
+    }
+
     @Test
     void getProductDetails_shouldReturnProductDetail() throws Exception {
         when(productService.getProductDetails(anyInt())).thenReturn(productDetailDTO);
@@ -0,0 +1,258 @@
+package com.example.cecv_e_commerce.repository;
+
+import com.example.cecv_e_commerce.domain.enums.OrderStatusEnum;
+import com.example.cecv_e_commerce.service.ProductService;
+import com.example.cecv_e_commerce.utils.ExplainCapture;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Calls the repository query paths and runs EXPLAIN on every statement they send, with the same
+ * bound parameters, failing when any table in a plan is read by a full scan ({@code type=ALL}) or
+ * without a chosen index.
+ * <p>
+ * The tables are seeded with a few thousand rows spread over realistic dates and statuses and then
+ * analyzed, so the optimizer's choice reflects selective indexes rather than an empty table.
+ * Needs the MySQL test database migrated by Flyway only (Hibernate DDL would drop the indexes)
+ * and leaves the seeded rows there, so it is opt-in: {@code mvn test -Ddb.explain=true}.
+ */
+@SpringBootTest(properties = {"spring.jpa.hibernate.ddl-auto=none", "app.search.index.enabled=false"})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "db.explain", matches = "true")
+class QueryIndexUsageTest {
+
+    private static final int USERS = 2000;
+    private static final int PRODUCTS = 2000;
+    private static final int ORDERS = 6000;
+    private static final int LINES_PER_ROW = 3;
+    private static final List<String> STATUSES = List.of("PENDING", "CONFIRMED", "SHIPPED", "CANCELLED");
+
+    @TestConfiguration
+    static class ExplainConfig {
+
+        @Bean
+        static BeanPostProcessor explainingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? ExplainCapture.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    private final Random random = new Random(42);
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+    private List<Integer> userIds;
+    private List<Integer> productIds;
+
+    @BeforeAll
+    void seed() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<Integer> users = IntStream.range(0, USERS).boxed().toList();
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email, password, is_active, activation_deadline)"
+                + " VALUES (?, ?, 'x', ?, ?)", users, 500, (ps, i) -> {
+            ps.setString(1, "Explain user " + i);
+            ps.setString(2, "explain-" + run + "-" + i + "@example.com");
+            ps.setBoolean(3, i % 20 != 0);
+            ps.setTimestamp(4, i % 20 != 0 ? null : Timestamp.valueOf(now.plusDays(i % 40 == 0 ? -1 : 1)));
+        });
+        userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE ? ORDER BY id", Integer.class,
+                "explain-" + run + "-%");
+
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES (?)", "Explain " + run);
+        Integer categoryId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM categories", Integer.class);
+        List<Integer> products = IntStream.range(0, PRODUCTS).boxed().toList();
+        jdbcTemplate.batchUpdate("INSERT INTO products (name, description, price, quantity, category_id, featured,"
+                + " created_at, updated_at) VALUES (?, 'Seeded for EXPLAIN', 10, 100, ?, ?, ?, ?)", products, 500,
+                (ps, i) -> {
+                    Timestamp createdAt = Timestamp.valueOf(now.minusHours(4L * i));
+                    ps.setString(1, "Explain product " + run + " " + i);
+                    ps.setInt(2, categoryId);
+                    ps.setBoolean(3, i % 50 == 0);
+                    ps.setTimestamp(4, createdAt);
+                    ps.setTimestamp(5, createdAt);
+                });
+        productIds = jdbcTemplate.queryForList("SELECT id FROM products WHERE name LIKE ? ORDER BY id",
+                Integer.class, "Explain product " + run + " %");
+
+        jdbcTemplate.batchUpdate("INSERT INTO carts (user_id) VALUES (?)", userIds, 500,
+                (ps, userId) -> ps.setInt(1, userId));
+        jdbcTemplate.update("INSERT INTO cart_items (cart_id, product_id, quantity)"
+                + " SELECT c.id, p.id, 1 FROM carts c JOIN products p ON p.id % 700 = c.id % 700"
+                + " WHERE c.user_id IN (" + inList(userIds) + ") AND p.id IN (" + inList(productIds) + ")");
+        seedPerProduct("INSERT INTO comments (user_id, product_id, content, created_at) VALUES (?, ?, 'Nice', ?)");
+        seedPerProduct("INSERT INTO ratings (user_id, product_id, rating, created_at) VALUES (?, ?, 4, ?)");
+
+        List<Integer> orders = IntStream.range(0, ORDERS).boxed().toList();
+        jdbcTemplate.batchUpdate("INSERT INTO orders (user_id, status, total, created_at) VALUES (?, ?, 30, ?)",
+                orders, 500, (ps, i) -> {
+                    ps.setInt(1, randomOf(userIds));
+                    ps.setString(2, STATUSES.get(i % STATUSES.size()));
+                    ps.setTimestamp(3, Timestamp.valueOf(now.minusHours(3L * i)));
+                });
+        jdbcTemplate.update("INSERT INTO order_items (order_id, product_id, price, quantity)"
+                + " SELECT o.id, p.id, 10, 1 FROM orders o JOIN products p ON p.id % 650 = o.id % 650"
+                + " WHERE o.user_id IN (" + inList(userIds) + ") AND p.id IN (" + inList(productIds) + ")");
+        List<Integer> days = IntStream.range(0, 730).boxed().toList();
+        for (String status : STATUSES) {
+            jdbcTemplate.batchUpdate("INSERT IGNORE INTO daily_revenue_rollups (revenue_date, status) VALUES (?, ?)",
+                    days, 500, (ps, day) -> {
+                        ps.setObject(1, LocalDate.now().minusDays(day));
+                        ps.setString(2, status);
+                    });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO stock_holds (user_id, product_id, quantity, expires_at)"
+                + " VALUES (?, ?, 1, ?)", IntStream.range(0, USERS / 2).boxed().toList(), 500, (ps, i) -> {
+                    ps.setInt(1, userIds.get(i));
+                    ps.setInt(2, productIds.get(i));
+                    ps.setTimestamp(3, Timestamp.valueOf(now.plusMinutes(i % 50 == 0 ? -5 : 15)));
+                });
+
+        jdbcTemplate.execute("ANALYZE TABLE users, categories, products, carts, cart_items, comments, ratings,"
+                + " orders, order_items, daily_revenue_rollups, stock_holds");
+    }
+
+    Stream<Arguments> repositoryQueries() {
+        Integer userId = userIds.get(userIds.size() / 2);
+        Integer productId = productIds.get(productIds.size() / 2);
+        List<OrderStatusEnum> counted = List.of(OrderStatusEnum.CONFIRMED, OrderStatusEnum.SHIPPED);
+        LocalDateTime monthStart = now.minusMonths(2);
+        LocalDateTime monthEnd = now.minusMonths(1);
+        return Stream.of(
+                Arguments.of("CartRepository.findWithItemsByUserId",
+                        (Runnable) () -> cartRepository.findWithItemsByUserId(userId)),
+                Arguments.of("CommentRepository.findByProductId", (Runnable) () -> commentRepository
+                        .findByProductId(productId, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")))),
+                Arguments.of("CommentRepository.existsByUserIdAndProductId",
+                        (Runnable) () -> commentRepository.existsByUserIdAndProductId(userId, productId)),
+                Arguments.of("RatingRepository.existsByUserIdAndProductId",
+                        (Runnable) () -> ratingRepository.existsByUserIdAndProductId(userId, productId)),
+                Arguments.of("UserRepository.findExpiredInactiveUserIds",
+                        (Runnable) () -> userRepository.findExpiredInactiveUserIds(now, 0, PageRequest.of(0, 500))),
+                Arguments.of("UserRepository.deleteExpiredInactiveUsersInRange", (Runnable) () -> userRepository
+                        .deleteExpiredInactiveUsersInRange(now, userIds.get(0), userIds.get(userIds.size() - 1))),
+                Arguments.of("OrderRepository.findTotalRevenueByStatusInAndCreatedAtBetween", (Runnable) () ->
+                        orderRepository.findTotalRevenueByStatusInAndCreatedAtBetween(counted, monthStart, monthEnd)),
+                Arguments.of("OrderRepository.sumRolledUpRevenue", (Runnable) () -> orderRepository.sumRolledUpRevenue(
+                        List.of("CONFIRMED", "SHIPPED"), monthStart.toLocalDate(), monthEnd.toLocalDate())),
+                Arguments.of("OrderItemRepository.findBestSellingProducts", (Runnable) () -> orderItemRepository
+                        .findBestSellingProducts(counted, monthStart, monthEnd, PageRequest.of(0, 10))),
+                Arguments.of("ProductRepository.findByFeaturedTrue", (Runnable) () -> productRepository
+                        .findByFeaturedTrue(PageRequest.of(0, 6, Sort.by(Sort.Direction.DESC, "createdAt", "id")))),
+                Arguments.of("ProductService.getFeaturedProducts (keyset)",
+                        (Runnable) () -> productService.getFeaturedProducts((String) null, 6)),
+                Arguments.of("ProductRepository.findByUpdatedAtGreaterThanEqual",
+                        (Runnable) () -> productRepository.findByUpdatedAtGreaterThanEqual(now.minusHours(12))),
+                Arguments.of("StockHoldRepository.findByUserIdWithLock",
+                        (Runnable) () -> stockHoldRepository.findByUserIdWithLock(userId)),
+                Arguments.of("StockHoldRepository.findExpired",
+                        (Runnable) () -> stockHoldRepository.findExpired(now, PageRequest.of(0, 100))),
+                Arguments.of("StockHoldRepository.findExpiredByIdInWithLock", (Runnable) () -> stockHoldRepository
+                        .findExpiredByIdInWithLock(List.of(1, 2, 3), now)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void everyTableInPlan_ShouldBeReadThroughAnIndex(String name, Runnable query) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<ExplainCapture.ExplainedStatement> statements = ExplainCapture.capture(() ->
+                transaction.executeWithoutResult(status -> {
+                    query.run();
+                    status.setRollbackOnly();
+                }));
+
+        assertFalse(statements.isEmpty(), () -> name + " sent no explainable statement");
+        for (ExplainCapture.ExplainedStatement statement : statements) {
+            for (Map<String, Object> row : statement.plan()) {
+                Object table = row.get("table");
+                if (table == null || table.toString().startsWith("<")) {
+                    continue; // constant rows, derived tables and unions
+                }
+                assertNotEquals("ALL", row.get("type"),
+                        () -> name + ": full scan of " + table + " for " + statement.sql() + " -> " + row);
+                assertNotNull(row.get("key"),
+                        () -> name + ": no index chosen for " + table + " in " + statement.sql() + " -> " + row);
+            }
+        }
+    }
+
+    private void seedPerProduct(String sql) {
+        List<Integer> rows = IntStream.range(0, PRODUCTS * LINES_PER_ROW).boxed().toList();
+        jdbcTemplate.batchUpdate(sql, rows, 500, (ps, i) -> {
+            ps.setInt(1, randomOf(userIds));
+            ps.setInt(2, productIds.get(i % productIds.size()));
+            ps.setTimestamp(3, Timestamp.valueOf(now.minusMinutes(i)));
+        });
+    }
+
+    private Integer randomOf(List<Integer> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static String inList(List<Integer> ids) {
+        return String.join(",", ids.stream().map(String::valueOf).toList());
+    }
+}
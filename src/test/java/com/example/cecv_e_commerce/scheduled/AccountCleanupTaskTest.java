@@ -0,0 +1,70 @@
+package com.example.cecv_e_commerce.scheduled;
+
+import com.example.cecv_e_commerce.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountCleanupTaskTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AccountCleanupTask accountCleanupTask;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalDateTime cutoff = LocalDateTime.of(2024, 1, 1, 2, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(accountCleanupTask, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(accountCleanupTask, "batchSize", 2);
+        ReflectionTestUtils.setField(accountCleanupTask, "pauseMs", 0L);
+        accountCleanupTask.init();
+    }
+
+    @Test
+    void purgeExpiredAccounts_ShouldDeleteOneIdRangePerChunk() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(userRepository.findExpiredInactiveUserIds(cutoff, 0, PageRequest.of(0, 2))).thenReturn(List.of(3, 7));
+        when(userRepository.findExpiredInactiveUserIds(cutoff, 7, PageRequest.of(0, 2))).thenReturn(List.of(9));
+        when(userRepository.deleteExpiredInactiveUsersInRange(cutoff, 3, 7)).thenReturn(2);
+        when(userRepository.deleteExpiredInactiveUsersInRange(cutoff, 9, 9)).thenReturn(1);
+
+        assertEquals(3, accountCleanupTask.purgeExpiredAccounts(cutoff));
+
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(3.0, meterRegistry.counter("account.cleanup.deleted").count());
+        assertEquals(3.0, meterRegistry.get("account.cleanup.progress").gauge().value());
+    }
+
+    @Test
+    void purgeExpiredAccounts_WithNothingExpired_ShouldNotOpenTransaction() throws Exception {
+        when(userRepository.findExpiredInactiveUserIds(cutoff, 0, PageRequest.of(0, 2))).thenReturn(List.of());
+
+        assertEquals(0, accountCleanupTask.purgeExpiredAccounts(cutoff));
+
+        verifyNoInteractions(transactionManager);
+        verify(userRepository, never()).deleteExpiredInactiveUsersInRange(any(), any(), any());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.cecv_e_commerce.scheduled;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterLockBeanPostProcessorTest {
+
+    @Mock
+    private SchedulerLockService lockService;
+
+    @Mock
+    private ObjectProvider<SchedulerLockService> lockServiceProvider;
+
+    @Mock
+    private ScheduledFuture<Object> renewal;
+
+    private ClusterLockBeanPostProcessor postProcessor;
+
+    @BeforeEach
+    void setUp() {
+        postProcessor = new ClusterLockBeanPostProcessor(lockServiceProvider);
+    }
+
+    @Test
+    void postProcess_WithoutClusterLock_ShouldReturnBeanUnchanged() {
+        Object bean = new Object();
+
+        assertSame(bean, postProcessor.postProcessAfterInitialization(bean, "plain"));
+    }
+
+    @Test
+    void lockedMethod_WhenLeaseAcquired_ShouldRunAndRelease() {
+        when(lockServiceProvider.getObject()).thenReturn(lockService);
+        when(lockService.tryAcquire("job", 1000)).thenReturn(true);
+        doReturn(renewal).when(lockService).startRenewal("job", 1000);
+        LockedJob job = proxy(new LockedJob());
+
+        job.run();
+
+        assertEquals(1, job.runs());
+        InOrder inOrder = inOrder(lockService, renewal);
+        inOrder.verify(lockService).tryAcquire("job", 1000);
+        inOrder.verify(lockService).startRenewal("job", 1000);
+        inOrder.verify(renewal).cancel(false);
+        inOrder.verify(lockService).release("job");
+    }
+
+    @Test
+    void lockedMethod_WhenLeaseHeldElsewhere_ShouldSkip() {
+        when(lockServiceProvider.getObject()).thenReturn(lockService);
+        when(lockService.tryAcquire("job", 1000)).thenReturn(false);
+        LockedJob job = proxy(new LockedJob());
+
+        job.run();
+
+        assertEquals(0, job.runs());
+        verify(lockService, never()).startRenewal(anyString(), anyLong());
+        verify(lockService, never()).release(anyString());
+    }
+
+    @Test
+    void lockedMethod_WhenJobThrows_ShouldStillRelease() {
+        when(lockServiceProvider.getObject()).thenReturn(lockService);
+        when(lockService.tryAcquire("job", 1000)).thenReturn(true);
+        doReturn(renewal).when(lockService).startRenewal("job", 1000);
+        LockedJob job = proxy(new LockedJob());
+
+        assertThrows(IllegalStateException.class, job::fail);
+
+        verify(renewal).cancel(false);
+        verify(lockService).release("job");
+    }
+
+    @Test
+    void unlockedMethod_ShouldNotTouchLocks() {
+        LockedJob job = proxy(new LockedJob());
+
+        assertEquals(0, job.runs());
+        verifyNoInteractions(lockServiceProvider);
+    }
+
+    private LockedJob proxy(LockedJob job) {
+        Object proxied = postProcessor.postProcessAfterInitialization(job, "lockedJob");
+        assertTrue(AopUtils.isCglibProxy(proxied));
+        return (LockedJob) proxied;
+    }
+
+    static class LockedJob {
+
+        private int runs;
+
+        @ClusterLock(name = "job", leaseMs = 1000)
+        public void run() {
+            runs++;
+        }
+
+        @ClusterLock(name = "job", leaseMs = 1000)
+        public void fail() {
+            throw new IllegalStateException("boom");
+        }
+
+        public int runs() {
+            return runs;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.cecv_e_commerce.scheduled;
+
+import com.example.cecv_e_commerce.config.RevenueRollupListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevenueRollupReconcileTaskTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RevenueRollupReconcileTask revenueRollupReconcileTask;
+
+    private static final LocalDate SINCE = LocalDate.of(2024, 3, 1);
+
+    @BeforeEach
+    void setUp() {
+        revenueRollupReconcileTask.init();
+    }
+
+    @Test
+    void reconcileSince_ShouldReadOneSnapshotWithoutLocksAndAddOnlyTheDifferences() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        stubTotals(RevenueRollupReconcileTask.ORDER_TOTALS_SQL, List.of(
+                row(SINCE, "CONFIRMED", 3, "300.00"),
+                row(SINCE.plusDays(1), "SHIPPED", 1, "50.00"),
+                row(SINCE.plusDays(2), "DELIVERED", 2, "20.00")));
+        stubTotals(RevenueRollupReconcileTask.ROLLUP_TOTALS_SQL, List.of(
+                row(SINCE, "CONFIRMED", 2, "200.00"),
+                row(SINCE.plusDays(2), "DELIVERED", 2, "20.00"),
+                row(SINCE.plusDays(3), "CONFIRMED", 1, "10.00")));
+
+        assertEquals(3, revenueRollupReconcileTask.reconcileSince(SINCE));
+
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(2)).getTransaction(definitions.capture());
+        assertTrue(definitions.getAllValues().get(0).isReadOnly());
+        assertEquals(TransactionDefinition.ISOLATION_REPEATABLE_READ,
+                definitions.getAllValues().get(0).getIsolationLevel());
+        assertFalse(definitions.getAllValues().get(1).isReadOnly());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> corrections = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(RevenueRollupListener.UPSERT_SQL), corrections.capture());
+        List<Object[]> sorted = corrections.getValue().stream()
+                .sorted(Comparator.comparing(args -> (Date) args[0])).toList();
+        assertArrayEquals(new Object[]{Date.valueOf(SINCE), "CONFIRMED", 1L, new BigDecimal("100.00")}, sorted.get(0));
+        assertArrayEquals(new Object[]{Date.valueOf(SINCE.plusDays(1)), "SHIPPED", 1L, new BigDecimal("50.00")}, sorted.get(1));
+        assertArrayEquals(new Object[]{Date.valueOf(SINCE.plusDays(3)), "CONFIRMED", -1L, new BigDecimal("-10.00")}, sorted.get(2));
+    }
+
+    @Test
+    void reconcileSince_WhenRollupsMatch_ShouldNotWrite() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        stubTotals(RevenueRollupReconcileTask.ORDER_TOTALS_SQL, List.of(row(SINCE, "CONFIRMED", 3, "300.00")));
+        stubTotals(RevenueRollupReconcileTask.ROLLUP_TOTALS_SQL, List.of(row(SINCE, "CONFIRMED", 3, "300.00")));
+
+        assertEquals(0, revenueRollupReconcileTask.reconcileSince(SINCE));
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubTotals(String sql, List<ResultSet> rows) {
+        when(jdbcTemplate.query(eq(sql), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            List<Object> mapped = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                mapped.add(mapper.mapRow(rows.get(i), i));
+            }
+            return mapped;
+        });
+    }
+
+    private static ResultSet row(LocalDate day, String status, long orderCount, String revenue) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getDate("revenue_date")).thenReturn(Date.valueOf(day));
+        when(rs.getString("status")).thenReturn(status);
+        when(rs.getLong("order_count")).thenReturn(orderCount);
+        when(rs.getBigDecimal("total_revenue")).thenReturn(new BigDecimal(revenue));
+        return rs;
+    }
+}
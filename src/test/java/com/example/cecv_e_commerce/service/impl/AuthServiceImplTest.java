@@ -1,23 +1,28 @@
 package com.example.cecv_e_commerce.service.impl;
 
 import com.example.cecv_e_commerce.config.JwtTokenProvider;
+import com.example.cecv_e_commerce.config.UserPrincipalCache;
+import com.example.cecv_e_commerce.domain.dto.outbox.MailEventPayloadDTO;
 import com.example.cecv_e_commerce.domain.dto.user.AuthResponseDTO;
 import com.example.cecv_e_commerce.domain.dto.user.LoginRequestDTO;
 import com.example.cecv_e_commerce.domain.dto.user.RegisterRequestDTO;
 import com.example.cecv_e_commerce.domain.dto.user.UserDTO;
+import com.example.cecv_e_commerce.domain.enums.OutboxEventType;
 import com.example.cecv_e_commerce.domain.model.User;
 import com.example.cecv_e_commerce.exception.BadRequestException;
 import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
+import com.example.cecv_e_commerce.mapper.UserMapper;
 import com.example.cecv_e_commerce.repository.UserRepository;
 import com.example.cecv_e_commerce.service.CartService;
-import com.example.cecv_e_commerce.service.MailService;
+import com.example.cecv_e_commerce.service.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -47,14 +52,17 @@ class AuthServiceImplTest {
     @Mock
     private JwtTokenProvider tokenProvider;
 
-    @Mock
-    private ModelMapper modelMapper;
+    @Spy
+    private UserMapper userMapper = new UserMapper();
 
     @Mock
     private CartService cartService;
 
     @Mock
-    private MailService mailService;
+    private OutboxService outboxService;
+
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -82,7 +90,11 @@ class AuthServiceImplTest {
 
         verify(userRepository).existsByEmail(registerRequest.getEmail());
         verify(userRepository).save(any(User.class));
-        verify(mailService).sendActivationEmail(anyString(), anyString(), anyString());
+        ArgumentCaptor<MailEventPayloadDTO> payloadCaptor = ArgumentCaptor.forClass(MailEventPayloadDTO.class);
+        verify(outboxService).enqueue(eq(OutboxEventType.ACTIVATION_EMAIL),
+                startsWith("ACTIVATION_EMAIL:"), payloadCaptor.capture());
+        assertEquals("test@example.com", payloadCaptor.getValue().getTo());
+        assertTrue(payloadCaptor.getValue().getLink().startsWith("http://localhost:8080/activate?token="));
     }
 
     @Test
@@ -114,7 +126,6 @@ class AuthServiceImplTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
         when(tokenProvider.generateToken(any(Authentication.class))).thenReturn("jwt-token");
-        when(modelMapper.map(any(User.class), eq(UserDTO.class))).thenReturn(new UserDTO());
 
         AuthResponseDTO response = authService.login(loginRequest);
 
@@ -140,6 +151,7 @@ class AuthServiceImplTest {
         verify(userRepository).findByActivationToken(token);
         verify(userRepository).save(any(User.class));
         verify(cartService).createCart(any(User.class));
+        verify(userPrincipalCache).invalidate(user.getId(), user.getEmail());
     }
 
     @Test
@@ -172,7 +184,10 @@ class AuthServiceImplTest {
 
         verify(userRepository).findByEmail(email);
         verify(userRepository).save(any(User.class));
-        verify(mailService).sendPasswordResetEmail(eq(email), eq("Test User"), anyString());
+        verify(outboxService).enqueue(eq(OutboxEventType.PASSWORD_RESET_EMAIL),
+                eq("PASSWORD_RESET_EMAIL:" + user.getPasswordResetToken()),
+                eq(new MailEventPayloadDTO(user.getId(), email, "Test User",
+                        "http://localhost:8080/reset-password?token=" + user.getPasswordResetToken())));
     }
 
     @Test
@@ -207,6 +222,7 @@ class AuthServiceImplTest {
         verify(userRepository).findByPasswordResetToken(token);
         verify(passwordEncoder).encode(newPassword);
         verify(userRepository).save(any(User.class));
+        verify(userPrincipalCache).invalidate(user.getId(), user.getEmail());
     }
 
     @Test
@@ -236,7 +252,7 @@ class AuthServiceImplTest {
     }
 
     @Test
-    void whenRegisterAndSendMailFails_thenStillRegistersUser() {
+    void whenRegisterAndOutboxWriteFails_thenThrowException() {
         RegisterRequestDTO registerRequest = new RegisterRequestDTO();
         registerRequest.setEmail("failmail@example.com");
         registerRequest.setPassword("password123");
@@ -245,16 +261,16 @@ class AuthServiceImplTest {
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArgument(0));
-        doThrow(new RuntimeException("Mail error")).when(mailService)
-                .sendActivationEmail(anyString(), anyString(), anyString());
+        doThrow(new RuntimeException("Outbox error")).when(outboxService)
+                .enqueue(eq(OutboxEventType.ACTIVATION_EMAIL), anyString(), any());
 
-        assertDoesNotThrow(() -> authService.register(registerRequest));
+        // The exception rolls back the registration, so no user exists without its activation email.
+        assertThrows(RuntimeException.class, () -> authService.register(registerRequest));
         verify(userRepository).save(any(User.class));
-        verify(mailService).sendActivationEmail(anyString(), anyString(), anyString());
     }
 
     @Test
-    void whenRequestPasswordResetAndSendMailFails_thenStillUpdatesUser() {
+    void whenRequestPasswordResetAndOutboxWriteFails_thenThrowException() {
         String email = "failmail@example.com";
         User user = new User();
         user.setEmail(email);
@@ -263,12 +279,11 @@ class AuthServiceImplTest {
 
         when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
         when(userRepository.save(any(User.class))).thenReturn(user);
-        doThrow(new RuntimeException("Mail error")).when(mailService)
-                .sendPasswordResetEmail(anyString(), anyString(), anyString());
+        doThrow(new RuntimeException("Outbox error")).when(outboxService)
+                .enqueue(eq(OutboxEventType.PASSWORD_RESET_EMAIL), anyString(), any());
 
-        assertDoesNotThrow(() -> authService.requestPasswordReset(email));
+        assertThrows(RuntimeException.class, () -> authService.requestPasswordReset(email));
         verify(userRepository).save(any(User.class));
-        verify(mailService).sendPasswordResetEmail(anyString(), anyString(), anyString());
     }
 
     @Test
@@ -0,0 +1,128 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.dto.stats.BestSellingProductDTO;
+import com.example.cecv_e_commerce.domain.dto.stats.DailyProductSalesDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BestSellerLeaderboardTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+
+    private BestSellerLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(TODAY.atStartOfDay(ZoneOffset.UTC).toInstant().plusSeconds(3600), ZoneId.of("UTC"));
+        leaderboard = new BestSellerLeaderboard(3, clock);
+    }
+
+    @Test
+    void top_BeforeRebuild_ShouldBeEmpty() {
+        assertTrue(leaderboard.top(BestSellerLeaderboard.ALL_TIME, 3).isEmpty());
+    }
+
+    @Test
+    void top_ShouldRankByQuantityThenName() {
+        leaderboard.replace(List.of(sale(1, "Banana", 5), sale(2, "Apple", 5), sale(3, "Cherry", 9), sale(4, "Date", 1)),
+                List.of(), leaderboard.requiredSince(), leaderboard.getChangeCount());
+
+        List<BestSellingProductDTO> top = leaderboard.top(BestSellerLeaderboard.ALL_TIME, 3).orElseThrow();
+
+        assertEquals(List.of(3, 2, 1), top.stream().map(BestSellingProductDTO::getProductId).toList());
+        assertEquals(2, leaderboard.top(BestSellerLeaderboard.ALL_TIME, 2).orElseThrow().size());
+    }
+
+    @Test
+    void top_WithLimitAboveCapacity_ShouldBeEmpty() {
+        leaderboard.replace(List.of(), List.of(), leaderboard.requiredSince(), leaderboard.getChangeCount());
+
+        assertTrue(leaderboard.top(BestSellerLeaderboard.ALL_TIME, 4).isEmpty());
+    }
+
+    @Test
+    void top_ShouldOnlyCountDaysInsidePeriod() {
+        leaderboard.replace(List.of(sale(1, "Apple", 10), sale(2, "Banana", 4)),
+                List.of(daily(LocalDate.of(2024, 1, 10), 1, "Apple", 10),
+                        daily(LocalDate.of(2024, 3, 1), 2, "Banana", 4)),
+                leaderboard.requiredSince(), leaderboard.getChangeCount());
+
+        assertEquals(List.of(2), ids(BestSellerLeaderboard.MONTHLY));
+        assertEquals(List.of(2), ids(BestSellerLeaderboard.LAST_30_DAYS));
+        assertEquals(List.of(1, 2), ids(BestSellerLeaderboard.YEARLY));
+    }
+
+    @Test
+    void apply_ShouldAddAndRemoveOrderItems() {
+        leaderboard.replace(List.of(sale(1, "Apple", 2)), List.of(), leaderboard.requiredSince(),
+                leaderboard.getChangeCount());
+        assertEquals(List.of(1), ids(BestSellerLeaderboard.ALL_TIME));
+
+        leaderboard.apply(TODAY, List.of(sale(2, "Banana", 3)), 1);
+        assertEquals(List.of(2, 1), ids(BestSellerLeaderboard.ALL_TIME));
+        assertEquals(List.of(2), ids(BestSellerLeaderboard.MONTHLY));
+
+        leaderboard.apply(TODAY, List.of(sale(2, "Banana", 3)), -1);
+        assertEquals(List.of(1), ids(BestSellerLeaderboard.ALL_TIME));
+        assertEquals(List.of(), ids(BestSellerLeaderboard.MONTHLY));
+    }
+
+    @Test
+    void apply_AfterRanking_ShouldMoveOnlyTouchedEntries() {
+        leaderboard.replace(List.of(sale(1, "Apple", 5), sale(2, "Banana", 4), sale(3, "Cherry", 3), sale(4, "Date", 2)),
+                List.of(daily(TODAY, 1, "Apple", 5)), leaderboard.requiredSince(), leaderboard.getChangeCount());
+        assertEquals(List.of(1, 2, 3), ids(BestSellerLeaderboard.ALL_TIME));
+        assertEquals(List.of(1), ids(BestSellerLeaderboard.MONTHLY));
+
+        leaderboard.apply(TODAY.minusMonths(2), List.of(sale(4, "Date", 4)), 1);
+        leaderboard.apply(TODAY.minusMonths(2), List.of(sale(1, "Apple", 4)), -1);
+
+        assertEquals(List.of(4, 2, 3), ids(BestSellerLeaderboard.ALL_TIME));
+        assertEquals(List.of(1), ids(BestSellerLeaderboard.MONTHLY));
+
+        leaderboard.apply(TODAY.minusMonths(2), List.of(sale(2, "Blueberry", 0)), 1);
+
+        assertEquals("Blueberry", leaderboard.top(BestSellerLeaderboard.ALL_TIME, 3).orElseThrow().get(1).getProductName());
+    }
+
+    @Test
+    void replace_WithChangesDuringRebuild_ShouldStayStale() {
+        long changeCount = leaderboard.getChangeCount();
+        leaderboard.apply(TODAY, List.of(sale(1, "Apple", 1)), 1);
+
+        leaderboard.replace(List.of(sale(1, "Apple", 1)), List.of(), leaderboard.requiredSince(), changeCount);
+
+        assertTrue(leaderboard.isStale());
+        assertTrue(leaderboard.top(BestSellerLeaderboard.ALL_TIME, 3).isEmpty());
+    }
+
+    @Test
+    void markStale_ShouldStopServingUntilRebuilt() {
+        leaderboard.replace(List.of(sale(1, "Apple", 1)), List.of(), leaderboard.requiredSince(),
+                leaderboard.getChangeCount());
+
+        leaderboard.markStale();
+
+        assertTrue(leaderboard.top(BestSellerLeaderboard.ALL_TIME, 3).isEmpty());
+    }
+
+    private List<Integer> ids(String period) {
+        return leaderboard.top(period, 3).orElseThrow().stream().map(BestSellingProductDTO::getProductId).toList();
+    }
+
+    private static BestSellingProductDTO sale(int productId, String name, long quantity) {
+        return new BestSellingProductDTO(productId, name, null, quantity);
+    }
+
+    private static DailyProductSalesDTO daily(LocalDate day, int productId, String name, long quantity) {
+        return new DailyProductSalesDTO(day, productId, name, null, quantity);
+    }
+}
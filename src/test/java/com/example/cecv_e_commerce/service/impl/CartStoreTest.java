@@ -0,0 +1,142 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.model.Cart;
+import com.example.cecv_e_commerce.domain.model.CartItem;
+import com.example.cecv_e_commerce.domain.model.Product;
+import com.example.cecv_e_commerce.domain.model.User;
+import com.example.cecv_e_commerce.exception.BadRequestException;
+import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
+import com.example.cecv_e_commerce.repository.CartRepository;
+import com.example.cecv_e_commerce.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartStoreTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private CartStore cartStore;
+
+    private static final Integer USER_ID = 1;
+    private Cart cart;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cartStore, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cartStore, "lockStripes", 4);
+        ReflectionTestUtils.setField(cartStore, "idleTtlMs", 60000L);
+        cartStore.init();
+
+        User user = new User();
+        user.setId(USER_ID);
+        cart = new Cart();
+        cart.setId(10);
+        cart.setUser(user);
+        cart.setItems(new ArrayList<>(List.of(item(100, product(1), 2))));
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void update_WhenEnabled_ShouldLoadOnceAndWriteBehindOnFlush() {
+        ReflectionTestUtils.setField(cartStore, "enabled", true);
+        when(cartRepository.findWithItemsByUserId(USER_ID)).thenReturn(Optional.of(cart));
+
+        cartStore.update(USER_ID, state -> state.setQuantity(1, 3));
+        CartStore.CartView view = cartStore.update(USER_ID, state -> state.setQuantity(2, 1));
+
+        assertEquals(List.of(new CartStore.CartLine(100, 1, 3), new CartStore.CartLine(null, 2, 1)), view.lines());
+        verify(cartRepository, times(1)).findWithItemsByUserId(USER_ID);
+        verify(cartRepository, never()).saveAndFlush(any());
+
+        when(cartRepository.findWithItemsById(10)).thenReturn(Optional.of(cart));
+        when(productRepository.getReferenceById(2)).thenReturn(product(2));
+        when(cartRepository.saveAndFlush(cart)).thenAnswer(invocation -> {
+            cart.getItems().stream().filter(item -> item.getId() == null).forEach(item -> item.setId(101));
+            return cart;
+        });
+        cartStore.flush();
+
+        assertEquals(2, cart.getItems().size());
+        assertEquals(3, cart.getItems().get(0).getQuantity());
+        assertEquals(List.of(new CartStore.CartLine(100, 1, 3), new CartStore.CartLine(101, 2, 1)),
+                cartStore.read(USER_ID).lines());
+
+        cartStore.flush();
+        verify(cartRepository, times(1)).saveAndFlush(cart);
+    }
+
+    @Test
+    void update_WhenChangeThrows_ShouldLeaveCartUnchanged() {
+        ReflectionTestUtils.setField(cartStore, "enabled", true);
+        when(cartRepository.findWithItemsByUserId(USER_ID)).thenReturn(Optional.of(cart));
+
+        assertThrows(BadRequestException.class, () -> cartStore.update(USER_ID, state -> {
+            state.clear();
+            throw new BadRequestException("Not enough stock available.");
+        }));
+
+        assertEquals(List.of(new CartStore.CartLine(100, 1, 2)), cartStore.read(USER_ID).lines());
+        cartStore.flush();
+        verify(cartRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void update_WhenDisabled_ShouldWriteThrough() {
+        when(cartRepository.findWithItemsByUserId(USER_ID)).thenReturn(Optional.of(cart));
+        when(cartRepository.saveAndFlush(cart)).thenReturn(cart);
+
+        CartStore.CartView view = cartStore.update(USER_ID, CartStore.CartState::clear);
+
+        assertTrue(view.lines().isEmpty());
+        assertTrue(cart.getItems().isEmpty());
+        verify(cartRepository).saveAndFlush(cart);
+    }
+
+    @Test
+    void read_WhenCartMissing_ShouldThrowResourceNotFound() {
+        when(cartRepository.findWithItemsByUserId(USER_ID)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> cartStore.read(USER_ID));
+    }
+
+    private static Product product(Integer id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setQuantity(10);
+        return product;
+    }
+
+    private CartItem item(Integer id, Product product, Integer quantity) {
+        CartItem item = new CartItem();
+        item.setId(id);
+        item.setCart(cart);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
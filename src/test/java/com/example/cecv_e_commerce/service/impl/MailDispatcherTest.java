@@ -0,0 +1,155 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.enums.MailType;
+import com.example.cecv_e_commerce.service.MailDeliveryCallback;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @Mock
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    @Mock
+    private MailLogWriter mailLogWriter;
+
+    @Mock
+    private MailDeliveryCallback callback;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MailDispatcher mailDispatcher;
+
+    private static final String TEST_EMAIL = "test@example.com";
+
+    @AfterEach
+    void tearDown() {
+        if (mailDispatcher != null) {
+            mailDispatcher.stop();
+        }
+    }
+
+    @Test
+    void submit_ShouldDeliverThroughSmtpAndLogSent() throws Exception {
+        JavaMailSenderImpl smtpSender = new JavaMailSenderImpl();
+        smtpSender.setHost("localhost");
+        smtpSender.setPort(ServerSetupTest.SMTP.getPort());
+        when(mailTemplateRenderer.render(anyString(), anyMap())).thenReturn("<html>Test</html>");
+        startDispatcher(smtpSender, 10);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(mailDispatcher.submit(mail("user" + i + "@example.com")));
+        }
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 3));
+        MimeMessage received = greenMail.getReceivedMessages()[0];
+        assertEquals("Activate Your Account", received.getSubject());
+        verify(mailLogWriter, timeout(5000).times(3))
+                .logMailEvent(eq(1), anyString(), eq(MailType.ACTIVATION), eq(true), isNull());
+        verify(callback, timeout(5000).times(3)).delivered();
+        assertEquals(3.0, meterRegistry.counter("mail.sent").count());
+    }
+
+    @Test
+    void submit_WhenSendFails_ShouldReportFailureWithoutRetrying() {
+        when(mailTemplateRenderer.render(anyString(), anyMap())).thenReturn("<html>Test</html>");
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(MimeMessage[].class));
+        startDispatcher(mailSender, 10);
+
+        mailDispatcher.submit(mail(TEST_EMAIL));
+
+        verify(callback, timeout(5000)).failed("Connection refused");
+        verify(mailLogWriter).logMailEvent(1, TEST_EMAIL, MailType.ACTIVATION, false, "Connection refused");
+        verify(mailSender).send(any(MimeMessage[].class));
+        verify(callback, never()).delivered();
+    }
+
+    @Test
+    void submit_WhenTemplateFails_ShouldReportFailureAndSendTheRest() {
+        when(mailTemplateRenderer.render(anyString(), anyMap()))
+                .thenThrow(new IllegalStateException("Unknown template"))
+                .thenReturn("<html>Test</html>");
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        startDispatcher(mailSender, 10);
+
+        mailDispatcher.deliver(List.of(mail("broken@example.com"), mail(TEST_EMAIL)));
+
+        verify(callback).failed("Unknown template");
+        verify(callback).delivered();
+        verify(mailLogWriter).logMailEvent(1, "broken@example.com", MailType.ACTIVATION, false, "Unknown template");
+        verify(mailLogWriter).logMailEvent(1, TEST_EMAIL, MailType.ACTIVATION, true, null);
+    }
+
+    @Test
+    void submit_WhenQueueFull_ShouldRejectAndLogFailure() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mailTemplateRenderer.render(anyString(), anyMap())).thenReturn("<html>Test</html>");
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(mailSender).send(any(MimeMessage[].class));
+        startDispatcher(mailSender, 1);
+
+        assertTrue(mailDispatcher.submit(mail("first@example.com")));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        assertTrue(mailDispatcher.submit(mail("second@example.com")));
+        boolean accepted = mailDispatcher.submit(mail("third@example.com"));
+        release.countDown();
+
+        assertFalse(accepted);
+        verify(mailLogWriter).logMailEvent(1, "third@example.com", MailType.ACTIVATION, false, "Mail queue is full");
+        assertEquals(1.0, meterRegistry.counter("mail.rejected").count());
+        verify(callback, never()).failed(anyString());
+    }
+
+    private void startDispatcher(JavaMailSender sender, int queueCapacity) {
+        mailDispatcher = new MailDispatcher();
+        ReflectionTestUtils.setField(mailDispatcher, "mailSender", sender);
+        ReflectionTestUtils.setField(mailDispatcher, "mailTemplateRenderer", mailTemplateRenderer);
+        ReflectionTestUtils.setField(mailDispatcher, "mailLogWriter", mailLogWriter);
+        ReflectionTestUtils.setField(mailDispatcher, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(mailDispatcher, "mailFrom", "noreply@example.com");
+        ReflectionTestUtils.setField(mailDispatcher, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(mailDispatcher, "workers", 1);
+        ReflectionTestUtils.setField(mailDispatcher, "batchSize", 20);
+        ReflectionTestUtils.setField(mailDispatcher, "shutdownTimeoutMs", 1000L);
+        mailDispatcher.start();
+    }
+
+    private OutgoingMail mail(String to) {
+        return new OutgoingMail(1, to, "Activate Your Account", "activation-email",
+                Map.of("name", "Test User", "activationLink", "http://test.com/activate"), MailType.ACTIVATION, callback);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.enums.MailType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MailLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private MailLogWriter mailLogWriter;
+
+    private static final String TEST_EMAIL = "test@example.com";
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(mailLogWriter, "batchSize", 3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void logMailEvent_ShouldBufferUntilFlush() {
+        mailLogWriter.logMailEvent(1, TEST_EMAIL, MailType.ACTIVATION, true, null);
+        verifyNoInteractions(jdbcTemplate);
+
+        mailLogWriter.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        Object[] row = captor.getValue().get(0);
+        assertEquals(1, row[0]);
+        assertEquals(TEST_EMAIL, row[1]);
+        assertEquals("ACTIVATION", row[2]);
+        assertEquals("SENT", row[3]);
+        assertNull(row[4]);
+        assertNotNull(row[5]);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void logMailEvent_WhenBatchSizeReached_ShouldWriteOneBatch() {
+        for (int i = 0; i < 3; i++) {
+            mailLogWriter.logMailEvent(i, "user" + i + "@example.com", MailType.MONTHLY_REPORT, true, null);
+        }
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        assertEquals(3, captor.getValue().size());
+
+        mailLogWriter.flush();
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void logMailEvent_WithLongErrorMessage_ShouldTruncateErrorMessage() {
+        mailLogWriter.logMailEvent(null, TEST_EMAIL, MailType.FORGOT_PASSWORD, false, "a".repeat(2500));
+        mailLogWriter.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        Object[] row = captor.getValue().get(0);
+        assertNull(row[0]);
+        assertEquals("FAILED", row[3]);
+        assertEquals(2000, ((String) row[4]).length());
+    }
+
+    @Test
+    void flush_WhenInsertFails_ShouldNotThrowException() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("DB down"));
+        mailLogWriter.logMailEvent(1, TEST_EMAIL, MailType.ACTIVATION, true, null);
+
+        assertDoesNotThrow(() -> mailLogWriter.flush());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Messages rendered per second with and without precompiled templates.
+ * Run with {@code mvn test -Dtest=MailTemplateRendererBenchmarkTest -Dmail.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "mail.benchmark", matches = "true")
+class MailTemplateRendererBenchmarkTest {
+
+    private static final int WARMUP_MESSAGES = 20_000;
+    private static final int MEASURED_MESSAGES = 100_000;
+
+    @Test
+    void renderThroughput() {
+        double thymeleaf = messagesPerSecond(false);
+        double precompiled = messagesPerSecond(true);
+
+        System.out.printf("activation-email: Thymeleaf %.0f msg/s, precompiled %.0f msg/s (x%.1f)%n",
+                thymeleaf, precompiled, precompiled / thymeleaf);
+        assertTrue(precompiled > thymeleaf);
+    }
+
+    private double messagesPerSecond(boolean precompile) {
+        SpringTemplateEngine templateEngine = MailTemplateRendererTest.createTemplateEngine();
+        MailTemplateRenderer renderer = new MailTemplateRenderer();
+        ReflectionTestUtils.setField(renderer, "templateEngine", templateEngine);
+        ReflectionTestUtils.setField(renderer, "precompile", precompile);
+
+        long checksum = render(renderer, WARMUP_MESSAGES);
+        long start = System.nanoTime();
+        checksum += render(renderer, MEASURED_MESSAGES);
+        long elapsed = System.nanoTime() - start;
+        assertTrue(checksum > 0);
+        return MEASURED_MESSAGES / (elapsed / 1_000_000_000.0);
+    }
+
+    private long render(MailTemplateRenderer renderer, int messages) {
+        long checksum = 0;
+        for (int i = 0; i < messages; i++) {
+            Map<String, Object> variables = MailTemplateRendererTest.variables(
+                    "User " + i, "http://localhost:8080/activate?token=" + i);
+            checksum += renderer.render("activation-email", variables).length();
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class MailTemplateRendererTest {
+
+    private SpringTemplateEngine templateEngine;
+    private MailTemplateRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        templateEngine = spy(createTemplateEngine());
+        renderer = new MailTemplateRenderer();
+        ReflectionTestUtils.setField(renderer, "templateEngine", templateEngine);
+        ReflectionTestUtils.setField(renderer, "precompile", true);
+    }
+
+    @Test
+    void render_ShouldMatchThymeleafOutput() {
+        Map<String, Object> variables = variables("Nguyễn <Văn> & 'A'", "http://localhost:8080/activate?token=a&b=\"c\"");
+
+        String expected = process("activation-email", variables);
+
+        assertEquals(expected, renderer.render("activation-email", variables));
+        assertEquals(expected, renderer.render("activation-email", variables));
+    }
+
+    @Test
+    void render_ShouldProcessTemplateOnlyToCompileIt() {
+        Map<String, String> links = Map.of("first", "http://a/1", "second", "http://a/2", "third", "http://a/3");
+        for (Map.Entry<String, String> entry : links.entrySet()) {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("name", entry.getKey());
+            variables.put("resetLink", entry.getValue());
+
+            String html = renderer.render("password-reset-email", variables);
+
+            assertTrue(html.contains("href=\"" + entry.getValue() + "\""));
+            assertTrue(html.contains(entry.getKey()));
+        }
+
+        // One render with slot markers and one probe render to verify the compiled form.
+        verify(templateEngine, times(2)).process(anyString(), any(IContext.class));
+    }
+
+    @Test
+    void render_WithNullValue_ShouldFallBackToThymeleaf() {
+        Map<String, Object> variables = variables("Test User", null);
+
+        assertEquals(process("activation-email", variables), renderer.render("activation-email", variables));
+    }
+
+    @Test
+    void render_WhenPrecompileDisabled_ShouldUseThymeleaf() {
+        ReflectionTestUtils.setField(renderer, "precompile", false);
+        Map<String, Object> variables = variables("Test User", "http://localhost:8080/activate?token=t");
+
+        renderer.render("activation-email", variables);
+        renderer.render("activation-email", variables);
+
+        verify(templateEngine, times(2)).process(anyString(), any(IContext.class));
+    }
+
+    static SpringTemplateEngine createTemplateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+
+    static Map<String, Object> variables(String name, String activationLink) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("name", name);
+        variables.put("activationLink", activationLink);
+        return variables;
+    }
+
+    private String process(String template, Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariables(variables);
+        return createTemplateEngine().process(template, context);
+    }
+}
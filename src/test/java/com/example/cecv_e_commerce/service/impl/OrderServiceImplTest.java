@@ -0,0 +1,147 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.dto.order.OrderItemRequestCreateDTO;
+import com.example.cecv_e_commerce.domain.dto.order.OrderItemRowDTO;
+import com.example.cecv_e_commerce.domain.dto.order.OrderRequestDTO;
+import com.example.cecv_e_commerce.domain.dto.order.OrderResponseDTO;
+import com.example.cecv_e_commerce.domain.dto.order.OrderSummaryRowDTO;
+import com.example.cecv_e_commerce.domain.dto.order.OrderShippingRequestCreateDTO;
+import com.example.cecv_e_commerce.domain.enums.OrderStatusEnum;
+import com.example.cecv_e_commerce.domain.model.Product;
+import com.example.cecv_e_commerce.domain.model.User;
+import com.example.cecv_e_commerce.exception.BadRequestException;
+import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
+import com.example.cecv_e_commerce.repository.OrderItemRepository;
+import com.example.cecv_e_commerce.repository.OrderPaymentRepository;
+import com.example.cecv_e_commerce.repository.OrderRepository;
+import com.example.cecv_e_commerce.repository.OrderShippingRepository;
+import com.example.cecv_e_commerce.repository.ProductRepository;
+import com.example.cecv_e_commerce.service.StockHoldService;
+import com.example.cecv_e_commerce.service.StockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private OrderShippingRepository orderShippingRepository;
+
+    @Mock
+    private OrderPaymentRepository orderPaymentRepository;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private StockHoldService stockHoldService;
+
+    @Mock
+    private ProductCatalogCache productCatalogCache;
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(1);
+        SecurityContextHolder.setContext(new SecurityContextImpl(new UsernamePasswordAuthenticationToken(user, null)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getOrderById_ShouldBuildResponseFromProjections() {
+        when(orderRepository.findSummaryById(5)).thenReturn(Optional.of(summary(1, OrderStatusEnum.PENDING)));
+        when(orderItemRepository.findRowsByOrderId(5)).thenReturn(List.of(
+                new OrderItemRowDTO(11, 5, 2, "Phone", "Description", BigDecimal.TEN, 7, 9.5, 3)));
+
+        OrderResponseDTO response = orderService.getOrderById(5);
+
+        assertEquals(5, response.id());
+        assertEquals(1, response.userId());
+        assertEquals(1, response.numberOfOrders());
+        assertEquals(3, response.orderItems().get(0).quantity());
+        assertEquals("Phone", response.orderItems().get(0).product().name());
+        assertEquals("Hanoi", response.orderShipping().city());
+        assertNull(response.orderPayment());
+        verify(orderRepository, never()).findById(any());
+        verify(orderRepository, never()).findWithDetailsById(any());
+    }
+
+    @Test
+    void getOrderById_WhenOrderBelongsToAnotherUser_ShouldThrowNotFound() {
+        when(orderRepository.findSummaryById(5)).thenReturn(Optional.of(summary(2, OrderStatusEnum.PENDING)));
+
+        assertThrows(ResourceNotFoundException.class, () -> orderService.getOrderById(5));
+        verifyNoInteractions(orderItemRepository);
+    }
+
+    @Test
+    void getOrderById_WhenOrderIsNotPending_ShouldThrowBadRequest() {
+        when(orderRepository.findSummaryById(5)).thenReturn(Optional.of(summary(1, OrderStatusEnum.SHIPPED)));
+
+        assertThrows(BadRequestException.class, () -> orderService.getOrderById(5));
+        verifyNoInteractions(orderItemRepository);
+    }
+
+    @Test
+    void createOrder_ShouldReserveOnlyWhatHoldsDoNotCover() {
+        Product phone = product(1);
+        Product cover = product(2);
+        when(stockHoldService.convert(1, Map.of(1, 3, 2, 1))).thenReturn(Map.of(1, 2, 2, 1));
+        when(stockReservationService.reserve(Map.of(1, 1))).thenReturn(Map.of(1, phone));
+        when(productRepository.findAllById(List.of(2))).thenReturn(List.of(cover));
+
+        OrderResponseDTO response = orderService.createOrder(new OrderRequestDTO(
+                List.of(new OrderItemRequestCreateDTO(1, 3, 10.0, null), new OrderItemRequestCreateDTO(2, 1, 5.0, null)),
+                new OrderShippingRequestCreateDTO("Recipient", "0900000000", "1 Street", null, "Hanoi", "100000",
+                        "VN", "STANDARD", 2.0)));
+
+        assertEquals(List.of(1, 2), response.orderItems().stream().map(item -> item.product().id()).toList());
+        verify(productCatalogCache).evictProducts(Set.of(1, 2));
+    }
+
+    private static Product product(Integer id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(BigDecimal.TEN);
+        return product;
+    }
+
+    private static OrderSummaryRowDTO summary(Integer userId, OrderStatusEnum status) {
+        return new OrderSummaryRowDTO(5, userId, status, 8, "Recipient", "0900000000", "1 Street", null,
+                "Hanoi", "100000", "VN", "STANDARD", 2.0, null, null, null, null, null, null);
+    }
+}
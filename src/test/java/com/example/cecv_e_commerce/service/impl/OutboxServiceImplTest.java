@@ -0,0 +1,188 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.dto.outbox.MailEventPayloadDTO;
+import com.example.cecv_e_commerce.domain.enums.OutboxEventType;
+import com.example.cecv_e_commerce.domain.enums.OutboxStatus;
+import com.example.cecv_e_commerce.domain.model.OutboxEvent;
+import com.example.cecv_e_commerce.repository.OutboxEventRepository;
+import com.example.cecv_e_commerce.service.MailDeliveryCallback;
+import com.example.cecv_e_commerce.service.MailService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceImplTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private MailService mailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private OutboxServiceImpl outboxService;
+
+    private static final String DEDUP_KEY = "ACTIVATION_EMAIL:token";
+    private static final MailEventPayloadDTO PAYLOAD =
+            new MailEventPayloadDTO(1, "test@example.com", "Test User", "http://localhost:8080/activate?token=token");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxService, "retryBackoffMs", 1000L);
+        ReflectionTestUtils.setField(outboxService, "leaseMs", 60000L);
+        outboxService.init();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void enqueue_ShouldSavePendingEventWithJsonPayload() throws Exception {
+        when(outboxEventRepository.existsByDedupKey(DEDUP_KEY)).thenReturn(false);
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+
+        outboxService.enqueue(OutboxEventType.ACTIVATION_EMAIL, DEDUP_KEY, PAYLOAD);
+
+        verify(outboxEventRepository).save(captor.capture());
+        OutboxEvent event = captor.getValue();
+        assertEquals(OutboxEventType.ACTIVATION_EMAIL, event.getEventType());
+        assertEquals(OutboxStatus.PENDING, event.getStatus());
+        assertEquals(DEDUP_KEY, event.getDedupKey());
+        assertEquals(PAYLOAD, objectMapper.readValue(event.getPayload(), MailEventPayloadDTO.class));
+        assertNotNull(event.getAvailableAt());
+    }
+
+    @Test
+    void enqueue_WithExistingDedupKey_ShouldSkip() {
+        when(outboxEventRepository.existsByDedupKey(DEDUP_KEY)).thenReturn(true);
+
+        outboxService.enqueue(OutboxEventType.ACTIVATION_EMAIL, DEDUP_KEY, PAYLOAD);
+
+        verify(outboxEventRepository, never()).save(any(OutboxEvent.class));
+    }
+
+    @Test
+    void dispatchDueEvents_ShouldClaimThenQueueOutsideTheTransactionThenMarkProcessedOnDelivery() throws Exception {
+        OutboxEvent event = event(OutboxEventType.ACTIVATION_EMAIL, 0);
+        when(outboxEventRepository.lockDueEvents(any(LocalDateTime.class), eq(10))).thenReturn(List.of(event));
+        when(outboxEventRepository.completeClaim(eq(1L), eq(1), eq(OutboxStatus.PROCESSED), any(), any(), isNull()))
+                .thenReturn(1);
+
+        assertEquals(1, outboxService.dispatchDueEvents(10));
+
+        assertEquals(OutboxStatus.IN_FLIGHT, event.getStatus());
+        assertEquals(1, event.getAttempts());
+        assertTrue(event.getAvailableAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+        ArgumentCaptor<MailDeliveryCallback> callback = ArgumentCaptor.forClass(MailDeliveryCallback.class);
+        InOrder inOrder = inOrder(transactionManager, mailService);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(mailService).sendActivationEmail(eq(PAYLOAD.getUserId()), eq(PAYLOAD.getTo()),
+                eq(PAYLOAD.getName()), eq(PAYLOAD.getLink()), callback.capture());
+        verify(outboxEventRepository, never()).completeClaim(any(), anyInt(), any(), any(), any(), any());
+
+        callback.getValue().delivered();
+
+        inOrder.verify(transactionManager).getTransaction(any());
+        verify(outboxEventRepository).completeClaim(eq(1L), eq(1), eq(OutboxStatus.PROCESSED), any(),
+                any(LocalDateTime.class), isNull());
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void dispatchDueEvents_WhenDeliveryFails_ShouldRescheduleWithBackoff() throws Exception {
+        OutboxEvent event = event(OutboxEventType.PASSWORD_RESET_EMAIL, 1);
+        when(outboxEventRepository.lockDueEvents(any(LocalDateTime.class), eq(10))).thenReturn(List.of(event));
+        ArgumentCaptor<LocalDateTime> availableAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(outboxEventRepository.completeClaim(eq(1L), eq(2), eq(OutboxStatus.PENDING), availableAt.capture(),
+                isNull(), eq("Connection refused"))).thenReturn(1);
+        ArgumentCaptor<MailDeliveryCallback> callback = ArgumentCaptor.forClass(MailDeliveryCallback.class);
+
+        outboxService.dispatchDueEvents(10);
+        verify(mailService).sendPasswordResetEmail(eq(PAYLOAD.getUserId()), eq(PAYLOAD.getTo()),
+                eq(PAYLOAD.getName()), eq(PAYLOAD.getLink()), callback.capture());
+        callback.getValue().failed("Connection refused");
+
+        assertTrue(availableAt.getValue().isAfter(LocalDateTime.now().plusNanos(1_500_000_000)));
+    }
+
+    @Test
+    void dispatchDueEvents_WhenMailQueueFull_ShouldRescheduleWithBackoff() throws Exception {
+        OutboxEvent event = event(OutboxEventType.PASSWORD_RESET_EMAIL, 0);
+        when(outboxEventRepository.lockDueEvents(any(LocalDateTime.class), eq(10))).thenReturn(List.of(event));
+        doThrow(new MailSendException("Mail queue is full")).when(mailService).sendPasswordResetEmail(
+                eq(PAYLOAD.getUserId()), eq(PAYLOAD.getTo()), eq(PAYLOAD.getName()), eq(PAYLOAD.getLink()), any());
+        when(outboxEventRepository.completeClaim(eq(1L), eq(1), eq(OutboxStatus.PENDING), any(LocalDateTime.class),
+                isNull(), eq("Mail queue is full"))).thenReturn(1);
+
+        outboxService.dispatchDueEvents(10);
+
+        verify(outboxEventRepository).completeClaim(eq(1L), eq(1), eq(OutboxStatus.PENDING), any(LocalDateTime.class),
+                isNull(), eq("Mail queue is full"));
+    }
+
+    @Test
+    void dispatchDueEvents_WhenAttemptsExhausted_ShouldMarkFailed() throws Exception {
+        OutboxEvent event = event(OutboxEventType.ACTIVATION_EMAIL, 2);
+        when(outboxEventRepository.lockDueEvents(any(LocalDateTime.class), eq(10))).thenReturn(List.of(event));
+        when(outboxEventRepository.completeClaim(eq(1L), eq(3), eq(OutboxStatus.FAILED), any(), isNull(),
+                eq("Connection refused"))).thenReturn(1);
+        ArgumentCaptor<MailDeliveryCallback> callback = ArgumentCaptor.forClass(MailDeliveryCallback.class);
+
+        outboxService.dispatchDueEvents(10);
+        verify(mailService).sendActivationEmail(eq(PAYLOAD.getUserId()), eq(PAYLOAD.getTo()),
+                eq(PAYLOAD.getName()), eq(PAYLOAD.getLink()), callback.capture());
+        callback.getValue().failed("Connection refused");
+
+        verify(outboxEventRepository).completeClaim(eq(1L), eq(3), eq(OutboxStatus.FAILED), any(), isNull(),
+                eq("Connection refused"));
+    }
+
+    @Test
+    void dispatchDueEvents_WhenLeaseExpiredOnLastAttempt_ShouldGiveUpWithoutSending() throws Exception {
+        OutboxEvent event = event(OutboxEventType.ACTIVATION_EMAIL, 3);
+        event.setStatus(OutboxStatus.IN_FLIGHT);
+        when(outboxEventRepository.lockDueEvents(any(LocalDateTime.class), eq(10))).thenReturn(List.of(event));
+
+        assertEquals(1, outboxService.dispatchDueEvents(10));
+
+        assertEquals(OutboxStatus.FAILED, event.getStatus());
+        assertEquals(3, event.getAttempts());
+        verifyNoInteractions(mailService);
+        verify(outboxEventRepository, never()).completeClaim(any(), anyInt(), any(), any(), any(), any());
+    }
+
+    private OutboxEvent event(OutboxEventType type, int attempts) throws Exception {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(1L);
+        event.setEventType(type);
+        event.setDedupKey(DEDUP_KEY);
+        event.setPayload(objectMapper.writeValueAsString(PAYLOAD));
+        event.setAttempts(attempts);
+        event.setAvailableAt(LocalDateTime.now());
+        return event;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.dto.product.ProductDetailDTO;
+import com.example.cecv_e_commerce.mapper.CategoryMapper;
+import com.example.cecv_e_commerce.mapper.ProductMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCatalogCacheTest {
+
+    private final ProductCatalogCache productCatalogCache = new ProductCatalogCache(
+            new ProductMapper(new CategoryMapper()), 100, 10, 60000, new SimpleMeterRegistry());
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ProductDetailDTO load(Integer productId) {
+        loads.incrementAndGet();
+        ProductDetailDTO dto = new ProductDetailDTO();
+        dto.setId(productId);
+        dto.setQuantity(10);
+        return dto;
+    }
+
+    @Test
+    void getDetails_ShouldLoadOnceAndReturnIndependentCopies() {
+        ProductDetailDTO first = productCatalogCache.getDetails(1, this::load);
+        first.setQuantity(0);
+
+        ProductDetailDTO second = productCatalogCache.getDetails(1, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(10, second.getQuantity());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void evictProducts_ShouldForceReload() {
+        productCatalogCache.getDetails(1, this::load);
+
+        productCatalogCache.evictProducts(List.of(1));
+        productCatalogCache.getDetails(1, this::load);
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.dto.product.SearchProductRequestDTO;
+import com.example.cecv_e_commerce.domain.model.Category;
+import com.example.cecv_e_commerce.domain.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private final Pageable pageable = PageRequest.of(0, 12, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        productSearchIndex = new ProductSearchIndex();
+        productSearchIndex.rebuild(List.of(
+                product(1, "Điện thoại Samsung Galaxy", "Smartphone android", 1, "100.00"),
+                product(2, "Ốp lưng Samsung", "Phụ kiện cho điện thoại", 2, "5.00"),
+                product(3, "iPhone 15", "Apple phone", 1, "900.00")));
+    }
+
+    @Test
+    void search_WithPrefixAndAccentlessKeyword_ShouldMatchAllTokens() {
+        assertEquals(List.of(1, 2), search("dien thoai", null, null).productIds());
+        assertEquals(List.of(1, 2), search("sam", null, null).productIds());
+        assertEquals(List.of(3), search("iph", null, null).productIds());
+    }
+
+    @Test
+    void search_WithInfixKeyword_ShouldMatchLikeSubstringSearch() {
+        assertEquals(List.of(1, 3), search("phone", null, null).productIds().stream().sorted().toList());
+        assertEquals(List.of(1), search("droi", null, null).productIds());
+        assertEquals(List.of(1, 2, 3), search("ho", null, null).productIds().stream().sorted().toList());
+    }
+
+    @Test
+    void search_ShouldRankPrefixMatchesAboveInfixMatches() {
+        productSearchIndex.index(List.of(product(4, "Phone stand", "Desk stand", 2, "10.00"),
+                product(5, "Headphone", "Wired", 2, "10.00")));
+
+        List<Integer> ids = search("phone", 2, null).productIds();
+
+        assertEquals(List.of(4, 5), ids);
+    }
+
+    @Test
+    void search_AfterReindex_ShouldDropGramsOfRemovedTerms() {
+        Product renamed = product(3, "Pixel 9", "Google", 1, "900.00");
+        productSearchIndex.index(List.of(renamed));
+
+        assertEquals(List.of(1), search("phone", null, null).productIds());
+        assertEquals(List.of(3), search("ixel", null, null).productIds());
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesAboveDescriptionMatches() {
+        Product accessory = product(4, "Galaxy case", "Fits samsung phones", 2, "10.00");
+        productSearchIndex.index(List.of(accessory));
+
+        List<Integer> ids = search("samsung", null, null).productIds();
+
+        assertEquals(4, ids.get(ids.size() - 1));
+    }
+
+    @Test
+    void search_ShouldApplyCategoryAndPriceFilters() {
+        assertEquals(List.of(2), search("samsung", null, new BigDecimal("50")).productIds());
+        assertEquals(List.of(1), search("samsung", 1, null).productIds());
+    }
+
+    @Test
+    void search_AfterRemove_ShouldNotReturnProduct() {
+        productSearchIndex.remove(2);
+
+        ProductSearchIndex.SearchHits hits = search("samsung", null, null);
+
+        assertEquals(List.of(1), hits.productIds());
+        assertEquals(1, hits.totalElements());
+    }
+
+    @Test
+    void search_WithUnindexedSortProperty_ShouldFallBack() {
+        SearchProductRequestDTO criteria = new SearchProductRequestDTO();
+        criteria.setKeyword("samsung");
+
+        assertTrue(productSearchIndex.search(criteria, PageRequest.of(0, 12, Sort.by("quantity"))).isEmpty());
+    }
+
+    private ProductSearchIndex.SearchHits search(String keyword, Integer categoryId, BigDecimal maxPrice) {
+        SearchProductRequestDTO criteria = new SearchProductRequestDTO();
+        criteria.setKeyword(keyword);
+        criteria.setCategoryId(categoryId);
+        criteria.setMaxPrice(maxPrice);
+        return productSearchIndex.search(criteria, pageable).orElseThrow();
+    }
+
+    private Product product(int id, String name, String description, int categoryId, String price) {
+        Category category = new Category();
+        category.setId(categoryId);
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        product.setCategory(category);
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+}
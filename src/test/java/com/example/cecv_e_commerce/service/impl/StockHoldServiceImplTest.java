@@ -0,0 +1,176 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.model.StockHold;
+import com.example.cecv_e_commerce.repository.StockHoldRepository;
+import com.example.cecv_e_commerce.service.StockReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockHoldServiceImplTest {
+
+    @Mock
+    private StockHoldRepository stockHoldRepository;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private ProductCatalogCache productCatalogCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StockHoldServiceImpl stockHoldService;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldService = new StockHoldServiceImpl(stockHoldRepository, stockReservationService,
+                productCatalogCache, meterRegistry, transactionManager);
+        ReflectionTestUtils.setField(stockHoldService, "enabled", true);
+        ReflectionTestUtils.setField(stockHoldService, "ttlMs", 60000L);
+        stockHoldService.init();
+    }
+
+    @Test
+    void add_ShouldLockTheHoldBeforeTakingStock() {
+        stockHoldService.add(1, 7, 2);
+
+        InOrder inOrder = inOrder(stockReservationService, stockHoldRepository);
+        inOrder.verify(stockHoldRepository).addQuantity(eq(1), eq(7), eq(2), any(LocalDateTime.class));
+        inOrder.verify(stockReservationService).adjustStock(7, 2);
+        verify(productCatalogCache).evictProducts(List.of(7));
+    }
+
+    @Test
+    void set_ShouldOnlyMoveTheDifference() {
+        StockHold hold = hold(1, 7, 5);
+        when(stockHoldRepository.findByUserIdAndProductIdWithLock(1, 7)).thenReturn(Optional.of(hold));
+
+        stockHoldService.set(1, 7, 3);
+
+        verify(stockReservationService).adjustStock(7, -2);
+        assertEquals(3, hold.getQuantity());
+        verify(stockHoldRepository).save(hold);
+    }
+
+    @Test
+    void set_ToZero_ShouldReturnStockAndDeleteHold() {
+        StockHold hold = hold(1, 7, 5);
+        when(stockHoldRepository.findByUserIdAndProductIdWithLock(1, 7)).thenReturn(Optional.of(hold));
+
+        stockHoldService.set(1, 7, 0);
+
+        verify(stockReservationService).adjustStock(7, -5);
+        verify(stockHoldRepository).delete(hold);
+        verify(stockHoldRepository, never()).save(any());
+    }
+
+    @Test
+    void convert_ShouldUseHoldsUpToTheOrderedQuantity() {
+        StockHold partlyUsed = hold(1, 7, 5);
+        StockHold usedUp = hold(1, 8, 1);
+        when(stockHoldRepository.findByUserIdAndProductIdInWithLock(1, Set.of(7, 8, 9)))
+                .thenReturn(List.of(partlyUsed, usedUp));
+
+        Map<Integer, Integer> converted = stockHoldService.convert(1, Map.of(7, 2, 8, 4, 9, 1));
+
+        assertEquals(Map.of(7, 2, 8, 1), converted);
+        assertEquals(3, partlyUsed.getQuantity());
+        verify(stockHoldRepository).delete(usedUp);
+        verifyNoInteractions(stockReservationService);
+    }
+
+    @Test
+    void convert_WhenDisabled_ShouldNotTouchHolds() {
+        ReflectionTestUtils.setField(stockHoldService, "enabled", false);
+
+        assertTrue(stockHoldService.convert(1, Map.of(7, 2)).isEmpty());
+
+        verifyNoInteractions(stockHoldRepository);
+    }
+
+    @Test
+    void releaseExpired_ShouldReturnStockOncePerProductInItsOwnTransaction() {
+        StockHold first = hold(11, 1, 8, 2);
+        StockHold second = hold(12, 2, 7, 1);
+        StockHold third = hold(13, 3, 8, 4);
+        when(stockHoldRepository.findExpired(any(LocalDateTime.class), eq(PageRequest.of(0, 10))))
+                .thenReturn(List.of(first, second, third));
+        when(stockHoldRepository.findExpiredByIdInWithLock(eq(List.of(12)), any(LocalDateTime.class)))
+                .thenReturn(List.of(second));
+        when(stockHoldRepository.findExpiredByIdInWithLock(eq(List.of(11, 13)), any(LocalDateTime.class)))
+                .thenReturn(List.of(first, third));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        assertEquals(3, stockHoldService.releaseExpired(10));
+
+        InOrder inOrder = inOrder(stockReservationService, stockHoldRepository);
+        inOrder.verify(stockReservationService).adjustStock(7, -1);
+        inOrder.verify(stockHoldRepository).deleteAllInBatch(List.of(second));
+        inOrder.verify(stockReservationService).adjustStock(8, -6);
+        inOrder.verify(stockHoldRepository).deleteAllInBatch(List.of(first, third));
+        verify(transactionManager, times(2)).commit(any());
+        verify(productCatalogCache).evictProducts(Set.of(7));
+        verify(productCatalogCache).evictProducts(Set.of(8));
+        assertEquals(3.0, meterRegistry.get("stock.holds.expired").counter().count());
+    }
+
+    @Test
+    void releaseExpired_WhenOneProductConflicts_ShouldStillReleaseTheOthers() {
+        StockHold conflicted = hold(11, 1, 7, 2);
+        StockHold released = hold(12, 2, 8, 3);
+        when(stockHoldRepository.findExpired(any(LocalDateTime.class), eq(PageRequest.of(0, 10))))
+                .thenReturn(List.of(conflicted, released));
+        when(stockHoldRepository.findExpiredByIdInWithLock(eq(List.of(11)), any(LocalDateTime.class)))
+                .thenReturn(List.of(conflicted));
+        when(stockHoldRepository.findExpiredByIdInWithLock(eq(List.of(12)), any(LocalDateTime.class)))
+                .thenReturn(List.of(released));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(stockReservationService.adjustStock(7, -2))
+                .thenThrow(new ObjectOptimisticLockingFailureException("Product", 7));
+
+        assertEquals(1, stockHoldService.releaseExpired(10));
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+        verify(stockHoldRepository).deleteAllInBatch(List.of(released));
+        verify(stockHoldRepository, never()).deleteAllInBatch(List.of(conflicted));
+        assertEquals(1.0, meterRegistry.get("stock.holds.expired").counter().count());
+    }
+
+    private StockHold hold(Integer id, Integer userId, Integer productId, int quantity) {
+        StockHold hold = hold(userId, productId, quantity);
+        hold.setId(id);
+        return hold;
+    }
+
+    private StockHold hold(Integer userId, Integer productId, int quantity) {
+        StockHold hold = new StockHold(userId, productId);
+        hold.setQuantity(quantity);
+        hold.setExpiresAt(LocalDateTime.now());
+        return hold;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.model.Product;
+import com.example.cecv_e_commerce.exception.BadRequestException;
+import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
+import com.example.cecv_e_commerce.repository.ProductRepository;
+import com.example.cecv_e_commerce.service.StockShardService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StockShardService stockShardService;
+
+    @InjectMocks
+    private StockReservationServiceImpl stockReservationService;
+
+    @Test
+    void reserve_ShouldLockInAscendingIdOrderAndDecrementStock() {
+        Product first = product(1, 10);
+        Product second = product(5, 3);
+        Map<Integer, Integer> requested = new LinkedHashMap<>();
+        requested.put(5, 2);
+        requested.put(1, 4);
+        when(productRepository.findAllByIdInWithLockOrderById(List.of(1, 5))).thenReturn(List.of(first, second));
+
+        Map<Integer, Product> reserved = stockReservationService.reserve(requested);
+
+        assertEquals(List.of(1, 5), List.copyOf(reserved.keySet()));
+        assertEquals(6, first.getQuantity());
+        assertEquals(1, second.getQuantity());
+        verify(productRepository, times(1)).findAllByIdInWithLockOrderById(List.of(1, 5));
+        verify(productRepository, never()).findByIdWithLock(any());
+    }
+
+    @Test
+    void reserve_WhenSeveralItemsShort_ShouldReportAllAndKeepStock() {
+        Product first = product(1, 1);
+        Product second = product(2, 0);
+        Product third = product(3, 9);
+        when(productRepository.findAllByIdInWithLockOrderById(List.of(1, 2, 3)))
+                .thenReturn(List.of(first, second, third));
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> stockReservationService.reserve(Map.of(1, 2, 2, 1, 3, 1)));
+
+        assertTrue(exception.getMessage().contains("product ID: 1 (Available: 1, Requested: 2)"));
+        assertTrue(exception.getMessage().contains("product ID: 2 (Available: 0, Requested: 1)"));
+        assertFalse(exception.getMessage().contains("product ID: 3"));
+        assertEquals(1, first.getQuantity());
+        assertEquals(0, second.getQuantity());
+        assertEquals(9, third.getQuantity());
+    }
+
+    @Test
+    void reserve_WhenProductMissing_ShouldThrowNotFound() {
+        when(productRepository.findAllByIdInWithLockOrderById(List.of(1, 2))).thenReturn(List.of(product(1, 5)));
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> stockReservationService.reserve(Map.of(1, 1, 2, 1)));
+
+        assertEquals("Product not found with id(s): 2", exception.getMessage());
+    }
+
+    @Test
+    void reserve_WithNoItems_ShouldNotQuery() {
+        assertTrue(stockReservationService.reserve(Map.of()).isEmpty());
+        verify(productRepository, never()).findAllByIdInWithLockOrderById(anyCollection());
+    }
+
+    @Test
+    void reserve_InOptimisticMode_ShouldReadWithoutLocksAndFlushVersionedUpdates() {
+        ReflectionTestUtils.setField(stockReservationService, "lockingMode", "optimistic");
+        Product first = product(1, 10);
+        Product second = product(5, 3);
+        when(productRepository.findAllByIdInOrderByIdAsc(List.of(1, 5))).thenReturn(List.of(first, second));
+
+        Map<Integer, Product> reserved = stockReservationService.reserve(Map.of(5, 2, 1, 4));
+
+        assertEquals(List.of(1, 5), List.copyOf(reserved.keySet()));
+        assertEquals(6, first.getQuantity());
+        assertEquals(1, second.getQuantity());
+        verify(productRepository).saveAllAndFlush(List.of(first, second));
+        verify(productRepository, never()).findAllByIdInWithLockOrderById(anyCollection());
+    }
+
+    @Test
+    void reserve_WithShardedProduct_ShouldTakeFromShardsWithoutLockingItsRow() {
+        Product regular = product(1, 10);
+        Product sharded = product(2, 0);
+        sharded.setStockShards(4);
+        when(productRepository.findShardedIds(List.of(1, 2))).thenReturn(List.of(2));
+        when(productRepository.findAllByIdInWithLockOrderById(List.of(1))).thenReturn(List.of(regular));
+        when(productRepository.findAllByIdInOrderByIdAsc(List.of(2))).thenReturn(List.of(sharded));
+        when(stockShardService.availableQuantities(anyCollection())).thenReturn(Map.of(1, 10, 2, 50));
+        when(stockShardService.take(sharded, 3)).thenReturn(true);
+
+        Map<Integer, Product> reserved = stockReservationService.reserve(Map.of(1, 2, 2, 3));
+
+        assertEquals(List.of(1, 2), List.copyOf(reserved.keySet()));
+        assertEquals(8, regular.getQuantity());
+        assertEquals(0, sharded.getQuantity());
+        verify(stockShardService).take(sharded, 3);
+    }
+
+    @Test
+    void reserve_WhenShardedStockShort_ShouldReportAvailableTotal() {
+        Product sharded = product(2, 0);
+        sharded.setStockShards(4);
+        when(productRepository.findShardedIds(List.of(2))).thenReturn(List.of(2));
+        when(productRepository.findAllByIdInOrderByIdAsc(List.of(2))).thenReturn(List.of(sharded));
+        when(stockShardService.availableQuantities(anyCollection())).thenReturn(Map.of(2, 1));
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> stockReservationService.reserve(Map.of(2, 3)));
+
+        assertTrue(exception.getMessage().contains("product ID: 2 (Available: 1, Requested: 3)"));
+        verify(stockShardService, never()).take(any(), anyInt());
+    }
+
+    @Test
+    void adjustStock_InPessimisticMode_ShouldLockBeforeReadingAndDecrement() {
+        Product product = product(1, 10);
+        when(productRepository.findShardedIds(List.of(1))).thenReturn(List.of());
+        when(productRepository.findByIdWithLock(1)).thenReturn(Optional.of(product));
+
+        stockReservationService.adjustStock(1, 4);
+
+        assertEquals(6, product.getQuantity());
+        verify(productRepository).save(product);
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void adjustStock_InOptimisticMode_ShouldNotLock() {
+        ReflectionTestUtils.setField(stockReservationService, "lockingMode", "optimistic");
+        Product product = product(1, 10);
+        when(productRepository.findById(1)).thenReturn(Optional.of(product));
+
+        stockReservationService.adjustStock(1, -2);
+
+        assertEquals(12, product.getQuantity());
+        verify(productRepository, never()).findByIdWithLock(any());
+    }
+
+    @Test
+    void adjustStock_WhenShort_ShouldThrowBadRequest() {
+        Product product = product(1, 1);
+        when(productRepository.findShardedIds(List.of(1))).thenReturn(List.of());
+        when(productRepository.findByIdWithLock(1)).thenReturn(Optional.of(product));
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> stockReservationService.adjustStock(1, 2));
+
+        assertEquals("Not enough product quantity in stock. Available: 1", exception.getMessage());
+        assertEquals(1, product.getQuantity());
+    }
+
+    @Test
+    void adjustStock_WithShardedProduct_ShouldUseShards() {
+        Product product = product(1, 0);
+        product.setStockShards(2);
+        when(productRepository.findShardedIds(List.of(1))).thenReturn(List.of(1));
+        when(productRepository.findById(1)).thenReturn(Optional.of(product));
+        when(stockShardService.take(product, 3)).thenReturn(true);
+
+        stockReservationService.adjustStock(1, 3);
+        stockReservationService.adjustStock(1, -2);
+
+        verify(stockShardService).take(product, 3);
+        verify(stockShardService).giveBack(product, 2);
+        verify(productRepository, never()).findByIdWithLock(any());
+    }
+
+    @Test
+    void init_WithUnknownLockingMode_ShouldFail() {
+        ReflectionTestUtils.setField(stockReservationService, "lockingMode", "none");
+
+        assertThrows(IllegalStateException.class, () -> stockReservationService.init());
+    }
+
+    private Product product(int id, int quantity) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(BigDecimal.TEN);
+        product.setQuantity(quantity);
+        return product;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.cecv_e_commerce.service.impl;
+
+import com.example.cecv_e_commerce.domain.dto.product.ProductStockTotalDTO;
+import com.example.cecv_e_commerce.domain.model.Product;
+import com.example.cecv_e_commerce.domain.model.ProductStockShard;
+import com.example.cecv_e_commerce.repository.ProductRepository;
+import com.example.cecv_e_commerce.repository.ProductStockShardRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockShardServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductStockShardRepository productStockShardRepository;
+
+    @Mock
+    private ProductCatalogCache productCatalogCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private StockShardServiceImpl stockShardService;
+
+    @Test
+    void syncProductQuantities_ShouldUpdateEachProductInItsOwnTransaction() {
+        stockShardService.init();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productStockShardRepository.sumAllQuantities())
+                .thenReturn(List.of(new ProductStockTotalDTO(2, 40L), new ProductStockTotalDTO(3, 5L)));
+        when(productRepository.syncShardedQuantity(anyInt(), anyInt())).thenReturn(1);
+
+        stockShardService.syncProductQuantities();
+
+        verify(productRepository).syncShardedQuantity(2, 40);
+        verify(productRepository).syncShardedQuantity(3, 5);
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void availableQuantities_ShouldSumShardsOnlyForShardedProducts() {
+        Product regular = product(1, 7, 0);
+        Product sharded = product(2, 0, 4);
+        when(productStockShardRepository.sumQuantities(List.of(2)))
+                .thenReturn(List.of(new ProductStockTotalDTO(2, 40L)));
+
+        Map<Integer, Integer> available = stockShardService.availableQuantities(List.of(regular, sharded));
+
+        assertEquals(Map.of(1, 7, 2, 40), available);
+    }
+
+    @Test
+    void availableQuantity_ForRegularProduct_ShouldNotQuery() {
+        assertEquals(7, stockShardService.availableQuantity(product(1, 7, 0)));
+
+        verifyNoInteractions(productStockShardRepository);
+    }
+
+    @Test
+    void take_WhenAShardHasEnough_ShouldDecrementOneShard() {
+        Product product = product(1, 0, 4);
+        when(productStockShardRepository.findShardNosWithAtLeast(1, 3)).thenReturn(new ArrayList<>(List.of(0, 2)));
+        when(productStockShardRepository.takeFromShard(eq(1), anyInt(), eq(3))).thenReturn(0, 1);
+
+        assertTrue(stockShardService.take(product, 3));
+
+        verify(productStockShardRepository, times(2)).takeFromShard(eq(1), anyInt(), eq(3));
+        verify(productStockShardRepository, never()).findByProductIdWithLock(any());
+    }
+
+    @Test
+    void take_WhenNoShardHasEnough_ShouldDrainSeveralShardsUnderLock() {
+        Product product = product(1, 0, 3);
+        ProductStockShard first = new ProductStockShard(1, 1, 0, 2);
+        ProductStockShard second = new ProductStockShard(2, 1, 1, 2);
+        ProductStockShard third = new ProductStockShard(3, 1, 2, 2);
+        when(productStockShardRepository.findShardNosWithAtLeast(1, 5)).thenReturn(new ArrayList<>());
+        when(productStockShardRepository.findByProductIdWithLock(1)).thenReturn(List.of(first, second, third));
+
+        assertTrue(stockShardService.take(product, 5));
+
+        assertEquals(0, first.getQuantity());
+        assertEquals(0, second.getQuantity());
+        assertEquals(1, third.getQuantity());
+    }
+
+    @Test
+    void take_WhenShardsHoldTooLittle_ShouldReturnFalseAndKeepStock() {
+        Product product = product(1, 0, 2);
+        ProductStockShard first = new ProductStockShard(1, 1, 0, 1);
+        ProductStockShard second = new ProductStockShard(2, 1, 1, 1);
+        when(productStockShardRepository.findShardNosWithAtLeast(1, 3)).thenReturn(new ArrayList<>());
+        when(productStockShardRepository.findByProductIdWithLock(1)).thenReturn(List.of(first, second));
+
+        assertFalse(stockShardService.take(product, 3));
+
+        assertEquals(1, first.getQuantity());
+        assertEquals(1, second.getQuantity());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reshard_ShouldSpreadCurrentStockEvenly() {
+        Product product = product(1, 10, 0);
+        when(productRepository.findByIdWithLock(1)).thenReturn(Optional.of(product));
+        when(productStockShardRepository.findByProductIdWithLock(1)).thenReturn(List.of());
+
+        stockShardService.reshard(1, 3);
+
+        ArgumentCaptor<List<ProductStockShard>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productStockShardRepository).saveAll(captor.capture());
+        assertEquals(List.of(4, 3, 3), captor.getValue().stream().map(ProductStockShard::getQuantity).toList());
+        assertEquals(3, product.getStockShards());
+        assertEquals(10, product.getQuantity());
+        verify(productCatalogCache).evictProducts(List.of(1));
+    }
+
+    @Test
+    void reshard_ToZero_ShouldMoveShardTotalBackToProduct() {
+        Product product = product(1, 0, 2);
+        List<ProductStockShard> shards = List.of(new ProductStockShard(1, 1, 0, 5), new ProductStockShard(2, 1, 1, 6));
+        when(productRepository.findByIdWithLock(1)).thenReturn(Optional.of(product));
+        when(productStockShardRepository.findByProductIdWithLock(1)).thenReturn(shards);
+
+        stockShardService.reshard(1, 0);
+
+        verify(productStockShardRepository).deleteAllInBatch(shards);
+        assertEquals(0, product.getStockShards());
+        assertEquals(11, product.getQuantity());
+    }
+
+    private Product product(int id, int quantity, int stockShards) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(BigDecimal.TEN);
+        product.setQuantity(quantity);
+        product.setStockShards(stockShards);
+        return product;
+    }
+}
@@ -1,16 +1,19 @@
 package com.example.cecv_e_commerce.service.impl;
 
+import com.example.cecv_e_commerce.config.UserPrincipalCache;
+import com.example.cecv_e_commerce.config.UserStatusRegistry;
 import com.example.cecv_e_commerce.domain.dto.user.UserDTO;
 import com.example.cecv_e_commerce.domain.model.User;
 import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
+import com.example.cecv_e_commerce.mapper.UserMapper;
 import com.example.cecv_e_commerce.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.*;
 
 import java.time.LocalDateTime;
@@ -28,8 +31,14 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private UserMapper userMapper = new UserMapper();
+
+    @Mock
+    private UserStatusRegistry userStatusRegistry;
+
     @Mock
-    private ModelMapper modelMapper;
+    private UserPrincipalCache userPrincipalCache;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -65,7 +74,6 @@ class UserServiceImplTest {
         String[] sort = {"name", "asc"};
         when(userRepository.findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
                 eq(searchTerm), eq(searchTerm), any(Pageable.class))).thenReturn(userPage);
-        when(modelMapper.map(any(User.class), eq(UserDTO.class))).thenReturn(userDTO);
 
         Page<UserDTO> result = userService.getAllUsers(pageable, searchTerm, sort);
 
@@ -79,7 +87,6 @@ class UserServiceImplTest {
     void getAllUsers_WithoutSearchTerm_ShouldReturnAllUsers() {
         String[] sort = {"name", "asc"};
         when(userRepository.findAll(any(Pageable.class))).thenReturn(userPage);
-        when(modelMapper.map(any(User.class), eq(UserDTO.class))).thenReturn(userDTO);
 
         Page<UserDTO> result = userService.getAllUsers(pageable, "", sort);
 
@@ -91,7 +98,6 @@ class UserServiceImplTest {
     @Test
     void getUserById_WhenUserExists_ShouldReturnUser() {
         when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(modelMapper.map(user, UserDTO.class)).thenReturn(userDTO);
 
         UserDTO result = userService.getUserById(1);
 
@@ -113,7 +119,6 @@ class UserServiceImplTest {
     void updateUserStatus_WhenActivatingUser_ShouldUpdateStatusAndSetActivatedAt() {
         when(userRepository.findById(1)).thenReturn(Optional.of(user));
         when(userRepository.save(any(User.class))).thenReturn(user);
-        when(modelMapper.map(user, UserDTO.class)).thenReturn(userDTO);
 
         UserDTO result = userService.updateUserStatus(1, true);
 
@@ -127,13 +132,14 @@ class UserServiceImplTest {
     void updateUserStatus_WhenDeactivatingUser_ShouldUpdateStatusAndClearTokens() {
         when(userRepository.findById(1)).thenReturn(Optional.of(user));
         when(userRepository.save(any(User.class))).thenReturn(user);
-        when(modelMapper.map(user, UserDTO.class)).thenReturn(userDTO);
 
         UserDTO result = userService.updateUserStatus(1, false);
 
         assertNotNull(result);
         verify(userRepository).findById(1);
         verify(userRepository).save(any(User.class));
+        verify(userStatusRegistry).invalidate(1);
+        verify(userPrincipalCache).invalidate(eq(1), any());
     }
 
     @Test
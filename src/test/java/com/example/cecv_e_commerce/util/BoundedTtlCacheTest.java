@@ -0,0 +1,86 @@
+package com.example.cecv_e_commerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedTtlCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void whenEntryIsFresh_thenReturnsCachedValue() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test", 10, 1000, now::get);
+        cache.put("a", "value");
+
+        assertEquals("value", cache.get("a"));
+        assertEquals(1, cache.hitCount());
+        assertEquals(0, cache.missCount());
+    }
+
+    @Test
+    void whenTtlElapses_thenEntryExpires() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test", 10, 1000, now::get);
+        cache.put("a", "value");
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void whenMaxSizeExceeded_thenLeastRecentlyUsedIsEvicted() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test", 2, 1000, now::get);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void whenGetOrLoad_thenLoaderRunsOnlyOnMiss() {
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>("test", 10, 1000, now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.getOrLoad(1, key -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.getOrLoad(1, key -> "v" + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void whenInvalidateIf_thenMatchingEntriesAreRemoved() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>("test", 10, 1000, now::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        cache.invalidateIf(value -> value == 1);
+
+        assertNull(cache.get("a"));
+        assertEquals(2, cache.get("b"));
+    }
+
+    @Test
+    void whenInvalidatedDuringLoad_thenLoadedValueIsNotCached() {
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>("test", 10, 1000, now::get);
+
+        String loaded = cache.getOrLoad(1, key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertNull(cache.get(1));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.cecv_e_commerce.utils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Wraps a {@link DataSource} so that, while {@link #capture(Runnable)} runs on the calling thread,
+ * every SELECT, UPDATE or DELETE the application prepares is also run through {@code EXPLAIN} on
+ * the same connection with the same bound parameters. Lets tests check the plans of the SQL that
+ * Hibernate and Spring Data actually generate.
+ */
+public final class ExplainCapture {
+
+    private static final ThreadLocal<List<ExplainedStatement>> captured = new ThreadLocal<>();
+
+    public record ExplainedStatement(String sql, List<Map<String, Object>> plan) {
+    }
+
+    private ExplainCapture() {
+    }
+
+    public static List<ExplainedStatement> capture(Runnable action) {
+        List<ExplainedStatement> statements = new ArrayList<>();
+        captured.set(statements);
+        try {
+            action.run();
+        } finally {
+            captured.remove();
+        }
+        return statements;
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(method, target, args);
+            return method.getName().equals("getConnection") ? wrap((Connection) result) : result;
+        });
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(method, target, args);
+            if (method.getName().equals("prepareStatement") && args[0] instanceof String sql && isExplainable(sql)) {
+                return wrap((PreparedStatement) result, connection, sql);
+            }
+            return result;
+        });
+    }
+
+    private static PreparedStatement wrap(PreparedStatement statement, Connection connection, String sql) {
+        List<Object[]> parameters = new ArrayList<>();
+        return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.add(new Object[]{method, args});
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                List<ExplainedStatement> statements = captured.get();
+                if (statements != null) {
+                    statements.add(new ExplainedStatement(sql, explain(connection, sql, parameters)));
+                }
+            }
+            return invoke(method, target, args);
+        });
+    }
+
+    private static List<Map<String, Object>> explain(Connection connection, String sql, List<Object[]> parameters)
+            throws Exception {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (Object[] parameter : parameters) {
+                ((Method) parameter[0]).invoke(explain, (Object[]) parameter[1]);
+            }
+            List<Map<String, Object>> rows = new ArrayList<>();
+            try (ResultSet rs = explain.executeQuery()) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                while (rs.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                        row.put(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), rs.getObject(i));
+                    }
+                    rows.add(row);
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static boolean isExplainable(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        // Hibernate prefixes statements with a /* comment */ when use_sql_comments is on.
+        while (statement.startsWith("/*") && statement.contains("*/")) {
+            statement = statement.substring(statement.indexOf("*/") + 2).stripLeading();
+        }
+        return statement.startsWith("select") || statement.startsWith("update") || statement.startsWith("delete");
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+        return (T) Proxy.newProxyInstance(ExplainCapture.class.getClassLoader(), new Class<?>[]{type},
+                invocationHandler);
+    }
+
+    @FunctionalInterface
+    private interface Handler<T> {
+        Object handle(T target, Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.cecv_e_commerce.utils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements Hibernate prepares. Register it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector} and wrap the code
+ * under test in {@link #count(Runnable)}.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final AtomicInteger statements = new AtomicInteger();
+
+    @Override
+    public String inspect(String sql) {
+        statements.incrementAndGet();
+        return sql;
+    }
+
+    public static int count(Runnable action) {
+        statements.set(0);
+        action.run();
+        return statements.get();
+    }
+}
@@ -11,23 +11,34 @@ import com.example.cecv_e_commerce.exception.BadRequestException;
 import com.example.cecv_e_commerce.exception.ResourceNotFoundException;
 import com.example.cecv_e_commerce.repository.CartRepository;
 import com.example.cecv_e_commerce.repository.ProductRepository;
+import com.example.cecv_e_commerce.repository.ProductStockShardRepository;
+import com.example.cecv_e_commerce.service.StockHoldService;
 import com.example.cecv_e_commerce.service.impl.CartServiceImpl;
+import com.example.cecv_e_commerce.service.impl.CartStore;
+import com.example.cecv_e_commerce.service.impl.ProductCatalogCache;
+import com.example.cecv_e_commerce.service.impl.StockShardServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,7 +50,18 @@ class CartServiceTest {
     @Mock
     private ProductRepository productRepository;
 
-    @InjectMocks
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProductStockShardRepository productStockShardRepository;
+
+    @Mock
+    private ProductCatalogCache productCatalogCache;
+
+    @Mock
+    private StockHoldService stockHoldService;
+
     private CartServiceImpl cartService;
 
     private User user;
@@ -48,6 +70,21 @@ class CartServiceTest {
 
     @BeforeEach
     void setUp() {
+        // A real write-through CartStore, so the tests still see what reaches the repository.
+        CartStore cartStore = new CartStore();
+        ReflectionTestUtils.setField(cartStore, "cartRepository", cartRepository);
+        ReflectionTestUtils.setField(cartStore, "productRepository", productRepository);
+        ReflectionTestUtils.setField(cartStore, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(cartStore, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cartStore, "lockStripes", 4);
+        cartStore.init();
+        StockShardServiceImpl stockShardService =
+                new StockShardServiceImpl(productRepository, productStockShardRepository, productCatalogCache,
+                        transactionManager);
+        cartService = new CartServiceImpl(cartRepository, productRepository, cartStore, stockShardService,
+                stockHoldService, productCatalogCache);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
         user = new User();
         user.setId(1);
 
@@ -82,7 +119,7 @@ class CartServiceTest {
 
     @Test
     void getCart_Success() {
-        when(cartRepository.findByUserId(1)).thenReturn(Optional.of(cart));
+        when(cartRepository.findWithItemsByUserId(1)).thenReturn(Optional.of(cart));
 
         CartResponseDTO response = cartService.getCart();
 
@@ -91,19 +128,19 @@ class CartServiceTest {
         assertEquals(1, response.userId());
         assertEquals(0, response.numberOfItems());
         assertTrue(response.items().isEmpty());
-        verify(cartRepository, times(1)).findByUserId(1);
+        verify(cartRepository, times(1)).findWithItemsByUserId(1);
     }
 
     @Test
     void getCart_Failure_CartNotFound() {
-        when(cartRepository.findByUserId(1)).thenReturn(Optional.empty());
+        when(cartRepository.findWithItemsByUserId(1)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
             cartService.getCart();
         });
 
         assertEquals("Cart not found", exception.getMessage());
-        verify(cartRepository, times(1)).findByUserId(1);
+        verify(cartRepository, times(1)).findWithItemsByUserId(1);
     }
 
     @Test
@@ -115,7 +152,7 @@ class CartServiceTest {
         });
 
         assertEquals("User not found", exception.getMessage());
-        verify(cartRepository, never()).findByUserId(anyInt());
+        verify(cartRepository, never()).findWithItemsByUserId(anyInt());
     }
 
     @Test
@@ -124,18 +161,57 @@ class CartServiceTest {
         request.setProductId(1);
         request.setQuantity(2);
 
-        when(cartRepository.findByUserId(1)).thenReturn(Optional.of(cart));
+        when(cartRepository.findWithItemsByUserId(1)).thenReturn(Optional.of(cart));
         when(productRepository.findById(1)).thenReturn(Optional.of(product));
-        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+        when(productRepository.getReferenceById(1)).thenReturn(product);
+        when(cartRepository.saveAndFlush(cart)).thenReturn(cart);
+        when(productRepository.findAllById(List.of(1))).thenReturn(List.of(product));
 
         CartResponseDTO response = cartService.addToCart(request);
 
         assertNotNull(response);
         assertEquals(1, response.id());
+        assertEquals(1, response.numberOfItems());
         assertEquals(1, cart.getItems().size());
         assertEquals(2, cart.getItems().getFirst().getQuantity());
         verify(productRepository, times(1)).findById(1);
-        verify(cartRepository, times(1)).save(cart);
+        verify(cartRepository, times(1)).saveAndFlush(cart);
+    }
+
+    @Test
+    void addToCart_WithHolds_ShouldHoldStockWithoutLoadingProduct() {
+        CartItemRequestCreateDTO request = new CartItemRequestCreateDTO();
+        request.setProductId(1);
+        request.setQuantity(2);
+
+        when(stockHoldService.isEnabled()).thenReturn(true);
+        when(productCatalogCache.getAvailable(eq(1), any())).thenReturn(10);
+        when(cartRepository.findWithItemsByUserId(1)).thenReturn(Optional.of(cart));
+        when(productRepository.getReferenceById(1)).thenReturn(product);
+        when(cartRepository.saveAndFlush(cart)).thenReturn(cart);
+        when(productRepository.findAllById(List.of(1))).thenReturn(List.of(product));
+
+        cartService.addToCart(request);
+
+        assertEquals(2, cart.getItems().getFirst().getQuantity());
+        verify(stockHoldService).add(1, 1, 2);
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void addToCart_WithHolds_WhenAvailableIsTooLow_ShouldNotHold() {
+        CartItemRequestCreateDTO request = new CartItemRequestCreateDTO();
+        request.setProductId(1);
+        request.setQuantity(5);
+
+        when(stockHoldService.isEnabled()).thenReturn(true);
+        when(productCatalogCache.getAvailable(eq(1), any())).thenReturn(3);
+
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> cartService.addToCart(request));
+
+        assertEquals("Not enough stock available. Available quantity: 3", exception.getMessage());
+        verify(stockHoldService, never()).add(any(), any(), anyInt());
+        verifyNoInteractions(cartRepository);
     }
 
     @Test
@@ -151,18 +227,20 @@ class CartServiceTest {
         request.setProductId(1);
         request.setQuantity(2);
 
-        when(cartRepository.findByUserId(1)).thenReturn(Optional.of(cart));
+        when(cartRepository.findWithItemsByUserId(1)).thenReturn(Optional.of(cart));
         when(productRepository.findById(1)).thenReturn(Optional.of(product));
-        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+        when(cartRepository.saveAndFlush(cart)).thenReturn(cart);
+        when(productRepository.findAllById(List.of(1))).thenReturn(List.of(product));
 
         CartResponseDTO response = cartService.addToCart(request);
 
         assertNotNull(response);
         assertEquals(1, response.id());
+        assertEquals(1, response.numberOfItems());
         assertEquals(1, cart.getItems().size());
         assertEquals(5, cart.getItems().get(0).getQuantity()); // 3 + 2
         verify(productRepository, times(1)).findById(1);
-        verify(cartRepository, times(1)).save(cart);
+        verify(cartRepository, times(1)).saveAndFlush(cart);
     }
 
     @Test
@@ -171,7 +249,6 @@ class CartServiceTest {
         request.setProductId(1);
         request.setQuantity(2);
 
-        when(cartRepository.findByUserId(1)).thenReturn(Optional.of(cart));
         when(productRepository.findById(1)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -180,7 +257,7 @@ class CartServiceTest {
 
         assertEquals("Product not found", exception.getMessage());
         verify(productRepository, times(1)).findById(1);
-        verify(cartRepository, never()).save(any(Cart.class));
+        verify(cartRepository, never()).saveAndFlush(any(Cart.class));
     }
 
     @Test
@@ -189,7 +266,6 @@ class CartServiceTest {
         request.setProductId(1);
         request.setQuantity(15); // More than available (10)
 
-        when(cartRepository.findByUserId(1)).thenReturn(Optional.of(cart));
         when(productRepository.findById(1)).thenReturn(Optional.of(product));
 
         BadRequestException exception = assertThrows(BadRequestException.class, () -> {
@@ -198,7 +274,7 @@ class CartServiceTest {
 
         assertEquals("Not enough stock available. Available quantity: 10", exception.getMessage());
         verify(productRepository, times(1)).findById(1);
-        verify(cartRepository, never()).save(any(Cart.class));
+        verify(cartRepository, never()).saveAndFlush(any(Cart.class));
     }
 
     @Test
@@ -214,7 +290,7 @@ class CartServiceTest {
         request.setProductId(1);
         request.setQuantity(5); // 8 + 5 = 13 > 10
 
-        when(cartRepository.findByUserId(1)).thenReturn(Optional.of(cart));
+        when(cartRepository.findWithItemsByUserId(1)).thenReturn(Optional.of(cart));
         when(productRepository.findById(1)).thenReturn(Optional.of(product));
 
         BadRequestException exception = assertThrows(BadRequestException.class, () -> {
@@ -223,7 +299,7 @@ class CartServiceTest {
 
         assertEquals("Not enough stock available. Available quantity: 10", exception.getMessage());
         verify(productRepository, times(1)).findById(1);
-        verify(cartRepository, never()).save(any(Cart.class));
+        verify(cartRepository, never()).saveAndFlush(any(Cart.class));
     }
 
     @Test
@@ -235,28 +311,28 @@ class CartServiceTest {
         cartItem.setQuantity(2);
         cart.getItems().add(cartItem);
 
-        when(cartRepository.findByUserId(1)).thenReturn(Optional.of(cart));
-        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+        when(cartRepository.findWithItemsByUserId(1)).thenReturn(Optional.of(cart));
+        when(cartRepository.saveAndFlush(cart)).thenReturn(cart);
 
         CartResponseDTO response = cartService.removeFromCart(1);
 
         assertNotNull(response);
         assertEquals(1, response.id());
         assertTrue(cart.getItems().isEmpty());
-        verify(cartRepository, times(1)).save(cart);
+        verify(cartRepository, times(1)).saveAndFlush(cart);
     }
 
     @Test
     void removeFromCart_Failure_CartNotFound() {
-        when(cartRepository.findByUserId(1)).thenReturn(Optional.empty());
+        when(cartRepository.findWithItemsByUserId(1)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
             cartService.removeFromCart(1);
         });
 
         assertEquals("Cart not found", exception.getMessage());
-        verify(cartRepository, times(1)).findByUserId(1);
-        verify(cartRepository, never()).save(any(Cart.class));
+        verify(cartRepository, times(1)).findWithItemsByUserId(1);
+        verify(cartRepository, never()).saveAndFlush(any(Cart.class));
     }
 
     @Test
@@ -271,20 +347,22 @@ class CartServiceTest {
         CartItemRequestUpdateDTO request = new CartItemRequestUpdateDTO();
         request.setQuantity(5);
 
-        when(cartRepository.findByUserId(1)).thenReturn(Optional.of(cart));
-        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+        when(cartRepository.findWithItemsByUserId(1)).thenReturn(Optional.of(cart));
+        when(productRepository.findById(1)).thenReturn(Optional.of(product));
+        when(cartRepository.saveAndFlush(cart)).thenReturn(cart);
+        when(productRepository.findAllById(List.of(1))).thenReturn(List.of(product));
 
         CartResponseDTO response = cartService.updateCartItem(1, request);
 
         assertNotNull(response);
         assertEquals(1, response.id());
         assertEquals(5, cart.getItems().getFirst().getQuantity());
-        verify(cartRepository, times(1)).save(cart);
+        verify(cartRepository, times(1)).saveAndFlush(cart);
     }
 
     @Test
     void updateCartItem_Failure_ProductNotInCart() {
-        when(cartRepository.findByUserId(1)).thenReturn(Optional.of(cart));
+        when(cartRepository.findWithItemsByUserId(1)).thenReturn(Optional.of(cart));
 
         CartItemRequestUpdateDTO request = new CartItemRequestUpdateDTO();
         request.setQuantity(5);
@@ -294,8 +372,8 @@ class CartServiceTest {
         });
 
         assertEquals("Product not found in cart", exception.getMessage());
-        verify(cartRepository, times(1)).findByUserId(1);
-        verify(cartRepository, never()).save(any(Cart.class));
+        verify(cartRepository, times(1)).findWithItemsByUserId(1);
+        verify(cartRepository, never()).saveAndFlush(any(Cart.class));
     }
 
     @Test
@@ -310,15 +388,16 @@ class CartServiceTest {
         CartItemRequestUpdateDTO request = new CartItemRequestUpdateDTO();
         request.setQuantity(15); // More than available (10)
 
-        when(cartRepository.findByUserId(1)).thenReturn(Optional.of(cart));
+        when(cartRepository.findWithItemsByUserId(1)).thenReturn(Optional.of(cart));
+        when(productRepository.findById(1)).thenReturn(Optional.of(product));
 
         BadRequestException exception = assertThrows(BadRequestException.class, () -> {
             cartService.updateCartItem(1, request);
         });
 
         assertEquals("Not enough stock available. Available quantity: 10", exception.getMessage());
-        verify(cartRepository, times(1)).findByUserId(1);
-        verify(cartRepository, never()).save(any(Cart.class));
+        verify(cartRepository, times(1)).findWithItemsByUserId(1);
+        verify(cartRepository, never()).saveAndFlush(any(Cart.class));
     }
 
     @Test
@@ -330,27 +409,27 @@ class CartServiceTest {
         cartItem.setQuantity(2);
         cart.getItems().add(cartItem);
 
-        when(cartRepository.findByUserId(1)).thenReturn(Optional.of(cart));
-        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+        when(cartRepository.findWithItemsByUserId(1)).thenReturn(Optional.of(cart));
+        when(cartRepository.saveAndFlush(cart)).thenReturn(cart);
 
         CartResponseDTO response = cartService.clearCart();
 
         assertNotNull(response);
         assertEquals(1, response.id());
         assertTrue(cart.getItems().isEmpty());
-        verify(cartRepository, times(1)).save(cart);
+        verify(cartRepository, times(1)).saveAndFlush(cart);
     }
 
     @Test
     void clearCart_Failure_CartNotFound() {
-        when(cartRepository.findByUserId(1)).thenReturn(Optional.empty());
+        when(cartRepository.findWithItemsByUserId(1)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
             cartService.clearCart();
         });
 
         assertEquals("Cart not found", exception.getMessage());
-        verify(cartRepository, times(1)).findByUserId(1);
-        verify(cartRepository, never()).save(any(Cart.class));
+        verify(cartRepository, times(1)).findWithItemsByUserId(1);
+        verify(cartRepository, never()).saveAndFlush(any(Cart.class));
     }
 }
@@ -0,0 +1,2 @@
+-- PRODUCT VERSION (version-checked stock updates when app.stock.locking-mode=optimistic)
+ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
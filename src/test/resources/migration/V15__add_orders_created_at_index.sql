@@ -0,0 +1,2 @@
+-- RevenueRollupReconcileTask aggregates recent orders by creation date across statuses
+CREATE INDEX idx_orders_created_at ON orders (created_at);
@@ -0,0 +1,14 @@
+-- DAILY REVENUE ROLLUPS (maintained incrementally from order changes)
+CREATE TABLE daily_revenue_rollups (
+    revenue_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    order_count INT NOT NULL DEFAULT 0,
+    total_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (status, revenue_date)
+);
+
+INSERT INTO daily_revenue_rollups (revenue_date, status, order_count, total_revenue)
+SELECT DATE(created_at), status, COUNT(*), COALESCE(SUM(total), 0)
+FROM orders
+WHERE created_at IS NOT NULL AND status IS NOT NULL
+GROUP BY DATE(created_at), status;